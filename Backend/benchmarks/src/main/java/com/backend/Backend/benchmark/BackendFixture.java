@@ -0,0 +1,59 @@
+package com.backend.Backend.benchmark;
+
+import com.backend.Backend.BackendApplication;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * The whole Backend application on a private in-memory H2 database and a
+ * random port, with uploads and the chat archive in a scratch directory.
+ * Background jobs that would move data while a benchmark runs are off.
+ */
+final class BackendFixture implements AutoCloseable {
+
+    private final Path scratch;
+    private final ConfigurableApplicationContext context;
+
+    private BackendFixture(Path scratch, ConfigurableApplicationContext context) {
+        this.scratch = scratch;
+        this.context = context;
+    }
+
+    static BackendFixture start() throws IOException {
+        Path scratch = Files.createTempDirectory("numoves-bench-");
+        // Command-line arguments, so they win over application.properties.
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID()
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER,VALUE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--server.port=0",
+                "--upload.dir=" + scratch.resolve("uploads"),
+                "--chat.archive.dir=" + scratch.resolve("chat-archive"),
+                "--chat.archive.enabled=false",
+                "--rate-limit.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN");
+        return new BackendFixture(scratch, context);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    int port() {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(scratch);
+    }
+}
@@ -0,0 +1,92 @@
+package com.backend.Backend.benchmark;
+
+import com.backend.Backend.controller.ChatMessageController;
+import com.backend.Backend.dto.ChatHistoryPage;
+import com.backend.Backend.dto.ConversationDTO;
+import com.backend.Backend.model.ChatMessage;
+import com.backend.Backend.service.ConversationService;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Chat read paths against a seeded database: the conversation list, the
+ * first history page, and the legacy whole-history query
+ * {@link ChatMessageController#findMessagesBetweenUsers} for comparison.
+ * Each call picks a random user and one of their partners.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatQueryBenchmark {
+
+    @Param("200")
+    public int users;
+
+    @Param("10")
+    public int conversationsPerUser;
+
+    @Param({"100", "1000"})
+    public int messagesPerConversation;
+
+    private BackendFixture fixture;
+    private ConversationService conversationService;
+    private ChatMessageController legacyChatMessages;
+    private List<Long> userIds;
+
+    @Setup
+    public void seed() throws IOException {
+        fixture = BackendFixture.start();
+        userIds = SeedData.users(fixture, users);
+        SeedData.conversations(fixture, userIds, conversationsPerUser, messagesPerConversation);
+        conversationService = fixture.bean(ConversationService.class);
+        legacyChatMessages = fixture.bean(ChatMessageController.class);
+    }
+
+    @TearDown
+    public void stop() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public List<ConversationDTO> conversationsForUser() {
+        return conversationService.findConversationsForUser(randomUser());
+    }
+
+    @Benchmark
+    public ChatHistoryPage historyFirstPage() {
+        int user = ThreadLocalRandom.current().nextInt(userIds.size());
+        return conversationService.findHistoryPage(userIds.get(user).toString(), partnerOf(user), null, 50);
+    }
+
+    @Benchmark
+    public List<ChatMessage> messagesBetweenUsers() {
+        int user = ThreadLocalRandom.current().nextInt(userIds.size());
+        return legacyChatMessages.findMessagesBetweenUsers(userIds.get(user).toString(), partnerOf(user));
+    }
+
+    private String randomUser() {
+        return userIds.get(ThreadLocalRandom.current().nextInt(userIds.size())).toString();
+    }
+
+    private String partnerOf(int user) {
+        int offset = 1 + ThreadLocalRandom.current().nextInt(conversationsPerUser);
+        return userIds.get((user + offset) % userIds.size()).toString();
+    }
+}
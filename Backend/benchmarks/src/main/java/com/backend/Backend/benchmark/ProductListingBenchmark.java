@@ -0,0 +1,77 @@
+package com.backend.Backend.benchmark;
+
+import com.backend.Backend.dto.ProductPage;
+import com.backend.Backend.dto.ProductView;
+import com.backend.Backend.repository.ProductQuery;
+import com.backend.Backend.repository.ProductRepository;
+import com.backend.Backend.repository.ProductSort;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The first page of {@code GET /products}: JSON serialization of a page on
+ * its own, and the keyset query plus serialization as the endpoint does it.
+ * Uses the application's ObjectMapper so modules and settings match.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductListingBenchmark {
+
+    @Param("100")
+    public int users;
+
+    @Param({"1000", "10000"})
+    public int products;
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private BackendFixture fixture;
+    private ProductRepository productRepository;
+    private ObjectMapper objectMapper;
+    private ProductQuery firstPage;
+    private ProductPage<ProductView> page;
+
+    @Setup
+    public void seed() throws IOException {
+        fixture = BackendFixture.start();
+        SeedData.products(fixture, SeedData.users(fixture, users), products);
+        productRepository = fixture.bean(ProductRepository.class);
+        objectMapper = fixture.bean(ObjectMapper.class);
+        firstPage = new ProductQuery(null, null, null, null, ProductSort.fromParam("newest"), null, pageSize);
+        page = productRepository.findPage(firstPage);
+    }
+
+    @TearDown
+    public void stop() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] queryAndSerializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(productRepository.findPage(firstPage));
+    }
+}
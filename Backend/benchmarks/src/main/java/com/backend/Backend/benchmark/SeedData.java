@@ -0,0 +1,99 @@
+package com.backend.Backend.benchmark;
+
+import com.backend.Backend.model.ChatMessage;
+import com.backend.Backend.model.Product;
+import com.backend.Backend.model.User;
+import com.backend.Backend.repository.ProductRepository;
+import com.backend.Backend.repository.UserRepository;
+import com.backend.Backend.service.ConversationService;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills a {@link BackendFixture} through the application's own repositories
+ * and services, so conversation summaries and indexes look the way
+ * production traffic leaves them.
+ */
+final class SeedData {
+
+    private static final int BATCH = 1000;
+
+    private SeedData() {
+    }
+
+    /** Creates {@code count} users and returns their ids. */
+    static List<Long> users(BackendFixture fixture, int count) {
+        UserRepository users = fixture.bean(UserRepository.class);
+        List<Long> ids = new ArrayList<>(count);
+        List<User> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setName("Bench User " + i);
+            user.setEmail("bench" + i + "@example.com");
+            user.setPassword("not-a-real-hash");
+            user.setPhone("555" + i);
+            batch.add(user);
+            if (batch.size() == BATCH || i == count - 1) {
+                users.saveAll(batch).forEach(saved -> ids.add(saved.getId()));
+                batch.clear();
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Gives every user {@code conversationsPerUser} partners (the next users
+     * in id order, wrapping around) and each pair {@code messagesPerConversation}
+     * messages, alternating sender, one second apart and ending now.
+     */
+    static void conversations(BackendFixture fixture, List<Long> userIds,
+                              int conversationsPerUser, int messagesPerConversation) {
+        if (conversationsPerUser * 2 >= userIds.size()) {
+            throw new IllegalArgumentException("Need more than twice as many users as conversations per user");
+        }
+        ConversationService conversations = fixture.bean(ConversationService.class);
+        LocalDateTime start = LocalDateTime.now().minusSeconds(messagesPerConversation);
+        List<ChatMessage> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < userIds.size(); i++) {
+            String user = userIds.get(i).toString();
+            for (int k = 1; k <= conversationsPerUser; k++) {
+                String partner = userIds.get((i + k) % userIds.size()).toString();
+                for (int m = 0; m < messagesPerConversation; m++) {
+                    ChatMessage message = new ChatMessage();
+                    message.setSenderId(m % 2 == 0 ? user : partner);
+                    message.setRecipientId(m % 2 == 0 ? partner : user);
+                    message.setContent("Message " + m + " between " + user + " and " + partner);
+                    message.setTimestamp(start.plusSeconds(m));
+                    batch.add(message);
+                    if (batch.size() == BATCH) {
+                        conversations.recordBatch(batch);
+                        batch = new ArrayList<>(BATCH);
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            conversations.recordBatch(batch);
+        }
+    }
+
+    /** Creates {@code count} products spread evenly over the users. */
+    static void products(BackendFixture fixture, List<Long> userIds, int count) {
+        UserRepository users = fixture.bean(UserRepository.class);
+        ProductRepository products = fixture.bean(ProductRepository.class);
+        List<User> owners = users.findAllById(userIds);
+        List<Product> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < count; i++) {
+            batch.add(new Product("Product " + i,
+                    "Gently used item number " + i + ", pick up or delivery.",
+                    5 + (i % 500),
+                    "/products/images/bench-" + i + ".jpg",
+                    owners.get(i % owners.size())));
+            if (batch.size() == BATCH || i == count - 1) {
+                products.saveAll(batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.backend.Backend.benchmark;
+
+import com.backend.Backend.model.ChatMessage;
+import com.backend.Backend.security.TokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+/**
+ * One chat message from SEND on {@code /app/chat.send} to delivery on the
+ * recipient's {@code /user/queue/messages}, over loopback WebSockets to the
+ * application in this JVM. Storing the message happens behind delivery, in
+ * the write-behind queue, and is not part of the measured time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StompRoundTripBenchmark {
+
+    private BackendFixture fixture;
+    private WebSocketStompClient client;
+    private StompSession sender;
+    private StompSession recipient;
+    private String recipientId;
+    private final BlockingQueue<ChatMessage> inbox = new LinkedBlockingQueue<>();
+    private long sequence;
+
+    @Setup
+    public void connect() throws Exception {
+        fixture = BackendFixture.start();
+        List<Long> userIds = SeedData.users(fixture, 2);
+        recipientId = userIds.get(1).toString();
+
+        client = new WebSocketStompClient(new StandardWebSocketClient());
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(fixture.bean(ObjectMapper.class));
+        client.setMessageConverter(converter);
+        sender = connect(userIds.get(0).toString());
+        recipient = connect(recipientId);
+        recipient.subscribe("/user/queue/messages", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return ChatMessage.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                inbox.add((ChatMessage) payload);
+            }
+        });
+        // The subscription has no receipt; wait until a message makes it through.
+        if (roundTrip() == null) {
+            throw new IllegalStateException("Recipient never received the first message");
+        }
+    }
+
+    @TearDown
+    public void disconnect() throws IOException {
+        sender.disconnect();
+        recipient.disconnect();
+        client.stop();
+        fixture.close();
+    }
+
+    @Benchmark
+    public ChatMessage sendMessage() throws InterruptedException {
+        ChatMessage received = roundTrip();
+        if (received == null) {
+            throw new IllegalStateException("Message was not delivered within 5s");
+        }
+        return received;
+    }
+
+    private ChatMessage roundTrip() throws InterruptedException {
+        ChatMessage message = new ChatMessage();
+        message.setRecipientId(recipientId);
+        message.setContent("benchmark message " + sequence++);
+        sender.send("/app/chat.send", message);
+        return inbox.poll(5, TimeUnit.SECONDS);
+    }
+
+    private StompSession connect(String userId) throws Exception {
+        StompHeaders connectHeaders = new StompHeaders();
+        String token = fixture.bean(TokenService.class).issue(Long.valueOf(userId), "Bench User").value();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        return client.connectAsync("ws://localhost:" + fixture.port() + "/ws-native",
+                        new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+                        })
+                .get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,62 @@
+package com.backend.Backend.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bearer tokens for the simulated users, signed with the backend's own
+ * {@code auth.token.secret} so thousands of users need no accounts or
+ * logins. One token per user, valid for the whole run.
+ */
+final class AccessTokens {
+
+    private final MACSigner signer;
+    private final String issuer;
+    private final Date expiresAt;
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+
+    AccessTokens(LoadTestProperties properties) {
+        if (properties.tokenSecret() == null || properties.tokenSecret().isBlank()) {
+            throw new IllegalStateException(
+                    "loadtest.token-secret is required: set it to the backend's auth.token.secret");
+        }
+        try {
+            this.signer = new MACSigner(Base64.getDecoder().decode(properties.tokenSecret().trim()));
+        } catch (JOSEException e) {
+            throw new IllegalStateException("loadtest.token-secret is not a usable HS256 key", e);
+        }
+        this.issuer = properties.tokenIssuer();
+        // Long enough for connecting, the run and the drain.
+        this.expiresAt = Date.from(Instant.now().plus(properties.duration()).plusSeconds(3600));
+    }
+
+    /** The {@code Authorization} header value for a user. */
+    String bearer(String userId) {
+        return "Bearer " + tokens.computeIfAbsent(userId, this::sign);
+    }
+
+    private String sign(String userId) {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(userId)
+                .issueTime(new Date())
+                .expirationTime(expiresAt)
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+        try {
+            jwt.sign(signer);
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+        return jwt.serialize();
+    }
+}
@@ -0,0 +1,198 @@
+package com.backend.Backend.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+/**
+ * Simulated chat users: one STOMP session each, subscribed to their
+ * {@code /user/queue/messages}. Messages go from a random user to another
+ * random user and carry their due time, so the receiving side can record
+ * delivery lag from when the message should have been sent.
+ */
+final class ChatLoad implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatLoad.class);
+    private static final String CONTENT_PREFIX = "loadtest ";
+
+    private final LoadTestProperties properties;
+    private final LatencyStats send;
+    private final LatencyStats delivery;
+    private final AccessTokens tokens;
+    private final WebSocketStompClient client;
+    private final ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+    private final List<UserSession> sessions = new CopyOnWriteArrayList<>();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+
+    ChatLoad(LoadTestProperties properties, ObjectMapper objectMapper, AccessTokens tokens,
+             LatencyStats send, LatencyStats delivery) {
+        this.properties = properties;
+        this.tokens = tokens;
+        this.send = send;
+        this.delivery = delivery;
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        heartbeatScheduler.setPoolSize(4);
+        heartbeatScheduler.setThreadNamePrefix("stomp-heartbeat-");
+        heartbeatScheduler.setDaemon(true);
+        heartbeatScheduler.initialize();
+        client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(converter);
+        client.setTaskScheduler(heartbeatScheduler);
+        // What the web client asks for, so the backend sees the same heart-beat traffic.
+        client.setDefaultHeartbeat(new long[] {10000, 10000});
+    }
+
+    /** Opens every session, a bounded number at a time; returns the ids of the users that connected. */
+    List<String> connect() throws InterruptedException {
+        Semaphore handshakes = new Semaphore(properties.connectConcurrency());
+        CountDownLatch done = new CountDownLatch(properties.chatUsers());
+        for (int i = 0; i < properties.chatUsers(); i++) {
+            String userId = Long.toString(properties.firstUserId() + i);
+            handshakes.acquire();
+            StompHeaders connectHeaders = new StompHeaders();
+            connectHeaders.add("Authorization", tokens.bearer(userId));
+            client.connectAsync(properties.stompUri().toString(), new WebSocketHttpHeaders(), connectHeaders,
+                            new UserHandler(userId))
+                    .whenComplete((session, failure) -> {
+                        if (failure != null) {
+                            send.error();
+                            log.debug("User {} could not connect", userId, failure);
+                        }
+                        handshakes.release();
+                        done.countDown();
+                    });
+        }
+        done.await();
+        return sessions.stream().map(UserSession::userId).toList();
+    }
+
+    void send(long dueNanos) {
+        int count = sessions.size();
+        if (count < 2) {
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(count);
+        int to = (from + 1 + random.nextInt(count - 1)) % count;
+        try {
+            sessions.get(from).session().send("/app/chat.send",
+                    new ChatPayload(null, sessions.get(to).userId(), CONTENT_PREFIX + dueNanos));
+            sent.incrementAndGet();
+            send.recordSince(dueNanos);
+        } catch (RuntimeException e) {
+            send.error();
+        }
+    }
+
+    /** Waits for messages still in flight; whatever has not arrived by then counts as lost. */
+    void drain() throws InterruptedException {
+        long deadline = System.nanoTime() + properties.drainTimeout().toNanos();
+        while (delivered.get() < sent.get() && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        long lost = sent.get() - delivered.get();
+        if (lost > 0) {
+            delivery.errors(lost);
+        }
+    }
+
+    long sent() {
+        return sent.get();
+    }
+
+    long delivered() {
+        return delivered.get();
+    }
+
+    @Override
+    public void close() {
+        sessions.forEach(user -> user.session().disconnect());
+        client.stop();
+        heartbeatScheduler.shutdown();
+    }
+
+    private void received(ChatPayload payload) {
+        String content = payload.content();
+        if (content == null || !content.startsWith(CONTENT_PREFIX)) {
+            return;
+        }
+        try {
+            delivery.recordSince(Long.parseLong(content.substring(CONTENT_PREFIX.length())));
+            delivered.incrementAndGet();
+        } catch (NumberFormatException e) {
+            delivery.error();
+        }
+    }
+
+    private final class UserHandler extends StompSessionHandlerAdapter {
+
+        private final String userId;
+
+        UserHandler(String userId) {
+            this.userId = userId;
+        }
+
+        @Override
+        public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+            session.subscribe("/user/queue/messages", this);
+            sessions.add(new UserSession(userId, session));
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            // Only MESSAGE frames have a destination; the rest are ERROR frames.
+            return headers.getDestination() != null ? ChatPayload.class : String.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            if (payload instanceof ChatPayload message) {
+                received(message);
+            } else {
+                send.error();
+                log.debug("ERROR frame for user {}: {}", userId, headers.getFirst("message"));
+            }
+        }
+
+        @Override
+        public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                    byte[] payload, Throwable exception) {
+            send.error();
+            log.debug("STOMP error for user {}: {}", userId, headers.getFirst("message"), exception);
+        }
+
+        @Override
+        public void handleTransportError(StompSession session, Throwable exception) {
+            send.error();
+            log.debug("Transport error for user {}", userId, exception);
+        }
+    }
+
+    private record UserSession(String userId, StompSession session) {
+    }
+
+    /** The fields of the backend's ChatMessage this client sends and reads. */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ChatPayload(String senderId, String recipientId, String content) {
+    }
+}
@@ -0,0 +1,130 @@
+package com.backend.Backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Marketplace and chat REST traffic: product listings as a random simulated
+ * user (following the keyset cursor half of the time, like a user
+ * scrolling), image fetches for URLs
+ * seen in those listings, and conversation lists of the simulated users.
+ * Requests are sent asynchronously so a slow response never delays the next
+ * one; a 4xx/5xx status or a failed request counts as an error.
+ */
+final class HttpLoad {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpLoad.class);
+    private static final int IMAGE_URLS = 1024;
+
+    private final LoadTestProperties properties;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final List<String> userIds;
+    private final AccessTokens tokens;
+    private final Semaphore inFlight;
+    private final AtomicReferenceArray<String> imageUrls = new AtomicReferenceArray<>(IMAGE_URLS);
+    private final AtomicReference<String> nextCursor = new AtomicReference<>();
+    private final LatencyStats products;
+    private final LatencyStats images;
+    private final LatencyStats conversations;
+
+    HttpLoad(LoadTestProperties properties, ObjectMapper objectMapper, List<String> userIds, AccessTokens tokens,
+             LatencyStats products, LatencyStats images, LatencyStats conversations) {
+        this.properties = properties;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        this.objectMapper = objectMapper;
+        this.userIds = userIds;
+        this.tokens = tokens;
+        this.inFlight = new Semaphore(properties.maxInFlight());
+        this.products = products;
+        this.images = images;
+        this.conversations = conversations;
+    }
+
+    void listProducts(long dueNanos) {
+        String cursor = ThreadLocalRandom.current().nextBoolean() ? nextCursor.get() : null;
+        String query = cursor != null ? "?cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8) : "";
+        get("/products" + query, randomUserBearer(), products, dueNanos, this::rememberListing);
+    }
+
+    void fetchImage(long dueNanos) {
+        String url = imageUrls.get(ThreadLocalRandom.current().nextInt(IMAGE_URLS));
+        if (url != null) {
+            get(url, null, images, dueNanos, body -> { });
+        }
+    }
+
+    void listConversations(long dueNanos) {
+        if (!userIds.isEmpty()) {
+            String userId = userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+            get("/api/chat/conversations/" + userId, tokens.bearer(userId), conversations, dueNanos, body -> { });
+        }
+    }
+
+    // Signed in as a random simulated user, so listings are rate limited per
+    // user like real browsers rather than all sharing this host's address.
+    private String randomUserBearer() {
+        if (userIds.isEmpty()) {
+            return null;
+        }
+        return tokens.bearer(userIds.get(ThreadLocalRandom.current().nextInt(userIds.size())));
+    }
+
+    private void get(String path, String authorization, LatencyStats stats, long dueNanos, Consumer<byte[]> onBody) {
+        if (!inFlight.tryAcquire()) {
+            stats.error();
+            return;
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(properties.baseUrl().resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, failure) -> {
+                    inFlight.release();
+                    if (failure != null || response.statusCode() >= 400) {
+                        stats.error();
+                        if (failure != null) {
+                            log.debug("GET {} failed", path, failure);
+                        }
+                        return;
+                    }
+                    stats.recordSince(dueNanos);
+                    onBody.accept(response.body());
+                });
+    }
+
+    private void rememberListing(byte[] body) {
+        try {
+            JsonNode page = objectMapper.readTree(body);
+            JsonNode cursor = page.path("nextCursor");
+            nextCursor.set(cursor.isTextual() ? cursor.asText() : null);
+            for (JsonNode item : page.path("items")) {
+                JsonNode thumbnail = item.path("thumbnailUrl");
+                JsonNode image = thumbnail.isTextual() ? thumbnail : item.path("imageUrl");
+                if (image.isTextual() && image.asText().startsWith("/")) {
+                    imageUrls.set(ThreadLocalRandom.current().nextInt(IMAGE_URLS), image.asText());
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Unreadable product listing", e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.backend.Backend.loadtest;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latencies and errors of one kind of traffic. Latencies are recorded in
+ * microseconds from the moment a request was due, not when it was actually
+ * sent, so a backend that falls behind cannot hide the wait (coordinated
+ * omission). Recording is lock-free; reading takes interval snapshots.
+ */
+final class LatencyStats {
+
+    private final String name;
+    private final Recorder recorder = new Recorder(3);
+    private final Histogram total = new Histogram(3);
+    private final LongAdder errors = new LongAdder();
+    private Histogram interval;
+    private long errorsReported;
+
+    LatencyStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void recordSince(long dueNanos) {
+        recorder.recordValue(Math.max(0, (System.nanoTime() - dueNanos) / 1000));
+    }
+
+    void error() {
+        errors.increment();
+    }
+
+    void errors(long count) {
+        errors.add(count);
+    }
+
+    /** Latencies since the previous call, also folded into the run total. */
+    synchronized Snapshot nextInterval() {
+        interval = recorder.getIntervalHistogram(interval);
+        total.add(interval);
+        long errorCount = errors.sum();
+        Snapshot snapshot = new Snapshot(interval, errorCount - errorsReported);
+        errorsReported = errorCount;
+        return snapshot;
+    }
+
+    /** Everything recorded in the run; call after a final {@link #nextInterval()}. */
+    synchronized Snapshot total() {
+        return new Snapshot(total, errors.sum());
+    }
+
+    record Snapshot(Histogram histogram, long errors) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.backend.Backend.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Prints p50/p99/p99.9/max latency and error counts per kind of traffic,
+ * for each reporting interval and for the whole run, and writes the full
+ * distributions as .hgrm files that HdrHistogram's plotter can read.
+ */
+final class LoadReport {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadReport.class);
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final List<LatencyStats> stats;
+
+    LoadReport(List<LatencyStats> stats) {
+        this.stats = stats;
+    }
+
+    void interval(Duration elapsed) {
+        log.info("--- {}s ---", elapsed.toSeconds());
+        for (LatencyStats stat : stats) {
+            log.info(line(stat.name(), stat.nextInterval()));
+        }
+    }
+
+    void summary(Duration elapsed, Path outputDir) throws IOException {
+        stats.forEach(LatencyStats::nextInterval);
+        log.info("=== total over {}s ===", elapsed.toSeconds());
+        Files.createDirectories(outputDir);
+        for (LatencyStats stat : stats) {
+            LatencyStats.Snapshot total = stat.total();
+            log.info(line(stat.name(), total));
+            try (PrintStream out = new PrintStream(Files.newOutputStream(outputDir.resolve(stat.name() + ".hgrm")))) {
+                total.histogram().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+        log.info("Latency distributions (ms) written to {}", outputDir.toAbsolutePath());
+    }
+
+    private static String line(String name, LatencyStats.Snapshot snapshot) {
+        Histogram histogram = snapshot.histogram();
+        return String.format("%-14s count=%-8d p50=%8.2fms p99=%8.2fms p99.9=%8.2fms max=%8.2fms errors=%d",
+                name,
+                histogram.getTotalCount(),
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI,
+                snapshot.errors());
+    }
+}
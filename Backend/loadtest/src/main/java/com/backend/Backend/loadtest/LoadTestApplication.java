@@ -0,0 +1,16 @@
+package com.backend.Backend.loadtest;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+@SpringBootApplication
+@ConfigurationPropertiesScan
+public class LoadTestApplication {
+
+	public static void main(String[] args) {
+		// WebSocket client threads would otherwise keep the JVM alive after the run.
+		System.exit(SpringApplication.exit(SpringApplication.run(LoadTestApplication.class, args)));
+	}
+
+}
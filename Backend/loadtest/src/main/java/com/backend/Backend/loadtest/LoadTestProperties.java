@@ -0,0 +1,51 @@
+package com.backend.Backend.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Shape of one load test run. Rates are requests per second over all
+ * simulated users and are held regardless of how fast the backend answers,
+ * so a slow backend shows up as latency rather than as a lower rate.
+ *
+ * @param stompPath          WebSocket path of the STOMP endpoint
+ * @param chatUsers          STOMP sessions to open, one per simulated user
+ * @param firstUserId        user id of the first session; the rest follow consecutively
+ * @param connectConcurrency WebSocket handshakes in flight while connecting
+ * @param chatRate           messages sent to /app/chat.send per second
+ * @param productRate        GET /products per second
+ * @param imageRate          product image fetches per second, from URLs seen in listings
+ * @param conversationRate   GET /api/chat/conversations/{userId} per second
+ * @param maxInFlight        HTTP requests outstanding at once; beyond this a request counts as an error
+ * @param drainTimeout       wait at the end for chat messages still being delivered
+ * @param outputDir          where the full latency distributions are written
+ * @param tokenSecret        the backend's {@code auth.token.secret}; tokens for the simulated users are signed with it
+ * @param tokenIssuer        the backend's {@code auth.token.issuer}
+ */
+@ConfigurationProperties("loadtest")
+public record LoadTestProperties(
+        @DefaultValue("http://localhost:8080") URI baseUrl,
+        @DefaultValue("/ws/websocket") String stompPath,
+        @DefaultValue("1000") int chatUsers,
+        @DefaultValue("1000000") long firstUserId,
+        @DefaultValue("200") int connectConcurrency,
+        @DefaultValue("200") double chatRate,
+        @DefaultValue("50") double productRate,
+        @DefaultValue("50") double imageRate,
+        @DefaultValue("20") double conversationRate,
+        @DefaultValue("1000") int maxInFlight,
+        @DefaultValue("60s") Duration duration,
+        @DefaultValue("10s") Duration reportInterval,
+        @DefaultValue("5s") Duration drainTimeout,
+        @DefaultValue("target/loadtest") Path outputDir,
+        String tokenSecret,
+        @DefaultValue("numoves") String tokenIssuer) {
+
+    URI stompUri() {
+        String scheme = "https".equals(baseUrl.getScheme()) ? "wss" : "ws";
+        return URI.create(scheme + "://" + baseUrl.getAuthority() + stompPath);
+    }
+}
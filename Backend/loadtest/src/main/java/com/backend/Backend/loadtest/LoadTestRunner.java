@@ -0,0 +1,81 @@
+package com.backend.Backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * One run: connect the chat users, then drive every kind of traffic at its
+ * configured rate for {@code loadtest.duration}, reporting as it goes.
+ */
+@Component
+public class LoadTestRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private final LoadTestProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public LoadTestRunner(LoadTestProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        LatencyStats chatSend = new LatencyStats("chat.send");
+        LatencyStats chatDelivery = new LatencyStats("chat.delivery");
+        LatencyStats products = new LatencyStats("products");
+        LatencyStats images = new LatencyStats("images");
+        LatencyStats conversations = new LatencyStats("conversations");
+        LoadReport report = new LoadReport(List.of(chatSend, chatDelivery, products, images, conversations));
+
+        AccessTokens tokens = new AccessTokens(properties);
+        try (ChatLoad chat = new ChatLoad(properties, objectMapper, tokens, chatSend, chatDelivery)) {
+            log.info("Connecting {} chat users to {}", properties.chatUsers(), properties.stompUri());
+            long connectStart = System.nanoTime();
+            List<String> userIds = chat.connect();
+            log.info("{} of {} users connected in {}ms", userIds.size(), properties.chatUsers(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart));
+            HttpLoad http = new HttpLoad(properties, objectMapper, userIds, tokens, products, images, conversations);
+
+            long start = System.nanoTime();
+            long end = start + properties.duration().toNanos();
+            List<Pacer> pacers = new ArrayList<>();
+            addPacer(pacers, "chat", properties.chatRate(), start, end, chat::send);
+            addPacer(pacers, "products", properties.productRate(), start, end, http::listProducts);
+            addPacer(pacers, "images", properties.imageRate(), start, end, http::fetchImage);
+            addPacer(pacers, "conversations", properties.conversationRate(), start, end, http::listConversations);
+            pacers.forEach(Pacer::start);
+            log.info("Running for {}s: {} chat msg/s, {} listings/s, {} images/s, {} conversation lists/s",
+                    properties.duration().toSeconds(), properties.chatRate(), properties.productRate(),
+                    properties.imageRate(), properties.conversationRate());
+
+            long reportEvery = properties.reportInterval().toNanos();
+            for (long next = start + reportEvery; next < end; next += reportEvery) {
+                TimeUnit.NANOSECONDS.sleep(next - System.nanoTime());
+                report.interval(Duration.ofNanos(System.nanoTime() - start));
+            }
+            for (Pacer pacer : pacers) {
+                pacer.join();
+            }
+            chat.drain();
+            log.info("Chat messages sent {}, delivered {}", chat.sent(), chat.delivered());
+            report.summary(Duration.ofNanos(System.nanoTime() - start), properties.outputDir());
+        }
+    }
+
+    private static void addPacer(List<Pacer> pacers, String name, double rate, long start, long end,
+                                 LongConsumer action) {
+        if (rate > 0) {
+            pacers.add(new Pacer(name, rate, start, end, action));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.backend.Backend.loadtest;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+/**
+ * Calls an action at a fixed rate on its own thread, passing the time the
+ * call was due. The schedule never slips: if an action runs late the next
+ * ones start immediately until the pacer has caught up, and the lateness
+ * is visible to the action through the due time.
+ */
+final class Pacer {
+
+    private final Thread thread;
+
+    Pacer(String name, double ratePerSecond, long startNanos, long endNanos, LongConsumer action) {
+        long periodNanos = (long) (1_000_000_000L / ratePerSecond);
+        thread = new Thread(() -> {
+            for (long due = startNanos; due < endNanos && !Thread.currentThread().isInterrupted();
+                 due += periodNanos) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                action.accept(due);
+            }
+        }, "pacer-" + name);
+        thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void join() throws InterruptedException {
+        thread.join();
+    }
+}
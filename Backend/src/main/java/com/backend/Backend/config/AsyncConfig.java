@@ -0,0 +1,35 @@
+package com.backend.Backend.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Executor for {@code @Async} methods. Boot's own
+ * {@code applicationTaskExecutor} backs off because the STOMP channel
+ * executors are already {@code Executor} beans, so it is declared here from
+ * the same builders: virtual threads when {@code spring.threads.virtual.enabled}
+ * is set, the {@code spring.task.execution.pool.*} pool otherwise.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor virtualThreadTaskExecutor(SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public AsyncTaskExecutor platformThreadTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+}
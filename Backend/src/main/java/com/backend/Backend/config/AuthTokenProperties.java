@@ -0,0 +1,22 @@
+package com.backend.Backend.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Signed access tokens handed out at login (HS256 JWTs).
+ *
+ * @param secret    base64 HMAC key of at least 32 bytes, shared by every node; when empty a
+ *                  random key is generated, so tokens do not survive a restart
+ * @param ttl       how long a token is valid; there is no refresh, clients log in again
+ * @param issuer    {@code iss} claim written and required
+ * @param cacheSize verified tokens remembered so repeat requests skip the signature check
+ */
+@ConfigurationProperties("auth.token")
+public record AuthTokenProperties(
+        String secret,
+        @DefaultValue("1h") Duration ttl,
+        @DefaultValue("numoves") String issuer,
+        @DefaultValue("10000") int cacheSize) {
+}
@@ -0,0 +1,26 @@
+package com.backend.Backend.config;
+
+import java.time.Duration;
+import org.springframework.messaging.tcp.ReconnectStrategy;
+
+/**
+ * Exponential backoff between reconnect attempts, capped at a maximum delay.
+ */
+public class BackoffReconnectStrategy implements ReconnectStrategy {
+
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final double multiplier;
+
+    public BackoffReconnectStrategy(Duration initialDelay, Duration maxDelay, double multiplier) {
+        this.initialDelayMillis = initialDelay.toMillis();
+        this.maxDelayMillis = maxDelay.toMillis();
+        this.multiplier = multiplier;
+    }
+
+    @Override
+    public Long getTimeToNextAttempt(int attemptCount) {
+        double delay = initialDelayMillis * Math.pow(multiplier, Math.max(0, attemptCount - 1));
+        return (long) Math.min(delay, maxDelayMillis);
+    }
+}
@@ -0,0 +1,104 @@
+package com.backend.Backend.config;
+
+import com.backend.Backend.service.BlobStore;
+import com.backend.Backend.service.LocalBlobStore;
+import com.backend.Backend.service.S3BlobStore;
+import java.nio.file.Paths;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+/**
+ * The {@link BlobStore} selected by {@code upload.store.type}, plus the
+ * small pool both implementations delete on.
+ *
+ * The chat archive gets a second store of the same type, qualified with
+ * {@link #CHAT_ARCHIVE}: {@code chat.archive.dir} for local storage, the
+ * {@code chat-archive/} prefix of the upload bucket for S3. It is kept apart
+ * from uploads because every upload key is publicly downloadable.
+ */
+@Configuration
+public class BlobStoreConfig {
+
+    public static final String CHAT_ARCHIVE = "chatArchive";
+
+    @Bean
+    public ThreadPoolTaskExecutor blobDeleteExecutor(BlobStoreProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.deleteThreads());
+        executor.setMaxPoolSize(properties.deleteThreads());
+        executor.setThreadNamePrefix("blob-delete-");
+        executor.setDaemon(true);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "upload.store.type", havingValue = "local", matchIfMissing = true)
+    public BlobStore localBlobStore(@Value("${upload.dir:${user.dir}/uploads}") String uploadDir,
+                                    ThreadPoolTaskExecutor blobDeleteExecutor) {
+        return new LocalBlobStore(Paths.get(uploadDir), blobDeleteExecutor);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "upload.store.type", havingValue = "s3")
+    public S3Client blobStoreS3Client(BlobStoreProperties properties) {
+        BlobStoreProperties.S3 s3 = properties.s3();
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(s3.region()))
+                .forcePathStyle(s3.pathStyle())
+                .credentialsProvider(s3.accessKey() != null && !s3.accessKey().isEmpty()
+                        ? StaticCredentialsProvider.create(AwsBasicCredentials.create(s3.accessKey(), s3.secretKey()))
+                        : DefaultCredentialsProvider.create());
+        if (s3.endpoint() != null) {
+            builder.endpointOverride(s3.endpoint());
+        }
+        return builder.build();
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "upload.store.type", havingValue = "s3")
+    public BlobStore s3BlobStore(S3Client blobStoreS3Client, BlobStoreProperties properties,
+                                 ThreadPoolTaskExecutor blobDeleteExecutor) {
+        return s3Store(blobStoreS3Client, properties, "", blobDeleteExecutor);
+    }
+
+    @Bean
+    @Qualifier(CHAT_ARCHIVE)
+    @ConditionalOnProperty(name = "upload.store.type", havingValue = "local", matchIfMissing = true)
+    public BlobStore localChatArchiveStore(ChatArchiveProperties properties,
+                                           ThreadPoolTaskExecutor blobDeleteExecutor) {
+        return new LocalBlobStore(Paths.get(properties.dir()), blobDeleteExecutor);
+    }
+
+    @Bean
+    @Qualifier(CHAT_ARCHIVE)
+    @ConditionalOnProperty(name = "upload.store.type", havingValue = "s3")
+    public BlobStore s3ChatArchiveStore(S3Client blobStoreS3Client, BlobStoreProperties properties,
+                                        ThreadPoolTaskExecutor blobDeleteExecutor) {
+        return s3Store(blobStoreS3Client, properties, "chat-archive/", blobDeleteExecutor);
+    }
+
+    private static BlobStore s3Store(S3Client client, BlobStoreProperties properties, String subPrefix,
+                                     ThreadPoolTaskExecutor blobDeleteExecutor) {
+        BlobStoreProperties.S3 s3 = properties.s3();
+        if (s3.bucket() == null || s3.bucket().isEmpty()) {
+            throw new IllegalStateException("upload.store.s3.bucket is required when upload.store.type=s3");
+        }
+        return new S3BlobStore(client, s3.bucket(), s3.prefix() + subPrefix,
+                (int) s3.partSize().toBytes(), blobDeleteExecutor);
+    }
+}
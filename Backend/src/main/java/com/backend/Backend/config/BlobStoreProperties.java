@@ -0,0 +1,43 @@
+package com.backend.Backend.config;
+
+import java.net.URI;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Where uploaded product images are stored. {@code LOCAL} writes under
+ * {@code upload.dir} and is only shared between nodes if that directory is a
+ * shared mount; {@code S3} uses a bucket every node can reach.
+ *
+ * @param deleteThreads threads deleting replaced and orphaned blobs in the background
+ */
+@ConfigurationProperties("upload.store")
+public record BlobStoreProperties(
+        @DefaultValue("local") Type type,
+        @DefaultValue("2") int deleteThreads,
+        @DefaultValue S3 s3) {
+
+    public enum Type {
+        LOCAL,
+        S3
+    }
+
+    /**
+     * @param endpoint    set for S3-compatible services such as MinIO; AWS when empty
+     * @param pathStyle   address the bucket as {@code endpoint/bucket} rather than a sub-domain
+     * @param accessKey   static credentials; the default AWS provider chain is used when empty
+     * @param prefix      prepended to every object key, to share a bucket
+     * @param partSize    uploads larger than this go up in parts of this size (S3 minimum 5MB)
+     */
+    public record S3(
+            String bucket,
+            URI endpoint,
+            @DefaultValue("us-east-1") String region,
+            @DefaultValue("false") boolean pathStyle,
+            String accessKey,
+            String secretKey,
+            @DefaultValue("") String prefix,
+            @DefaultValue("8MB") DataSize partSize) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.backend.Backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Read-through caches for hot entity lookups, backed by Caffeine
+ * (W-TinyLFU admission, so a scan of cold ids cannot flush the popular
+ * ones). The caches are declared here, next to the names the repositories
+ * use; {@code spring.cache.caffeine.spec} overrides the default size and
+ * TTL. Hit/miss/eviction counts are published as {@code cache.*} metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String PRODUCTS = "products";
+
+    @Bean
+    public Caffeine<Object, Object> caffeine() {
+        return Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .recordStats();
+    }
+
+    /** Created up front rather than on first use, so their metrics are registered at startup. */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> cacheNames() {
+        return cacheManager -> cacheManager.setCacheNames(List.of(USERS, PRODUCTS));
+    }
+}
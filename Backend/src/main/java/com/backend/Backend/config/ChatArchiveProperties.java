@@ -0,0 +1,32 @@
+package com.backend.Backend.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Cold tier for old chat messages: whole months older than {@code age} are
+ * moved out of {@code chat_message} into compressed segment files.
+ *
+ * @param enabled         run the archive job and segment refresh at all; loaded months stay readable
+ * @param dir             segment directory with {@code upload.store.type=local}; must be shared by all nodes
+ * @param age             messages are archived once their whole month is older than this
+ * @param interval        pause between archive runs; one node at a time archives
+ * @param refreshInterval pause between checks for segments written or replaced by another node
+ * @param blockSize       messages per compressed block; a history page decompresses whole blocks
+ * @param chunkSize       rows read or deleted per statement while moving a month
+ * @param chunkPause      sleep between delete chunks so other writers get the table
+ * @param monthsAhead     on MySQL, monthly partitions kept ready beyond the current month
+ */
+@ConfigurationProperties("chat.archive")
+public record ChatArchiveProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("chat-archive") String dir,
+        @DefaultValue("180d") Duration age,
+        @DefaultValue("1h") Duration interval,
+        @DefaultValue("1m") Duration refreshInterval,
+        @DefaultValue("256") int blockSize,
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("50ms") Duration chunkPause,
+        @DefaultValue("3") int monthsAhead) {
+}
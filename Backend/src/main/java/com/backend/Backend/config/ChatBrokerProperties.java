@@ -0,0 +1,50 @@
+package com.backend.Backend.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Selects where STOMP subscriptions live. {@code SIMPLE} keeps them in this
+ * JVM and only works for a single node; {@code RELAY} forwards them to an
+ * external STOMP broker (RabbitMQ, ActiveMQ Artemis, ...) so several nodes
+ * behind a load balancer can deliver to each other's clients.
+ */
+@ConfigurationProperties("chat.broker")
+public record ChatBrokerProperties(
+        @DefaultValue("simple") Mode mode,
+        @DefaultValue Relay relay) {
+
+    public enum Mode {
+        SIMPLE,
+        RELAY
+    }
+
+    /**
+     * @param maxConnections cap on broker connections from this node; the relay
+     *                       opens one per client session plus one system session
+     * @param ioThreads      event-loop threads shared by all broker connections
+     * @param reconnect      backoff for the system session when the broker is unreachable
+     */
+    public record Relay(
+            @DefaultValue("localhost") String host,
+            @DefaultValue("61613") int port,
+            @DefaultValue("guest") String clientLogin,
+            @DefaultValue("guest") String clientPasscode,
+            @DefaultValue("guest") String systemLogin,
+            @DefaultValue("guest") String systemPasscode,
+            String virtualHost,
+            @DefaultValue("10s") Duration systemHeartbeatSendInterval,
+            @DefaultValue("10s") Duration systemHeartbeatReceiveInterval,
+            @DefaultValue("2000") int maxConnections,
+            @DefaultValue("10s") Duration pendingAcquireTimeout,
+            @DefaultValue("0") int ioThreads,
+            @DefaultValue Reconnect reconnect) {
+    }
+
+    public record Reconnect(
+            @DefaultValue("1s") Duration initialDelay,
+            @DefaultValue("30s") Duration maxDelay,
+            @DefaultValue("2.0") double multiplier) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.backend.Backend.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Tuning for the chat write-behind pipeline.
+ *
+ * @param queueCapacity messages buffered in memory before senders are pushed back
+ * @param batchSize     flush as soon as this many messages are waiting
+ * @param maxDelay      flush a partial batch once its oldest message has waited this long
+ * @param offerTimeout  how long a sender may block on a full queue before the message is rejected
+ * @param idBlockSize   ids reserved from {@code id_block} per round trip
+ */
+@ConfigurationProperties("chat.ingest")
+public record ChatIngestProperties(
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("100") int batchSize,
+        @DefaultValue("50ms") Duration maxDelay,
+        @DefaultValue("100ms") Duration offerTimeout,
+        @DefaultValue("100") int idBlockSize) {
+}
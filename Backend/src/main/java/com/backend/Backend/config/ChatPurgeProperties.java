@@ -0,0 +1,21 @@
+package com.backend.Backend.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Background deletion of chat messages that every participant has cleared.
+ *
+ * @param enabled      run the purge job at all
+ * @param interval     pause between purge runs
+ * @param chunkSize    rows deleted per statement, which bounds how long row locks are held
+ * @param chunkPause   sleep between chunks so other writers get the table
+ */
+@ConfigurationProperties("chat.purge")
+public record ChatPurgeProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("5m") Duration interval,
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("50ms") Duration chunkPause) {
+}
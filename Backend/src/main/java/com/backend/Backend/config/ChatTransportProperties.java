@@ -0,0 +1,49 @@
+package com.backend.Backend.config;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Tuning for the STOMP-over-WebSocket transport.
+ *
+ * @param allowedOrigins      origins accepted on both the SockJS and the native endpoint
+ * @param sendTimeLimit       a session whose pending send has been blocked this long is closed
+ * @param sendBufferSizeLimit bytes buffered per session while a send is in progress
+ * @param messageSizeLimit    largest inbound STOMP frame accepted
+ * @param timeToFirstMessage  how long a new connection may stay silent before it is closed
+ * @param heartbeat           server heart-beats of the simple broker; zero disables them
+ * @param inbound             executor for frames received from clients
+ * @param outbound            executor for frames written to clients
+ */
+@ConfigurationProperties("chat.websocket")
+public record ChatTransportProperties(
+        @DefaultValue("http://localhost:5173") List<String> allowedOrigins,
+        @DefaultValue("10s") Duration sendTimeLimit,
+        @DefaultValue("512KB") DataSize sendBufferSizeLimit,
+        @DefaultValue("64KB") DataSize messageSizeLimit,
+        @DefaultValue("30s") Duration timeToFirstMessage,
+        @DefaultValue Heartbeat heartbeat,
+        @DefaultValue Pool inbound,
+        @DefaultValue Pool outbound) {
+
+    public record Heartbeat(
+            @DefaultValue("10s") Duration send,
+            @DefaultValue("10s") Duration receive) {
+    }
+
+    /**
+     * @param virtualThreads run each frame on its own virtual thread; pool
+     *                       sizes are then ignored and {@code maxPoolSize}
+     *                       only caps concurrency
+     */
+    public record Pool(
+            @DefaultValue("8") int corePoolSize,
+            @DefaultValue("32") int maxPoolSize,
+            @DefaultValue("10000") int queueCapacity,
+            @DefaultValue("60s") Duration keepAlive,
+            @DefaultValue("false") boolean virtualThreads) {
+    }
+}
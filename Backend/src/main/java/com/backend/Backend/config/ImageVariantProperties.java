@@ -0,0 +1,23 @@
+package com.backend.Backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Resized copies generated for every uploaded product image.
+ *
+ * @param thumbWidth    longest edge of the listing-grid thumbnail, in pixels
+ * @param mediumWidth   longest edge of the detail-view image, in pixels
+ * @param quality       JPEG quality of both variants, 0..1
+ * @param workers       threads resizing in the background
+ * @param queueCapacity uploads waiting for a worker before new ones are skipped
+ *                      (they are served from the original until backfilled)
+ */
+@ConfigurationProperties("upload.images")
+public record ImageVariantProperties(
+        @DefaultValue("320") int thumbWidth,
+        @DefaultValue("1280") int mediumWidth,
+        @DefaultValue("0.8") float quality,
+        @DefaultValue("2") int workers,
+        @DefaultValue("200") int queueCapacity) {
+}
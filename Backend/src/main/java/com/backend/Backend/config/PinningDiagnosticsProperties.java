@@ -0,0 +1,19 @@
+package com.backend.Backend.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Reporting of virtual threads that stay pinned to their carrier.
+ *
+ * @param enabled    stream {@code jdk.VirtualThreadPinned} JFR events while the app runs
+ * @param threshold  only report pins that last at least this long
+ * @param stackDepth frames of the pinned thread's stack included in the log line
+ */
+@ConfigurationProperties("chat.diagnostics.pinning")
+public record PinningDiagnosticsProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("20ms") Duration threshold,
+        @DefaultValue("8") int stackDepth) {
+}
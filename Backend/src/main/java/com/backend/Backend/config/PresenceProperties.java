@@ -0,0 +1,21 @@
+package com.backend.Backend.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Online-status tracking of STOMP sessions.
+ *
+ * @param expiry        a session that sends heart-beats but has been silent this
+ *                      long is dropped even if no disconnect event arrived
+ * @param sweepInterval how often silent sessions are looked for
+ * @param flushInterval presence changes are collected for this long and
+ *                      published as one delta on {@code /topic/presence}
+ */
+@ConfigurationProperties("chat.presence")
+public record PresenceProperties(
+        @DefaultValue("30s") Duration expiry,
+        @DefaultValue("10s") Duration sweepInterval,
+        @DefaultValue("250ms") Duration flushInterval) {
+}
@@ -0,0 +1,18 @@
+package com.backend.Backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * The in-memory product search index.
+ *
+ * @param maxResults       upper bound on hits returned by one search
+ * @param titleBoost       weight of a title match relative to a description match
+ * @param rebuildBatchSize products read per query while rebuilding on startup
+ */
+@ConfigurationProperties("search.products")
+public record ProductSearchProperties(
+        @DefaultValue("50") int maxResults,
+        @DefaultValue("2.0") float titleBoost,
+        @DefaultValue("500") int rebuildBatchSize) {
+}
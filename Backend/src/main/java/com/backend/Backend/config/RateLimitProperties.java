@@ -0,0 +1,44 @@
+package com.backend.Backend.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Token-bucket limits per user (per IP for anonymous requests). Each limit
+ * allows {@code burst} requests at once and refills at {@code perSecond};
+ * set both when overriding one.
+ *
+ * @param maxKeys       users/IPs tracked per limit; beyond this the least recently seen are dropped
+ * @param idleExpiry    a key unused this long is forgotten (never before its bucket would be full again)
+ * @param chatSend      STOMP SEND to /app/chat.send, per user
+ * @param productWrites POST, PUT and DELETE on /products, per user
+ * @param login         POST /api/users/login and /register, per IP
+ * @param listing       GET on /products (not images) and /api/users
+ */
+@ConfigurationProperties("rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") long maxKeys,
+        @DefaultValue("10m") Duration idleExpiry,
+        Limit chatSend,
+        Limit productWrites,
+        Limit login,
+        Limit listing) {
+
+    public RateLimitProperties {
+        chatSend = chatSend != null ? chatSend : new Limit(20, 5);
+        productWrites = productWrites != null ? productWrites : new Limit(5, 0.2);
+        login = login != null ? login : new Limit(10, 0.5);
+        listing = listing != null ? listing : new Limit(100, 20);
+    }
+
+    public record Limit(int burst, double perSecond) {
+
+        public Limit {
+            if (burst < 1 || !(perSecond > 0)) {
+                throw new IllegalArgumentException("A rate limit needs burst >= 1 and perSecond > 0");
+            }
+        }
+    }
+}
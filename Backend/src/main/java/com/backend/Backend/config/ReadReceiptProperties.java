@@ -0,0 +1,17 @@
+package com.backend.Backend.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Batching of read acknowledgements.
+ *
+ * @param debounce acks arriving within this window are merged, keeping the
+ *                 newest message id per reader and conversation, and written
+ *                 in one transaction
+ */
+@ConfigurationProperties("chat.read")
+public record ReadReceiptProperties(
+        @DefaultValue("500ms") Duration debounce) {
+}
@@ -0,0 +1,29 @@
+package com.backend.Backend.config;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * Drops the broker's routing-type header before a message is relayed again.
+ * A message resolved from the {@code /topic/unresolved-user} broadcast still
+ * carries {@code destination-type=MULTICAST}; re-sent to a user's
+ * {@code /queue/...} destination, the broker would route it as a topic and
+ * the anycast subscription queue would never receive it.
+ */
+public class RelayRoutingHeaderInterceptor implements ChannelInterceptor {
+
+    static final String DESTINATION_TYPE_HEADER = "destination-type";
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        if (accessor.getFirstNativeHeader(DESTINATION_TYPE_HEADER) == null) {
+            return message;
+        }
+        accessor.removeNativeHeader(DESTINATION_TYPE_HEADER);
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+}
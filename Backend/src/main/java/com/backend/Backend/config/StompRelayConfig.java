@@ -0,0 +1,87 @@
+package com.backend.Backend.config;
+
+import java.util.concurrent.CompletableFuture;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.stomp.StompReactorNettyCodec;
+import org.springframework.messaging.tcp.ReconnectStrategy;
+import org.springframework.messaging.tcp.TcpConnectionHandler;
+import org.springframework.messaging.tcp.TcpOperations;
+import org.springframework.messaging.tcp.reactor.ReactorNettyTcpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+import reactor.netty.tcp.TcpClient;
+
+/**
+ * TCP client for the external broker used in {@code chat.broker.mode=relay}.
+ * Connections come from a bounded provider on a shared event loop. The
+ * system session reconnects with exponential backoff rather than the
+ * relay's fixed five-second retry.
+ */
+@Configuration
+@ConditionalOnProperty(name = "chat.broker.mode", havingValue = "relay")
+public class StompRelayConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources stompRelayLoopResources(ChatBrokerProperties properties) {
+        int ioThreads = properties.relay().ioThreads() > 0
+                ? properties.relay().ioThreads()
+                : LoopResources.DEFAULT_IO_WORKER_COUNT;
+        return LoopResources.create("stomp-relay", ioThreads, true);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider stompRelayConnectionProvider(ChatBrokerProperties properties) {
+        return ConnectionProvider.builder("stomp-relay")
+                .maxConnections(properties.relay().maxConnections())
+                .pendingAcquireTimeout(properties.relay().pendingAcquireTimeout())
+                .build();
+    }
+
+    @Bean
+    public TcpOperations<byte[]> stompRelayTcpClient(ChatBrokerProperties properties,
+                                                     LoopResources stompRelayLoopResources,
+                                                     ConnectionProvider stompRelayConnectionProvider) {
+        ChatBrokerProperties.Relay relay = properties.relay();
+        TcpClient tcpClient = TcpClient.create(stompRelayConnectionProvider)
+                .host(relay.host())
+                .port(relay.port())
+                .runOn(stompRelayLoopResources);
+        ChatBrokerProperties.Reconnect reconnect = relay.reconnect();
+        return new ReconnectPolicyTcpOperations(
+                new ReactorNettyTcpClient<>(tcpClient, new StompReactorNettyCodec()),
+                new BackoffReconnectStrategy(reconnect.initialDelay(), reconnect.maxDelay(), reconnect.multiplier()));
+    }
+
+    /**
+     * The relay connects its system session with a hard-coded fixed-interval
+     * strategy; this swaps in the configured one. Client sessions connect
+     * without a strategy and are unaffected.
+     */
+    static class ReconnectPolicyTcpOperations implements TcpOperations<byte[]> {
+
+        private final TcpOperations<byte[]> delegate;
+        private final ReconnectStrategy reconnectStrategy;
+
+        ReconnectPolicyTcpOperations(TcpOperations<byte[]> delegate, ReconnectStrategy reconnectStrategy) {
+            this.delegate = delegate;
+            this.reconnectStrategy = reconnectStrategy;
+        }
+
+        @Override
+        public CompletableFuture<Void> connectAsync(TcpConnectionHandler<byte[]> handler) {
+            return delegate.connectAsync(handler);
+        }
+
+        @Override
+        public CompletableFuture<Void> connectAsync(TcpConnectionHandler<byte[]> handler, ReconnectStrategy ignored) {
+            return delegate.connectAsync(handler, reconnectStrategy);
+        }
+
+        @Override
+        public CompletableFuture<Void> shutdownAsync() {
+            return delegate.shutdownAsync();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.backend.Backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs and counts virtual threads that block while pinned to their carrier
+ * thread, e.g. inside a {@code synchronized} block or a native JDBC call.
+ * A pinned virtual thread holds a carrier for the whole blocking call, so a
+ * few hot pins can starve the scheduler just like an exhausted thread pool.
+ */
+@Component
+@ConditionalOnProperty(name = "chat.diagnostics.pinning.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final PinningDiagnosticsProperties properties;
+    private final Counter pinned;
+
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(PinningDiagnosticsProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned for longer than the threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT)
+                .withThreshold(properties.threshold())
+                .withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+        log.info("Reporting virtual thread pins longer than {}", properties.threshold());
+    }
+
+    @Override
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void report(RecordedEvent event) {
+        pinned.increment();
+        log.warn("Virtual thread {} pinned for {} ms at {}",
+                event.getThread() == null ? "?" : event.getThread().getJavaName(),
+                event.getDuration().toMillis(),
+                topFrames(event.getStackTrace()));
+    }
+
+    private String topFrames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "(no stack trace)";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        return frames.stream()
+                .limit(properties.stackDepth())
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining(" <- "));
+    }
+}
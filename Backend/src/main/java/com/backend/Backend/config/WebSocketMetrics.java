@@ -0,0 +1,72 @@
+package com.backend.Backend.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.function.ToIntFunction;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.config.WebSocketMessageBrokerStats;
+import org.springframework.web.socket.messaging.StompSubProtocolHandler;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * Publishes the WebSocket session and STOMP frame counts that Spring's
+ * {@link WebSocketMessageBrokerStats} otherwise only logs every 30 minutes.
+ * Queue depth and active threads of the inbound and outbound channels come
+ * from Boot's {@code executor.*} metrics, tagged
+ * {@code name=clientInboundChannelExecutor} and
+ * {@code name=clientOutboundChannelExecutor}.
+ */
+@Component
+public class WebSocketMetrics implements MeterBinder {
+
+    private final WebSocketMessageBrokerStats stats;
+
+    public WebSocketMetrics(WebSocketMessageBrokerStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        SubProtocolWebSocketHandler.Stats sessions = stats.getWebSocketSessionStats();
+        if (sessions != null) {
+            sessionGauge(registry, sessions, "websocket", SubProtocolWebSocketHandler.Stats::getWebSocketSessions);
+            sessionGauge(registry, sessions, "http_streaming", SubProtocolWebSocketHandler.Stats::getHttpStreamingSessions);
+            sessionGauge(registry, sessions, "http_polling", SubProtocolWebSocketHandler.Stats::getHttpPollingSessions);
+            closedCounter(registry, sessions, "limit_exceeded", SubProtocolWebSocketHandler.Stats::getLimitExceededSessions);
+            closedCounter(registry, sessions, "no_messages", SubProtocolWebSocketHandler.Stats::getNoMessagesReceivedSessions);
+            closedCounter(registry, sessions, "transport_error", SubProtocolWebSocketHandler.Stats::getTransportErrorSessions);
+        }
+        StompSubProtocolHandler.Stats stomp = stats.getStompSubProtocolStats();
+        if (stomp != null) {
+            frameCounter(registry, stomp, "connect", StompSubProtocolHandler.Stats::getTotalConnect);
+            frameCounter(registry, stomp, "connected", StompSubProtocolHandler.Stats::getTotalConnected);
+            frameCounter(registry, stomp, "disconnect", StompSubProtocolHandler.Stats::getTotalDisconnect);
+        }
+    }
+
+    private static void sessionGauge(MeterRegistry registry, SubProtocolWebSocketHandler.Stats sessions,
+                                     String transport, ToIntFunction<SubProtocolWebSocketHandler.Stats> value) {
+        Gauge.builder("chat.websocket.sessions", sessions, s -> value.applyAsInt(s))
+                .description("Open WebSocket and SockJS sessions")
+                .tag("transport", transport)
+                .register(registry);
+    }
+
+    private static void closedCounter(MeterRegistry registry, SubProtocolWebSocketHandler.Stats sessions,
+                                      String reason, ToIntFunction<SubProtocolWebSocketHandler.Stats> value) {
+        FunctionCounter.builder("chat.websocket.sessions.closed", sessions, s -> value.applyAsInt(s))
+                .description("Sessions closed abnormally")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private static void frameCounter(MeterRegistry registry, StompSubProtocolHandler.Stats stomp,
+                                     String command, ToIntFunction<StompSubProtocolHandler.Stats> value) {
+        FunctionCounter.builder("chat.stomp.frames", stomp, s -> value.applyAsInt(s))
+                .description("STOMP session frames handled")
+                .tag("command", command)
+                .register(registry);
+    }
+}
@@ -4,15 +4,31 @@
  */
 package com.backend.Backend.controller;
 
+import com.backend.Backend.dto.ChatHistoryPage;
+import com.backend.Backend.dto.ChatSendError;
 import com.backend.Backend.dto.ConversationDTO;
+import com.backend.Backend.dto.KeysetCursor;
+import com.backend.Backend.dto.ReadAck;
 import com.backend.Backend.model.ChatMessage;
-import com.backend.Backend.repository.ChatMessageRepository;
+import com.backend.Backend.model.UserIdConverter;
+import com.backend.Backend.service.ChatMessageWriteBehind;
+import com.backend.Backend.service.ConversationService;
+import com.backend.Backend.service.ReadReceiptCoalescer;
+import java.security.Principal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -29,64 +45,177 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/chat")
 public class ChatHistoryController {
 
-    private final ChatMessageRepository chatMessageRepository;
+    private static final Logger log = LoggerFactory.getLogger(ChatHistoryController.class);
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
+
+    private final ConversationService conversationService;
+    private final ChatMessageWriteBehind chatMessageWriteBehind;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ReadReceiptCoalescer readReceiptCoalescer;
 
     @Autowired
-    public ChatHistoryController(ChatMessageRepository chatMessageRepository) {
-        this.chatMessageRepository = chatMessageRepository;
+    public ChatHistoryController(ConversationService conversationService,
+                                 ChatMessageWriteBehind chatMessageWriteBehind,
+                                 SimpMessagingTemplate messagingTemplate,
+                                 ReadReceiptCoalescer readReceiptCoalescer) {
+        this.conversationService = conversationService;
+        this.chatMessageWriteBehind = chatMessageWriteBehind;
+        this.messagingTemplate = messagingTemplate;
+        this.readReceiptCoalescer = readReceiptCoalescer;
     }
 
+    /**
+     * The REST endpoints act for the caller's token. {@code userId} may be
+     * left out; when given it has to be the caller.
+     */
     @GetMapping("/history")
-    public List<ChatMessage> getChatHistory(
-            @RequestParam String userId,
-            @RequestParam String otherUserId) {
-
-        System.out.println("🔍 Fetching chat history between " + userId + " and " + otherUserId);
-        List<ChatMessage> messages = chatMessageRepository.findMessagesBetweenUsers(userId, otherUserId);
-        System.out.println("📝 Messages found: " + messages.size());
-        return messages;
+    public ResponseEntity<?> getChatHistory(
+            @RequestParam(required = false) String userId,
+            @RequestParam String otherUserId,
+            Principal principal) {
+        if (!isCaller(userId, principal)) {
+            return forbidden();
+        }
+        String self = principal.getName();
+
+        List<ChatMessage> messages = conversationService.findHistory(self, otherUserId);
+        log.debug("History between {} and {}: {} messages", self, otherUserId, messages.size());
+        conversationService.markRead(self, otherUserId);
+        return ResponseEntity.ok(messages);
+    }
+
+    /**
+     * Newest-first paging through a conversation: the first call omits
+     * {@code before}, later calls pass the previous page's {@code nextCursor}.
+     */
+    @GetMapping("/history/page")
+    public ResponseEntity<?> getChatHistoryPage(
+            @RequestParam(required = false) String userId,
+            @RequestParam String otherUserId,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int limit,
+            Principal principal) {
+        if (!isCaller(userId, principal)) {
+            return forbidden();
+        }
+        String self = principal.getName();
+        try {
+            KeysetCursor cursor = before != null && !before.isEmpty() ? KeysetCursor.decode(before) : null;
+            ChatHistoryPage page = conversationService.findHistoryPage(
+                    self, otherUserId, cursor, Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE)));
+            if (cursor == null) {
+                conversationService.markRead(self, otherUserId);
+            }
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
     }
 
     @GetMapping("/conversations/{userId}")
-    public List<ConversationDTO> getUserConversations(@PathVariable String userId) {
-        return chatMessageRepository.findConversationsForUser(userId);
+    public ResponseEntity<?> getUserConversations(@PathVariable String userId, Principal principal) {
+        if (!isCaller(userId, principal)) {
+            return forbidden();
+        }
+        List<ConversationDTO> conversations = conversationService.findConversationsForUser(userId);
+        return ResponseEntity.ok(conversations);
     }
 
     //  Clear conversation
     @DeleteMapping("/conversations")
     public ResponseEntity<?> clearConversation(
-            @RequestParam String userId,
-            @RequestParam String otherUserId) {
+            @RequestParam(required = false) String userId,
+            @RequestParam String otherUserId,
+            Principal principal) {
+        if (!isCaller(userId, principal)) {
+            return forbidden();
+        }
 
-        chatMessageRepository.deleteMessagesBetweenUsers(userId, otherUserId);
+        conversationService.clear(principal.getName(), otherUserId);
         return ResponseEntity.ok("Conversation cleared.");
     }
 
     //  Archive conversation
     @PostMapping("/conversations/archive")
     public ResponseEntity<?> archiveConversation(
-            @RequestParam String userId,
-            @RequestParam String otherUserId) {
-
-        List<ChatMessage> messages = chatMessageRepository.findMessagesBetweenUsers(userId, otherUserId);
-        for (ChatMessage msg : messages) {
-            msg.setArchived(true);
+            @RequestParam(required = false) String userId,
+            @RequestParam String otherUserId,
+            Principal principal) {
+        if (!isCaller(userId, principal)) {
+            return forbidden();
         }
-        chatMessageRepository.saveAll(messages);
+
+        conversationService.archive(principal.getName(), otherUserId);
         return ResponseEntity.ok("Conversation archived.");
     }
 
+    /**
+     * Point-to-point delivery: the message goes to the recipient's
+     * {@code /user/queue/messages} sessions only. The session's
+     * authenticated principal is the sender, whatever the payload says.
+     * Messages that could never be stored (a recipient that is not a user
+     * id, or content longer than the column) are refused before anyone sees
+     * them; see {@link #sendRejected}.
+     */
     @MessageMapping("/chat.send")
-    @SendTo("/topic/messages/{recipientId}")
-    public ChatMessage sendMessage(ChatMessage chatMessage) {
-        System.out.println("⚠️ Processing message: "
-                + "From: " + chatMessage.getSenderId()
-                + " To: " + chatMessage.getRecipientId()
-                + " Content: " + chatMessage.getContent());
+    public void sendMessage(ChatMessage chatMessage, Principal principal) {
+        if (principal == null) {
+            return;
+        }
+        chatMessage.setSenderId(principal.getName());
+        if (!UserIdConverter.isValid(chatMessage.getSenderId())
+                || !UserIdConverter.isValid(chatMessage.getRecipientId())) {
+            throw new IllegalArgumentException("Recipient must be a user id");
+        }
+        if (chatMessage.getContent() != null && chatMessage.getContent().length() > ChatMessage.MAX_CONTENT_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Messages are limited to " + ChatMessage.MAX_CONTENT_LENGTH + " characters");
+        }
+        // Ids only: message contents stay out of the logs.
+        log.debug("Message from {} to {}", chatMessage.getSenderId(), chatMessage.getRecipientId());
 
-        chatMessage.setTimestamp(LocalDateTime.now());
-        ChatMessage savedMessage = chatMessageRepository.save(chatMessage);
+        // At the column's precision, so the message sorts the same before and after it is stored.
+        chatMessage.setTimestamp(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        ChatMessage accepted = chatMessageWriteBehind.submit(chatMessage);
+        messagingTemplate.convertAndSendToUser(accepted.getRecipientId(), "/queue/messages", accepted);
+    }
+
+    /**
+     * A send that was refused, either as invalid or by the write-behind
+     * (queue full, or shutting down), is answered on the sending session's
+     * {@code /user/queue/errors} so the client can fix or retry it; the
+     * session stays open.
+     */
+    @MessageExceptionHandler({IllegalArgumentException.class, IllegalStateException.class})
+    @SendToUser(destinations = ChatMessageWriteBehind.ERROR_DESTINATION, broadcast = false)
+    public ChatSendError sendRejected(RuntimeException e) {
+        log.debug("Chat message refused: {}", e.getMessage());
+        return new ChatSendError(null, e.getMessage());
+    }
+
+    /**
+     * Read acknowledgement for everything up to {@code messageId}. Acks are
+     * merged per conversation and stored once per debounce window; see
+     * {@link ReadReceiptCoalescer}.
+     */
+    @MessageMapping("/chat.read")
+    public void markRead(ReadAck ack, Principal principal) {
+        if (principal == null || ack.otherUserId() == null || ack.messageId() == null) {
+            return;
+        }
+        readReceiptCoalescer.submit(new ReadAck(principal.getName(), ack.otherUserId(), ack.messageId()));
+    }
+
+    private static boolean isCaller(String userId, Principal principal) {
+        return principal != null && (userId == null || userId.equals(principal.getName()));
+    }
 
-        return savedMessage;
+    private static ResponseEntity<?> forbidden() {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Not allowed for this user");
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
     }
 }
@@ -57,14 +57,11 @@ default List<ConversationDTO> findConversationsForUser(String userId) {
     List<Object[]> results = findConversationsForUserRaw(userId);
     return results.stream()
             .map(result -> {
-                String otherUserId = (String) result[0];
+                // user ids are BIGINT columns since the typed-id migration
+                String otherUserId = String.valueOf(result[0]);
                 String lastMessage = (String) result[1];
                 Object timestamp = result[2];
-                
-                System.out.println("Creating conversation with userId: " + otherUserId + 
-                                  ", lastMessage: " + lastMessage + 
-                                  ", timestamp: " + timestamp);
-                
+
                 return new ConversationDTO(
                         otherUserId,
                         "User " + otherUserId, 
@@ -0,0 +1,43 @@
+package com.backend.Backend.controller;
+
+import com.backend.Backend.service.PresenceRegistry;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Snapshot of online status; later changes arrive as deltas on
+ * {@code /topic/presence}.
+ */
+@RestController
+@RequestMapping("/api/presence")
+public class PresenceController {
+
+    private static final int MAX_BATCH_IDS = 200;
+
+    private final PresenceRegistry presenceRegistry;
+
+    public PresenceController(PresenceRegistry presenceRegistry) {
+        this.presenceRegistry = presenceRegistry;
+    }
+
+    /**
+     * Which of the given users are online, e.g.
+     * {@code GET /api/presence?ids=3,8,21} returns {@code {"online":["8"]}}.
+     */
+    @GetMapping
+    public ResponseEntity<?> getPresence(@RequestParam("ids") List<String> ids) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "At most " + MAX_BATCH_IDS + " ids per request");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        return ResponseEntity.ok(Map.of("online", presenceRegistry.onlineAmong(ids)));
+    }
+}
@@ -1,31 +1,46 @@
 package com.backend.Backend.controller;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.security.Principal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.backend.Backend.dto.KeysetCursor;
+import com.backend.Backend.dto.ProductView;
+import com.backend.Backend.dto.UserView;
+import com.backend.Backend.model.ImageVariant;
 import com.backend.Backend.model.Product;
 import com.backend.Backend.model.User;
+import com.backend.Backend.repository.ProductQuery;
 import com.backend.Backend.repository.ProductRepository;
+import com.backend.Backend.repository.ProductSort;
 import com.backend.Backend.repository.UserRepository;
+import com.backend.Backend.service.BlobStore;
+import com.backend.Backend.service.FileResponseWriter;
+import com.backend.Backend.service.ImageVariantService;
+import com.backend.Backend.service.ProductSearchService;
+import com.backend.Backend.service.UserDirectory;
 
 /**
  * @author Anusha
@@ -39,9 +54,22 @@ public class ProductController {
     private ProductRepository productRepository;  
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private BlobStore blobStore;
+    @Autowired
+    private FileResponseWriter fileResponseWriter;
+    @Autowired
+    private ImageVariantService imageVariantService;
+    @Autowired
+    private ProductSearchService productSearchService;
+    @Autowired
+    private UserDirectory userDirectory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static final int MAX_PAGE_SIZE = 100;
 
-    @Value("${upload.dir:${user.dir}/uploads}")
-    private String uploadDir;
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("(\\.[A-Za-z0-9]{1,10})?");
 
     /**
      */
@@ -50,46 +78,41 @@ public class ProductController {
             @RequestParam("title") String title,
             @RequestParam("description") String description,
             @RequestParam("price") double price,
-            @RequestParam("userId") Long userId,
-            @RequestParam(value = "image", required = false) MultipartFile imageFile
+            @RequestParam(value = "userId", required = false) Long userId,
+            @RequestParam(value = "image", required = false) MultipartFile imageFile,
+            Principal principal
     ) {
-        try {
-Optional<User> userOptional = userRepository.findById(userId); // Correct way to use the instance
- if (!userOptional.isPresent()) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "User not found");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        Long callerId = callerId(principal);
+        if (userId != null && !userId.equals(callerId)) {
+            return forbidden("Products can only be listed as yourself");
+        }
+        if (isTooLong(title, description)) {
+            return textTooLong();
         }
-        
-        User user = userOptional.get();
+        try {
+            Optional<UserView> owner = userDirectory.findProfile(callerId);
+            if (owner.isEmpty()) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "User not found");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+            // The cached profile proves the user exists; the reference only supplies the foreign key.
+            User user = userRepository.getReferenceById(callerId);
             String imageUrl = null;
             
             if (imageFile != null && !imageFile.isEmpty()) {
-                // Create unique filename
-                String originalFilename = imageFile.getOriginalFilename();
-                String fileExtension = originalFilename != null && originalFilename.contains(".")
-                        ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                        : "";
-                String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-
-                Path uploadPath = Paths.get(uploadDir);
-                if (!Files.exists(uploadPath)) {
-                    Files.createDirectories(uploadPath);
-                }
-
-                Path filePath = uploadPath.resolve(uniqueFilename);
-                imageFile.transferTo(filePath.toFile());
-
-                imageUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
-                        .path("/products/images/")
-                        .path(uniqueFilename)
-                        .toUriString();
+                imageUrl = storeImage(imageFile);
             }
 
             Product product = new Product(title, description, price, imageUrl, user);
             Product savedProduct = productRepository.save(product);
 
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedProduct);
+            ProductView view = new ProductView(savedProduct.getId(), savedProduct.getTitle(),
+                    savedProduct.getDescription(), savedProduct.getPrice(), savedProduct.getImageUrl(),
+                    savedProduct.getCreatedAt(), owner.get().id(), owner.get().name());
+            productSearchService.index(view);
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(view);
         } catch (IOException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to upload image: " + e.getMessage());
@@ -102,40 +125,111 @@ Optional<User> userOptional = userRepository.findById(userId); // Correct way to
     }
 
     /**
+     * Serve an uploaded image with validators, long-lived caching and byte
+     * range support; see {@link FileResponseWriter}. {@code variant=thumb}
+     * or {@code variant=medium} selects a resized copy, falling back to the
+     * original (briefly cached) while the copy is still being generated.
      */
     @GetMapping("/images/{filename:.+}")
-    public ResponseEntity<Resource> serveFile(@PathVariable String filename) {
-        try {
-            Path filePath = Paths.get(uploadDir).resolve(filename);
-            Resource resource = new UrlResource(filePath.toUri());
-            
-            if (resource.exists() && resource.isReadable()) {
-                return ResponseEntity.ok()
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                        .contentType(MediaType.IMAGE_JPEG) 
-                        .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
+    public void serveFile(@PathVariable String filename,
+                          @RequestParam(value = "variant", required = false) String variant,
+                          ServletWebRequest webRequest) throws IOException {
+        Optional<BlobStore.Blob> original = blobStore.find(filename);
+        if (original.isEmpty()) {
+            webRequest.getResponse().sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        if (variant != null && !variant.isEmpty()) {
+            ImageVariant imageVariant;
+            try {
+                imageVariant = ImageVariant.fromParam(variant);
+            } catch (IllegalArgumentException e) {
+                webRequest.getResponse().sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+                return;
             }
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            String variantKey = imageVariantService.variantKey(filename, imageVariant);
+            Optional<BlobStore.Blob> resized = blobStore.find(variantKey);
+            if (resized.isEmpty()) {
+                fileResponseWriter.write(original.get(), filename, webRequest, CacheControl.maxAge(Duration.ofMinutes(1)));
+                return;
+            }
+            fileResponseWriter.write(resized.get(), variantKey, webRequest);
+            return;
         }
+        fileResponseWriter.write(original.get(), filename, webRequest);
     }
 
     /**
-     * Get all products
+     * List products one keyset page at a time. Pass the returned
+     * {@code nextCursor} back as {@code cursor} to fetch the following page.
      */
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(productRepository.findAll());
+    public ResponseEntity<?> getAllProducts(
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+            @RequestParam(value = "ownerId", required = false) Long ownerId,
+            @RequestParam(value = "createdAfter", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAfter,
+            @RequestParam(value = "sort", defaultValue = "newest") String sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit
+    ) {
+        try {
+            ProductQuery query = new ProductQuery(
+                    minPrice,
+                    maxPrice,
+                    ownerId,
+                    createdAfter,
+                    ProductSort.fromParam(sort),
+                    cursor != null && !cursor.isEmpty() ? KeysetCursor.decode(cursor) : null,
+                    Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+            return ResponseEntity.ok(productRepository.findPage(query));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    /**
+     * Ranked full-text search over titles and descriptions; the last word
+     * matches as a prefix, so this also serves typeahead results.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchProducts(
+            @RequestParam("q") String q,
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+            @RequestParam(value = "limit", defaultValue = "20") int limit
+    ) throws IOException {
+        if (q.isBlank()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Search text is required");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        return ResponseEntity.ok(productSearchService.search(q, minPrice, maxPrice, Math.max(1, limit)));
+    }
+
+    /**
+     * Title suggestions for a partially typed query.
+     */
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<String>> suggestTitles(
+            @RequestParam("q") String q,
+            @RequestParam(value = "limit", defaultValue = "8") int limit
+    ) throws IOException {
+        if (q.isBlank()) {
+            return ResponseEntity.ok(List.of());
+        }
+        return ResponseEntity.ok(productSearchService.suggest(q, Math.max(1, limit)));
     }
 
     /**
      * Get products by user ID
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Product>> getProductsByUser(@PathVariable Long userId) {
-        List<Product> products = productRepository.findByUserId(userId);
+    public ResponseEntity<List<ProductView>> getProductsByUser(@PathVariable Long userId) {
+        List<ProductView> products = productRepository.findViewsByUserId(userId);
         return ResponseEntity.ok(products);
     }
 
@@ -143,8 +237,8 @@ Optional<User> userOptional = userRepository.findById(userId); // Correct way to
      * Get product by ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        Optional<Product> product = productRepository.findById(id);
+    public ResponseEntity<ProductView> getProductById(@PathVariable Long id) {
+        Optional<ProductView> product = productRepository.findViewById(id);
         return product.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
@@ -158,17 +252,18 @@ Optional<User> userOptional = userRepository.findById(userId); // Correct way to
             @RequestParam(value = "description", required = false) String description,
             @RequestParam(value = "price", required = false) Double price,
             @RequestParam(value = "userId", required = false) Long userId,
-            @RequestParam(value = "image", required = false) MultipartFile imageFile
+            @RequestParam(value = "image", required = false) MultipartFile imageFile,
+            Principal principal
     ) {
-        try {
-            Optional<User> userOptional = userRepository.findById(userId); // Correct way to use the instance
- if (!userOptional.isPresent()) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "User not found");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        // Listings cannot be handed to another user; userId is accepted only if it is the caller.
+        Long callerId = callerId(principal);
+        if (userId != null && !userId.equals(callerId)) {
+            return forbidden("Only the owner can change this product");
+        }
+        if (isTooLong(title, description)) {
+            return textTooLong();
         }
-        
-        User user = userOptional.get();
+        try {
             Optional<Product> optionalProduct = productRepository.findById(id);
             
             if (!optionalProduct.isPresent()) {
@@ -176,41 +271,27 @@ Optional<User> userOptional = userRepository.findById(userId); // Correct way to
             }
             
             Product product = optionalProduct.get();
+            if (!isOwner(product, callerId)) {
+                return forbidden("Only the owner can change this product");
+            }
             
             if (title != null) product.setTitle(title);
             if (description != null) product.setDescription(description);
             if (price != null) product.setPrice(price);
-            if (userId != null) product.setUser(user);
             
+            String replacedImage = null;
             if (imageFile != null && !imageFile.isEmpty()) {
-                if (product.getImageUrl() != null) {
-                    String oldFilename = product.getImageUrl().substring(product.getImageUrl().lastIndexOf("/") + 1);
-                    Path oldFilePath = Paths.get(uploadDir).resolve(oldFilename);
-                    Files.deleteIfExists(oldFilePath);
-                }
-                
-                String originalFilename = imageFile.getOriginalFilename();
-                String fileExtension = originalFilename != null && originalFilename.contains(".")
-                        ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                        : "";
-                String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-
-                Path uploadPath = Paths.get(uploadDir);
-                if (!Files.exists(uploadPath)) {
-                    Files.createDirectories(uploadPath);
-                }
-                Path filePath = uploadPath.resolve(uniqueFilename);
-                imageFile.transferTo(filePath.toFile());
-
-                String imageUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
-                        .path("/products/images/")
-                        .path(uniqueFilename)
-                        .toUriString();
-                product.setImageUrl(imageUrl);
+                replacedImage = imageKey(product.getImageUrl());
+                product.setImageUrl(storeImage(imageFile));
             }
             
             Product updatedProduct = productRepository.save(product);
-            return ResponseEntity.ok(updatedProduct);
+            if (replacedImage != null) {
+                blobStore.deleteAsync(imageVariantService.keysWithVariants(replacedImage));
+            }
+            ProductView view = ProductView.from(updatedProduct);
+            productSearchService.index(view);
+            return ResponseEntity.ok(view);
             
         } catch (IOException e) {
             Map<String, String> error = new HashMap<>();
@@ -227,7 +308,7 @@ Optional<User> userOptional = userRepository.findById(userId); // Correct way to
      * Delete a product
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteProduct(@PathVariable Long id) {
+    public ResponseEntity<?> deleteProduct(@PathVariable Long id, Principal principal) {
         try {
             Optional<Product> optionalProduct = productRepository.findById(id);
             
@@ -236,24 +317,93 @@ Optional<User> userOptional = userRepository.findById(userId); // Correct way to
             }
             
             Product product = optionalProduct.get();
-            
-            if (product.getImageUrl() != null && !product.getImageUrl().isEmpty()) {
-                String filename = product.getImageUrl().substring(product.getImageUrl().lastIndexOf("/") + 1);
-                Path filePath = Paths.get(uploadDir).resolve(filename);
-                Files.deleteIfExists(filePath);
+            if (!isOwner(product, callerId(principal))) {
+                return forbidden("Only the owner can change this product");
             }
             
             productRepository.deleteById(id);
+            productSearchService.remove(id);
+            String image = imageKey(product.getImageUrl());
+            if (image != null) {
+                blobStore.deleteAsync(imageVariantService.keysWithVariants(image));
+            }
             return ResponseEntity.ok().build();
             
-        } catch (IOException e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Failed to delete image: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Error deleting product: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
+
+    /** The authenticated user; the token subject is the user id. */
+    private static Long callerId(Principal principal) {
+        return Long.valueOf(principal.getName());
+    }
+
+    private static boolean isOwner(Product product, Long callerId) {
+        return product.getUser() != null && callerId.equals(product.getUser().getId());
+    }
+
+    private static boolean isTooLong(String title, String description) {
+        return (title != null && title.length() > Product.MAX_TITLE_LENGTH)
+                || (description != null && description.length() > Product.MAX_DESCRIPTION_LENGTH);
+    }
+
+    private static ResponseEntity<?> textTooLong() {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Titles are limited to " + Product.MAX_TITLE_LENGTH
+                + " characters and descriptions to " + Product.MAX_DESCRIPTION_LENGTH);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    private static ResponseEntity<?> forbidden(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+    }
+
+    /**
+     * Streams an upload into the blob store under a fresh UUID name, queues
+     * its variants and returns the URL it is served from.
+     */
+    private String storeImage(MultipartFile imageFile) throws IOException {
+        String originalFilename = imageFile.getOriginalFilename();
+        String fileExtension = originalFilename != null && originalFilename.contains(".")
+                ? originalFilename.substring(originalFilename.lastIndexOf("."))
+                : "";
+        if (!SAFE_EXTENSION.matcher(fileExtension).matches()) {
+            fileExtension = "";
+        }
+        String key = UUID.randomUUID().toString() + fileExtension;
+
+        // Multipart uploads are spooled to disk by the servlet container, so this reads from a file.
+        Timer.Sample upload = Timer.start(meterRegistry);
+        try (InputStream content = imageFile.getInputStream()) {
+            blobStore.put(key, content, imageFile.getSize(), imageFile.getContentType());
+        }
+        upload.stop(Timer.builder("product.image.upload")
+                .description("Time to store an uploaded product image")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        DistributionSummary.builder("product.image.upload.size")
+                .description("Size of uploaded product images")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .record(imageFile.getSize());
+        imageVariantService.submit(key);
+
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path(Product.IMAGE_PATH)
+                .path(key)
+                .toUriString();
+    }
+
+    /** The blob key of an image uploaded here, or null for none or an external URL. */
+    private static String imageKey(String imageUrl) {
+        if (imageUrl == null || !imageUrl.contains(Product.IMAGE_PATH)) {
+            return null;
+        }
+        return imageUrl.substring(imageUrl.lastIndexOf("/") + 1);
+    }
 }
@@ -4,16 +4,23 @@
  */
 package com.backend.Backend.controller;
 
+import com.backend.Backend.dto.UserView;
 import com.backend.Backend.model.User;
 import com.backend.Backend.repository.UserRepository;
+import com.backend.Backend.repository.UserSummary;
+import com.backend.Backend.security.TokenService;
+import com.backend.Backend.service.UserDirectory;
+import java.security.Principal;
 import java.util.List;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import java.util.HashMap;
 import java.util.Map;
@@ -33,10 +40,34 @@ public class UserController {
 
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private TokenService tokenService;
+    @Autowired
+    private UserDirectory userDirectory;
+
+    private static final int MAX_BATCH_IDS = 200;
 
+    /** Id and name of every user; contact details are never listed. */
     @GetMapping
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public List<UserSummary> getAllUsers() {
+        return userRepository.findAllByOrderByIdAsc();
+    }
+
+    /**
+     * Id and name of several users in one round trip, e.g.
+     * {@code GET /api/users?ids=3,8,21}. Unknown ids are left out.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getUserSummaries(@RequestParam("ids") List<Long> ids) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "At most " + MAX_BATCH_IDS + " ids per request");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        List<UserSummary> users = userDirectory.findSummaries(ids);
+        return ResponseEntity.ok(users);
     }
 
     @PostMapping("/register")
@@ -49,10 +80,30 @@ public class UserController {
             return new ResponseEntity<>("Email already registered", HttpStatus.CONFLICT);
         }
 
+        if (user.getPassword() == null || user.getPassword().isBlank()) {
+            return new ResponseEntity<>("Password is required", HttpStatus.BAD_REQUEST);
+        }
+
+        if (user.getName() == null || user.getName().isBlank() || user.getPhone() == null || user.getPhone().isBlank()) {
+            return new ResponseEntity<>("Name and phone are required", HttpStatus.BAD_REQUEST);
+        }
+
+        if (user.getName().length() > User.MAX_FIELD_LENGTH || user.getEmail().length() > User.MAX_FIELD_LENGTH
+                || user.getPhone().length() > User.MAX_FIELD_LENGTH) {
+            return new ResponseEntity<>("Name, email and phone must be at most " + User.MAX_FIELD_LENGTH
+                    + " characters", HttpStatus.BAD_REQUEST);
+        }
+        user.setPassword(passwordEncoder.encode(user.getPassword()));
+
         User savedUser = userRepository.save(user);
-        return new ResponseEntity<>(savedUser, HttpStatus.CREATED);
+        return new ResponseEntity<>(UserView.from(savedUser), HttpStatus.CREATED);
     }
 
+    /**
+     * Checks the password and returns a bearer token for the other
+     * endpoints. Passwords still stored in an older format are re-hashed
+     * here, once the plain text is known to be right.
+     */
     @PostMapping("/login")
     public ResponseEntity<?> loginUser(@RequestBody User loginRequest) {
         Map<String, Object> response = new HashMap<>();
@@ -65,22 +116,35 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
         }
 
-        if (!user.getPassword().equals(loginRequest.getPassword())) {
+        if (loginRequest.getPassword() == null
+                || !passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
             response.put("success", false);
             response.put("message", "Invalid password");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
         }
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(loginRequest.getPassword()));
+            user = userRepository.save(user);
+        }
 
-        user.setPassword(null);
+        TokenService.IssuedToken token = tokenService.issue(user.getId(), user.getName());
         response.put("success", true);
         response.put("message", "Login successful");
-        response.put("user", user);
+        response.put("user", UserView.from(user));
+        response.put("token", token.value());
+        response.put("expiresAt", token.expiresAt());
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * The caller's own profile, with email and phone; for anyone else only
+     * the public {@link UserSummary}.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getUser(@PathVariable Long id) {
-        Optional<User> user = userRepository.findById(id);
+    public ResponseEntity<?> getUser(@PathVariable Long id, Principal principal) {
+        Optional<?> user = principal != null && principal.getName().equals(id.toString())
+                ? userDirectory.findProfile(id)
+                : userDirectory.findSummary(id);
         if (user.isPresent()) {
             return new ResponseEntity<>(user.get(), HttpStatus.OK);
         } else {
@@ -88,6 +152,7 @@ public class UserController {
         }
     }
 
+    /** Tokens are stateless: logging out is the client dropping its token. */
     @PostMapping("/logout")
     public ResponseEntity<?> logoutUser() {
         Map<String, Object> response = new HashMap<>();
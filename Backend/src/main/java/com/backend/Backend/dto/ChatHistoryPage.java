@@ -0,0 +1,12 @@
+package com.backend.Backend.dto;
+
+import com.backend.Backend.model.ChatMessage;
+import java.util.List;
+
+/**
+ * A slice of a conversation in display (oldest-first) order.
+ * {@code nextCursor} fetches the page of older messages before this one and
+ * is null once the start of the conversation has been reached.
+ */
+public record ChatHistoryPage(List<ChatMessage> messages, String nextCursor) {
+}
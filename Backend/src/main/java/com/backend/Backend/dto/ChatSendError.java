@@ -0,0 +1,9 @@
+package com.backend.Backend.dto;
+
+/**
+ * Sent on {@code /user/queue/errors} to the sender of a chat message that
+ * was refused or could not be stored. {@code messageId} is null when the
+ * message was refused before it got one.
+ */
+public record ChatSendError(Long messageId, String error) {
+}
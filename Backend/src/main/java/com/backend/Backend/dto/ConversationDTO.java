@@ -14,12 +14,23 @@ public class ConversationDTO {
     private String userName;
     private String lastMessage;
     private String lastTimestamp;
+    private int unreadCount;
+    private boolean archived;
+    private Long lastReadMessageId;
 
     public ConversationDTO(String userId, String userName, String lastMessage, String lastTimestamp) {
+        this(userId, userName, lastMessage, lastTimestamp, 0, false, null);
+    }
+
+    public ConversationDTO(String userId, String userName, String lastMessage, String lastTimestamp,
+                           int unreadCount, boolean archived, Long lastReadMessageId) {
         this.userId = userId;
         this.userName = userName;
         this.lastMessage = lastMessage;
         this.lastTimestamp = lastTimestamp;
+        this.unreadCount = unreadCount;
+        this.archived = archived;
+        this.lastReadMessageId = lastReadMessageId;
     }
 
     public String getUserId() {
@@ -53,4 +64,28 @@ public class ConversationDTO {
     public void setLastTimestamp(String lastTimestamp) {
         this.lastTimestamp = lastTimestamp;
     }
+
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(int unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+
+    public boolean isArchived() {
+        return archived;
+    }
+
+    public void setArchived(boolean archived) {
+        this.archived = archived;
+    }
+
+    public Long getLastReadMessageId() {
+        return lastReadMessageId;
+    }
+
+    public void setLastReadMessageId(Long lastReadMessageId) {
+        this.lastReadMessageId = lastReadMessageId;
+    }
 }
@@ -0,0 +1,36 @@
+package com.backend.Backend.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a keyset-paginated listing: the sort key of the last
+ * row returned plus its id as a tie-breaker. Clients only ever see the
+ * encoded token and hand it back unchanged to fetch the next page.
+ */
+public record KeysetCursor(String value, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = (value == null ? "" : value) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            if (split < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new KeysetCursor(raw.substring(0, split), Long.parseLong(raw.substring(split + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.backend.Backend.dto;
+
+import java.util.List;
+
+/**
+ * Users whose online status changed since the previous delta on
+ * {@code /topic/presence}. A user who connected and left again within one
+ * flush interval appears in neither list.
+ */
+public record PresenceDelta(List<String> online, List<String> offline) {
+}
@@ -0,0 +1,9 @@
+package com.backend.Backend.dto;
+
+import java.util.List;
+
+/**
+ * One page of a product listing. {@code nextCursor} is null on the last page.
+ */
+public record ProductPage<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,43 @@
+package com.backend.Backend.dto;
+
+import com.backend.Backend.model.ImageVariant;
+import com.backend.Backend.model.Product;
+import java.time.LocalDateTime;
+
+/**
+ * Read model of a product as returned by the API. Repositories select it
+ * directly with a constructor expression, so listings read only these
+ * columns and the owner's id and name instead of whole entities.
+ */
+public record ProductView(
+        Long id,
+        String title,
+        String description,
+        double price,
+        String imageUrl,
+        String thumbnailUrl,
+        String mediumUrl,
+        LocalDateTime createdAt,
+        Owner user) {
+
+    /** Public part of the seller, serialized as {@code user} for existing clients. */
+    public record Owner(Long id, String name) {
+    }
+
+    /** Constructor expression target; JPQL cannot build the nested owner itself. */
+    public ProductView(Long id, String title, String description, double price, String imageUrl,
+                       LocalDateTime createdAt, Long ownerId, String ownerName) {
+        this(id, title, description, price, imageUrl,
+                ImageVariant.THUMB.urlFor(imageUrl),
+                ImageVariant.MEDIUM.urlFor(imageUrl),
+                createdAt,
+                ownerId != null ? new Owner(ownerId, ownerName) : null);
+    }
+
+    public static ProductView from(Product product) {
+        return new ProductView(product.getId(), product.getTitle(), product.getDescription(),
+                product.getPrice(), product.getImageUrl(), product.getCreatedAt(),
+                product.getUser() != null ? product.getUser().getId() : null,
+                product.getUser() != null ? product.getUser().getName() : null);
+    }
+}
@@ -0,0 +1,10 @@
+package com.backend.Backend.dto;
+
+/**
+ * Payload of {@code /app/chat.read}: {@code userId} has read the
+ * conversation with {@code otherUserId} up to and including
+ * {@code messageId}. On an authenticated session the principal replaces
+ * {@code userId}.
+ */
+public record ReadAck(String userId, String otherUserId, Long messageId) {
+}
@@ -0,0 +1,8 @@
+package com.backend.Backend.dto;
+
+/**
+ * Sent on {@code /user/queue/read-receipts} to the other participant when
+ * {@code readerId} has read their messages up to {@code lastReadMessageId}.
+ */
+public record ReadReceipt(String readerId, long lastReadMessageId) {
+}
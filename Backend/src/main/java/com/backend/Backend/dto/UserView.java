@@ -0,0 +1,32 @@
+package com.backend.Backend.dto;
+
+import com.backend.Backend.model.User;
+import com.backend.Backend.repository.UserSummary;
+
+/**
+ * A user's own profile as returned by the API; never carries the password.
+ */
+public record UserView(Long id, String name, String email, String phone) {
+
+    public static UserView from(User user) {
+        return new UserView(user.getId(), user.getName(), user.getEmail(), user.getPhone());
+    }
+
+    /** The part anyone may see. */
+    public UserSummary summary() {
+        return new Summary(id, name);
+    }
+
+    private record Summary(Long id, String name) implements UserSummary {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -10,22 +10,39 @@ package com.backend.Backend.model;
  */
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_chat_message_conversation", columnList = "conversationKey, timestamp, id"),
+    @Index(name = "idx_chat_message_sender_recipient_ts", columnList = "senderId, recipientId, timestamp"),
+    @Index(name = "idx_chat_message_recipient_ts", columnList = "recipientId, timestamp")
+})
 public class ChatMessage {
+    public static final int MAX_CONTENT_LENGTH = 2000;
+
+    // Assigned by ChatMessageIdAllocator before the message is queued for writing.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    @Convert(converter = UserIdConverter.class)
+    @Column(nullable = false)
     private String senderId;
+    @Convert(converter = UserIdConverter.class)
+    @Column(nullable = false)
     private String recipientId;
+    @Column(length = MAX_CONTENT_LENGTH)
     private String content;
+    @Column(nullable = false)
     private LocalDateTime timestamp;
+    @Column(length = 64)
+    private String conversationKey;
 @Column(name = "archived")
 private boolean archived = false;  
     // Getters and Setters
@@ -77,5 +94,19 @@ private boolean archived = false;
     public void setTimestamp(LocalDateTime timestamp) {
         this.timestamp = timestamp;
     }
-}
 
+    public String getConversationKey() {
+        return conversationKey;
+    }
+
+    public void setConversationKey(String conversationKey) {
+        this.conversationKey = conversationKey;
+    }
+
+    @PrePersist
+    void assignConversationKey() {
+        if (conversationKey == null && senderId != null && recipientId != null) {
+            conversationKey = ConversationPair.of(senderId, recipientId).key();
+        }
+    }
+}
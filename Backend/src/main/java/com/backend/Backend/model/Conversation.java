@@ -0,0 +1,215 @@
+package com.backend.Backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+
+/**
+ * Summary row for a pair of users, maintained alongside every write to
+ * {@link ChatMessage} so the conversation list never has to aggregate the
+ * message table. Per-participant state is stored in low/high columns
+ * following {@link ConversationPair} ordering.
+ */
+@Entity
+@Table(
+        uniqueConstraints = @UniqueConstraint(name = "uk_conversation_pair", columnNames = {"userLow", "userHigh"}),
+        indexes = {
+            @Index(name = "idx_conversation_low_ts", columnList = "userLow, lastTimestamp"),
+            @Index(name = "idx_conversation_high_ts", columnList = "userHigh, lastTimestamp")
+        })
+public class Conversation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Convert(converter = UserIdConverter.class)
+    @Column(nullable = false)
+    private String userLow;
+    @Convert(converter = UserIdConverter.class)
+    @Column(nullable = false)
+    private String userHigh;
+
+    @Column(length = 2000)
+    private String lastMessage;
+    @Convert(converter = UserIdConverter.class)
+    private String lastSenderId;
+    private LocalDateTime lastTimestamp;
+    private Long lastMessageId;
+
+    private int unreadLow;
+    private int unreadHigh;
+
+    // Read cursors: position of the newest message each participant has read.
+    private Long lastReadLow;
+    private LocalDateTime lastReadAtLow;
+    private Long lastReadHigh;
+    private LocalDateTime lastReadAtHigh;
+
+    // Each participant archives and clears independently. A clear hides
+    // messages up to and including this position from that participant only.
+    private boolean archivedLow;
+    private boolean archivedHigh;
+    private Long clearedLow;
+    private LocalDateTime clearedAtLow;
+    private Long clearedHigh;
+    private LocalDateTime clearedAtHigh;
+
+    // Messages up to this position were seen as cleared by both and deleted.
+    private Long purgedUpTo;
+    private LocalDateTime purgedUpToAt;
+
+    public Conversation() {}
+
+    public Conversation(ConversationPair pair) {
+        this.userLow = pair.low();
+        this.userHigh = pair.high();
+    }
+
+    public ConversationPair pair() {
+        return new ConversationPair(userLow, userHigh);
+    }
+
+    public String otherParticipant(String userId) {
+        return userLow.equals(userId) ? userHigh : userLow;
+    }
+
+    public int unreadFor(String userId) {
+        return userLow.equals(userId) ? unreadLow : unreadHigh;
+    }
+
+    public void incrementUnreadFor(String userId) {
+        if (userLow.equals(userId)) {
+            unreadLow++;
+        } else {
+            unreadHigh++;
+        }
+    }
+
+    public void resetUnreadFor(String userId) {
+        setUnreadFor(userId, 0);
+    }
+
+    public void setUnreadFor(String userId, int unread) {
+        if (userLow.equals(userId)) {
+            unreadLow = unread;
+        } else {
+            unreadHigh = unread;
+        }
+    }
+
+    public boolean isArchivedFor(String userId) {
+        return userLow.equals(userId) ? archivedLow : archivedHigh;
+    }
+
+    public void setArchivedForBoth(boolean archived) {
+        archivedLow = archived;
+        archivedHigh = archived;
+    }
+
+    public Long lastReadFor(String userId) {
+        return userLow.equals(userId) ? lastReadLow : lastReadHigh;
+    }
+
+    public MessagePosition readPositionFor(String userId) {
+        return userLow.equals(userId)
+                ? MessagePosition.of(lastReadAtLow, lastReadLow)
+                : MessagePosition.of(lastReadAtHigh, lastReadHigh);
+    }
+
+    public boolean hasRead(String userId, MessagePosition message) {
+        MessagePosition read = readPositionFor(userId);
+        return read != null && !message.isAfter(read);
+    }
+
+    /**
+     * Moves the read cursor of {@code userId} forward to {@code message}.
+     *
+     * @return false when the cursor was already at or past it
+     */
+    public boolean advanceReadCursor(String userId, MessagePosition message) {
+        if (hasRead(userId, message)) {
+            return false;
+        }
+        if (userLow.equals(userId)) {
+            lastReadLow = message.id();
+            lastReadAtLow = message.timestamp();
+        } else {
+            lastReadHigh = message.id();
+            lastReadAtHigh = message.timestamp();
+        }
+        return true;
+    }
+
+    /** Position of the newest message {@code userId} has cleared, or null. */
+    public MessagePosition clearedPositionFor(String userId) {
+        return userLow.equals(userId)
+                ? MessagePosition.of(clearedAtLow, clearedLow)
+                : MessagePosition.of(clearedAtHigh, clearedHigh);
+    }
+
+    /** Position up to which both participants have cleared, or null. */
+    public MessagePosition clearedByBoth() {
+        MessagePosition low = MessagePosition.of(clearedAtLow, clearedLow);
+        MessagePosition high = MessagePosition.of(clearedAtHigh, clearedHigh);
+        if (low == null || high == null) {
+            return null;
+        }
+        return low.isAfter(high) ? high : low;
+    }
+
+    /** Position of the newest message, or null before the first one. */
+    public MessagePosition lastMessagePosition() {
+        return MessagePosition.of(lastTimestamp, lastMessageId);
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getUserLow() { return userLow; }
+    public void setUserLow(String userLow) { this.userLow = userLow; }
+    public String getUserHigh() { return userHigh; }
+    public void setUserHigh(String userHigh) { this.userHigh = userHigh; }
+    public String getLastMessage() { return lastMessage; }
+    public void setLastMessage(String lastMessage) { this.lastMessage = lastMessage; }
+    public String getLastSenderId() { return lastSenderId; }
+    public void setLastSenderId(String lastSenderId) { this.lastSenderId = lastSenderId; }
+    public LocalDateTime getLastTimestamp() { return lastTimestamp; }
+    public void setLastTimestamp(LocalDateTime lastTimestamp) { this.lastTimestamp = lastTimestamp; }
+    public Long getLastMessageId() { return lastMessageId; }
+    public void setLastMessageId(Long lastMessageId) { this.lastMessageId = lastMessageId; }
+    public int getUnreadLow() { return unreadLow; }
+    public void setUnreadLow(int unreadLow) { this.unreadLow = unreadLow; }
+    public int getUnreadHigh() { return unreadHigh; }
+    public void setUnreadHigh(int unreadHigh) { this.unreadHigh = unreadHigh; }
+    public Long getLastReadLow() { return lastReadLow; }
+    public void setLastReadLow(Long lastReadLow) { this.lastReadLow = lastReadLow; }
+    public Long getLastReadHigh() { return lastReadHigh; }
+    public void setLastReadHigh(Long lastReadHigh) { this.lastReadHigh = lastReadHigh; }
+    public LocalDateTime getLastReadAtLow() { return lastReadAtLow; }
+    public void setLastReadAtLow(LocalDateTime lastReadAtLow) { this.lastReadAtLow = lastReadAtLow; }
+    public LocalDateTime getLastReadAtHigh() { return lastReadAtHigh; }
+    public void setLastReadAtHigh(LocalDateTime lastReadAtHigh) { this.lastReadAtHigh = lastReadAtHigh; }
+    public boolean isArchivedLow() { return archivedLow; }
+    public void setArchivedLow(boolean archivedLow) { this.archivedLow = archivedLow; }
+    public boolean isArchivedHigh() { return archivedHigh; }
+    public void setArchivedHigh(boolean archivedHigh) { this.archivedHigh = archivedHigh; }
+    public Long getClearedLow() { return clearedLow; }
+    public void setClearedLow(Long clearedLow) { this.clearedLow = clearedLow; }
+    public Long getClearedHigh() { return clearedHigh; }
+    public void setClearedHigh(Long clearedHigh) { this.clearedHigh = clearedHigh; }
+    public LocalDateTime getClearedAtLow() { return clearedAtLow; }
+    public void setClearedAtLow(LocalDateTime clearedAtLow) { this.clearedAtLow = clearedAtLow; }
+    public LocalDateTime getClearedAtHigh() { return clearedAtHigh; }
+    public void setClearedAtHigh(LocalDateTime clearedAtHigh) { this.clearedAtHigh = clearedAtHigh; }
+    public Long getPurgedUpTo() { return purgedUpTo; }
+    public void setPurgedUpTo(Long purgedUpTo) { this.purgedUpTo = purgedUpTo; }
+    public LocalDateTime getPurgedUpToAt() { return purgedUpToAt; }
+    public void setPurgedUpToAt(LocalDateTime purgedUpToAt) { this.purgedUpToAt = purgedUpToAt; }
+}
@@ -0,0 +1,31 @@
+package com.backend.Backend.model;
+
+/**
+ * The two participants of a conversation in a canonical order, so that
+ * (a, b) and (b, a) identify the same conversation. Numeric ids are compared
+ * numerically; anything else falls back to string order.
+ */
+public record ConversationPair(String low, String high) {
+
+    public static ConversationPair of(String userId, String otherUserId) {
+        return compare(userId, otherUserId) <= 0
+                ? new ConversationPair(userId, otherUserId)
+                : new ConversationPair(otherUserId, userId);
+    }
+
+    public String key() {
+        return low + ":" + high;
+    }
+
+    public boolean isLow(String userId) {
+        return low.equals(userId);
+    }
+
+    private static int compare(String a, String b) {
+        try {
+            return Long.compare(Long.parseLong(a), Long.parseLong(b));
+        } catch (NumberFormatException e) {
+            return a.compareTo(b);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.backend.Backend.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * High-water mark for an application-assigned id sequence. Each node reserves
+ * ids in blocks by advancing {@code nextVal} under a row lock, then hands
+ * them out from memory, so only one round trip is needed per block.
+ */
+@Entity
+@Table(name = "id_block")
+public class IdBlock {
+
+    @Id
+    private String name;
+
+    private long nextVal;
+
+    public IdBlock() {}
+
+    public IdBlock(String name, long nextVal) {
+        this.name = name;
+        this.nextVal = nextVal;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public long getNextVal() { return nextVal; }
+    public void setNextVal(long nextVal) { this.nextVal = nextVal; }
+}
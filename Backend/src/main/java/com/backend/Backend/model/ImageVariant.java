@@ -0,0 +1,52 @@
+package com.backend.Backend.model;
+
+import java.util.Locale;
+
+/**
+ * Resized copies of an uploaded image. A variant is stored next to its
+ * original as {@code <original-name-without-extension>-<variant>.jpg}.
+ */
+public enum ImageVariant {
+    THUMB,
+    MEDIUM;
+
+    public String param() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public String filenameFor(String originalFilename) {
+        int dot = originalFilename.lastIndexOf('.');
+        String base = dot > 0 ? originalFilename.substring(0, dot) : originalFilename;
+        return base + "-" + param() + ".jpg";
+    }
+
+    /**
+     * URL of this variant of an image served under {@link Product#IMAGE_PATH};
+     * external URLs have no variants and are returned unchanged.
+     */
+    public String urlFor(String imageUrl) {
+        if (imageUrl == null || !imageUrl.contains(Product.IMAGE_PATH)) {
+            return imageUrl;
+        }
+        return imageUrl + "?variant=" + param();
+    }
+
+    /** Whether {@code filename} is one of the generated copies rather than an upload. */
+    public static boolean isVariantFile(String filename) {
+        for (ImageVariant variant : values()) {
+            if (filename.endsWith("-" + variant.param() + ".jpg")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static ImageVariant fromParam(String value) {
+        for (ImageVariant variant : values()) {
+            if (variant.param().equalsIgnoreCase(value)) {
+                return variant;
+            }
+        }
+        throw new IllegalArgumentException("Unknown image variant: " + value);
+    }
+}
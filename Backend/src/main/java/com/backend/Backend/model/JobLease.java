@@ -0,0 +1,37 @@
+package com.backend.Backend.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Which node currently runs a background job, and until when. The holder
+ * renews the lease each time it runs; once it lapses any node may take it.
+ */
+@Entity
+@Table(name = "job_lease")
+public class JobLease {
+
+    @Id
+    private String name;
+
+    private String owner;
+
+    private LocalDateTime expiresAt;
+
+    public JobLease() {}
+
+    public JobLease(String name, String owner, LocalDateTime expiresAt) {
+        this.name = name;
+        this.owner = owner;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
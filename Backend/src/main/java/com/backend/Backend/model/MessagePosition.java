@@ -0,0 +1,36 @@
+package com.backend.Backend.model;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * Where a message sits in its conversation: ordered by timestamp, then id,
+ * like history pages. Ids alone are not in send order, because every node
+ * allocates them from its own block.
+ */
+public record MessagePosition(LocalDateTime timestamp, long id) implements Comparable<MessagePosition> {
+
+    /** Sorts before every stored message: the smallest MySQL DATETIME. */
+    public static final MessagePosition START = new MessagePosition(LocalDateTime.of(1000, 1, 1, 0, 0), 0);
+
+    private static final Comparator<MessagePosition> ORDER =
+            Comparator.comparing(MessagePosition::timestamp).thenComparingLong(MessagePosition::id);
+
+    public static MessagePosition of(ChatMessage message) {
+        return new MessagePosition(message.getTimestamp(), message.getId());
+    }
+
+    /** The position stored in a timestamp/id column pair, or null if unset. */
+    public static MessagePosition of(LocalDateTime timestamp, Long id) {
+        return timestamp != null && id != null ? new MessagePosition(timestamp, id) : null;
+    }
+
+    public boolean isAfter(MessagePosition other) {
+        return compareTo(other) > 0;
+    }
+
+    @Override
+    public int compareTo(MessagePosition other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -1,26 +1,49 @@
 package com.backend.Backend.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_product_price_id", columnList = "price, id"),
+    @Index(name = "idx_product_created_at", columnList = "createdAt"),
+    @Index(name = "idx_product_user_id", columnList = "user_id, id")
+})
 public class Product {
 
+    public static final String IMAGE_PATH = "/products/images/";
+    public static final int MAX_TITLE_LENGTH = 255;
+    public static final int MAX_DESCRIPTION_LENGTH = 2000;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(length = MAX_TITLE_LENGTH)
     private String title;
+    @Column(length = MAX_DESCRIPTION_LENGTH)
     private String description;
     private double price;
     private String imageUrl;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(foreignKey = @ForeignKey(name = "fk_product_user"))
     private User user;
 
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
     public Product() {}
 
     public Product(String title, String description, double price, String imageUrl, User user) {
@@ -41,6 +64,17 @@ public class Product {
     public void setPrice(double price) { this.price = price; }
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+    public String getThumbnailUrl() { return ImageVariant.THUMB.urlFor(imageUrl); }
+    public String getMediumUrl() { return ImageVariant.MEDIUM.urlFor(imageUrl); }
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
 }
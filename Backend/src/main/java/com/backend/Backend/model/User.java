@@ -20,20 +20,24 @@ import jakarta.persistence.Table;
 @Table(name = "user"
         + "")
 public class User {
+
+    /** Width of the name, email and phone columns; registration refuses anything longer. */
+    public static final int MAX_FIELD_LENGTH = 255;
+
    @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false)
+    @Column(nullable = false, length = MAX_FIELD_LENGTH)
     private String name;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false, unique = true, length = MAX_FIELD_LENGTH)
     private String email;
 
     @Column(nullable = false) // Add this to prevent NULL passwords
     private String password;
 
-    @Column(nullable = false) // Add this to prevent NULL phones
+    @Column(nullable = false, length = MAX_FIELD_LENGTH) // Add this to prevent NULL phones
     private String phone;
     
     // Getters and setters for all fields
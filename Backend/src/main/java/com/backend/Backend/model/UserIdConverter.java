@@ -0,0 +1,37 @@
+package com.backend.Backend.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a user id that the chat code handles as a string (it arrives as a
+ * principal name or a STOMP payload field) in a BIGINT column matching
+ * {@code user.id}.
+ */
+@Converter
+public class UserIdConverter implements AttributeConverter<String, Long> {
+
+    /** Whether {@code userId} can be stored, i.e. is a plain decimal user id. */
+    public static boolean isValid(String userId) {
+        if (userId == null || userId.isEmpty() || userId.length() > 18) {
+            return false;
+        }
+        for (int i = 0; i < userId.length(); i++) {
+            char c = userId.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Long convertToDatabaseColumn(String userId) {
+        return userId != null ? Long.valueOf(userId) : null;
+    }
+
+    @Override
+    public String convertToEntityAttribute(Long userId) {
+        return userId != null ? userId.toString() : null;
+    }
+}
@@ -4,10 +4,13 @@
  */
 package com.backend.Backend.repository;
 
-import com.backend.Backend.dto.ConversationDTO;
 import com.backend.Backend.model.ChatMessage;
 import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -21,50 +24,95 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
 
-    @Query("SELECT m FROM ChatMessage m WHERE " +
-           "(m.senderId = :userId1 AND m.recipientId = :userId2) OR " +
-           "(m.senderId = :userId2 AND m.recipientId = :userId1) " +
-           "ORDER BY m.timestamp ASC")
-    List<ChatMessage> findMessagesBetweenUsers(@Param("userId1") String userId1,
-                                               @Param("userId2") String userId2);
+    /**
+     * Messages of a conversation after the reader's clear position
+     * ({@code afterTimestamp}, {@code afterId}), oldest first.
+     */
+    @Query("SELECT m FROM ChatMessage m WHERE m.conversationKey = :key " +
+           "AND m.timestamp >= :afterTimestamp AND (m.timestamp > :afterTimestamp OR m.id > :afterId) " +
+           "ORDER BY m.timestamp, m.id")
+    List<ChatMessage> findAfter(@Param("key") String conversationKey,
+                                @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                @Param("afterId") Long afterId);
+
+    /**
+     * Newest-first page of a conversation after the reader's clear position;
+     * walks the (conversationKey, timestamp, id) index backwards.
+     */
+    @Query("SELECT m FROM ChatMessage m WHERE m.conversationKey = :key " +
+           "AND m.timestamp >= :afterTimestamp AND (m.timestamp > :afterTimestamp OR m.id > :afterId) " +
+           "ORDER BY m.timestamp DESC, m.id DESC")
+    List<ChatMessage> findLatest(@Param("key") String conversationKey,
+                                 @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                 @Param("afterId") Long afterId,
+                                 Pageable pageable);
+
+    /**
+     * The page before a cursor. The redundant {@code timestamp <= :timestamp}
+     * lets MySQL prune the monthly partitions newer than the cursor.
+     */
+    @Query("SELECT m FROM ChatMessage m WHERE m.conversationKey = :key " +
+           "AND m.timestamp >= :afterTimestamp AND (m.timestamp > :afterTimestamp OR m.id > :afterId) " +
+           "AND m.timestamp <= :timestamp " +
+           "AND (m.timestamp < :timestamp OR (m.timestamp = :timestamp AND m.id < :id)) " +
+           "ORDER BY m.timestamp DESC, m.id DESC")
+    List<ChatMessage> findBefore(@Param("key") String conversationKey,
+                                 @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                 @Param("afterId") Long afterId,
+                                 @Param("timestamp") LocalDateTime timestamp,
+                                 @Param("id") Long id,
+                                 Pageable pageable);
+
+    /** Messages from {@code senderId} in the conversation after a read cursor's (timestamp, id). */
+    @Query("SELECT COUNT(m) FROM ChatMessage m WHERE m.conversationKey = :key " +
+           "AND m.senderId = :senderId AND m.timestamp >= :timestamp " +
+           "AND (m.timestamp > :timestamp OR m.id > :id)")
+    long countUnread(@Param("key") String conversationKey,
+                     @Param("senderId") String senderId,
+                     @Param("timestamp") LocalDateTime timestamp,
+                     @Param("id") Long id);
+
+    /** One chunk of messages at or before ({@code timestamp}, {@code id}), oldest first. */
+    @Query("SELECT m.id FROM ChatMessage m WHERE m.conversationKey = :key " +
+           "AND m.timestamp <= :timestamp AND (m.timestamp < :timestamp OR m.id <= :id) " +
+           "ORDER BY m.timestamp, m.id")
+    List<Long> findIdsUpTo(@Param("key") String conversationKey,
+                           @Param("timestamp") LocalDateTime timestamp,
+                           @Param("id") Long id,
+                           Pageable pageable);
 
     @Modifying
     @Transactional
-    @Query("DELETE FROM ChatMessage m WHERE " +
-           "(m.senderId = :userId1 AND m.recipientId = :userId2) OR " +
-           "(m.senderId = :userId2 AND m.recipientId = :userId1)")
-    void deleteMessagesBetweenUsers(@Param("userId1") String userId1,
-                                    @Param("userId2") String userId2);
+    @Query("DELETE FROM ChatMessage m WHERE m.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 
-@Query(value =
-       "SELECT DISTINCT " +
-       "CASE WHEN cm.sender_id = :userId THEN cm.recipient_id ELSE cm.sender_id END AS userId, " +
-       "(SELECT content FROM chat_message " +
-       " WHERE ((sender_id = cm.sender_id AND recipient_id = cm.recipient_id) OR " +
-       "       (sender_id = cm.recipient_id AND recipient_id = cm.sender_id)) " +
-       " ORDER BY timestamp DESC LIMIT 1) AS lastMessage, " +
-       "(SELECT timestamp FROM chat_message " +
-       " WHERE ((sender_id = cm.sender_id AND recipient_id = cm.recipient_id) OR " +
-       "       (sender_id = cm.recipient_id AND recipient_id = cm.sender_id)) " +
-       " ORDER BY timestamp DESC LIMIT 1) AS lastTimestamp " +
-       "FROM chat_message cm " +
-       "WHERE (cm.sender_id = :userId OR cm.recipient_id = :userId) " +
-       "AND (cm.sender_id != cm.recipient_id) " + // Exclude self-messages
-       "ORDER BY lastTimestamp DESC",
-       nativeQuery = true)
-    List<Object[]> findConversationsForUserRaw(@Param("userId") String userId);
+    /** Timestamp of the oldest message before {@code before} that the archiver can move. */
+    @Query("SELECT MIN(m.timestamp) FROM ChatMessage m WHERE m.timestamp < :before AND m.conversationKey IS NOT NULL")
+    Optional<LocalDateTime> findOldestArchivable(@Param("before") LocalDateTime before);
 
-default List<ConversationDTO> findConversationsForUser(String userId) {
-    List<Object[]> results = findConversationsForUserRaw(userId);
-    return results.stream()
-            .map(result -> new ConversationDTO(
-                    (String) result[0],
-                    "User " + result[0],
-                    (String) result[1],
-                    result[2] != null ? result[2].toString() : null
-            ))
-            .collect(java.util.stream.Collectors.toList());
-}
-}
+    /**
+     * One chunk of a month in archive order (conversation, then time), after
+     * the given position.
+     */
+    @Query("SELECT m FROM ChatMessage m WHERE m.timestamp >= :from AND m.timestamp < :to " +
+           "AND (m.conversationKey > :key OR (m.conversationKey = :key AND " +
+           "(m.timestamp > :timestamp OR (m.timestamp = :timestamp AND m.id > :id)))) " +
+           "ORDER BY m.conversationKey, m.timestamp, m.id")
+    List<ChatMessage> findArchivable(@Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     @Param("key") String conversationKey,
+                                     @Param("timestamp") LocalDateTime timestamp,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
 
+    @Query("SELECT m.id FROM ChatMessage m WHERE m.timestamp >= :from AND m.timestamp < :to " +
+           "AND m.conversationKey IS NOT NULL ORDER BY m.id")
+    List<Long> findArchivableIds(@Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to,
+                                 Pageable pageable);
 
+    List<ChatMessage> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(m.id), 0) FROM ChatMessage m")
+    long findMaxId();
+}
@@ -0,0 +1,94 @@
+package com.backend.Backend.repository;
+
+import com.backend.Backend.model.Conversation;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Conversation> findByUserLowAndUserHigh(String userLow, String userHigh);
+
+    boolean existsByUserLowAndUserHigh(String userLow, String userHigh);
+
+    /**
+     * Creates the pair's row unless it exists. When two first messages of a
+     * pair race, the second insert waits for the first and becomes a no-op
+     * instead of failing on {@code uk_conversation_pair}.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO conversation (user_low, user_high, unread_low, unread_high, archived_low, archived_high) " +
+                   "VALUES (:low, :high, 0, 0, FALSE, FALSE) ON DUPLICATE KEY UPDATE user_low = user_low",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("low") Long userLow, @Param("high") Long userHigh);
+
+    /**
+     * Conversations of {@code userId} that still show a message to them,
+     * newest first. Served by the (userLow, lastTimestamp) and
+     * (userHigh, lastTimestamp) indexes.
+     */
+    @Query("SELECT c FROM Conversation c " +
+           "WHERE ((c.userLow = :userId AND (c.clearedLow IS NULL OR c.clearedAtLow < c.lastTimestamp " +
+           "        OR (c.clearedAtLow = c.lastTimestamp AND c.clearedLow < c.lastMessageId))) " +
+           "    OR (c.userHigh = :userId AND (c.clearedHigh IS NULL OR c.clearedAtHigh < c.lastTimestamp " +
+           "        OR (c.clearedAtHigh = c.lastTimestamp AND c.clearedHigh < c.lastMessageId)))) " +
+           "ORDER BY c.lastTimestamp DESC")
+    List<Conversation> findVisibleForUser(@Param("userId") String userId);
+
+    /** The pair's summary without locking it, for reads. */
+    @Query("SELECT c FROM Conversation c WHERE c.userLow = :low AND c.userHigh = :high")
+    Optional<Conversation> findPair(@Param("low") String userLow, @Param("high") String userHigh);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Conversation c SET " +
+           "c.archivedLow = CASE WHEN c.userLow = :userId THEN true ELSE c.archivedLow END, " +
+           "c.archivedHigh = CASE WHEN c.userHigh = :userId THEN true ELSE c.archivedHigh END " +
+           "WHERE c.userLow = :low AND c.userHigh = :high")
+    int archiveFor(@Param("low") String userLow, @Param("high") String userHigh, @Param("userId") String userId);
+
+    /**
+     * Hides everything up to the current last message from {@code userId}
+     * and zeroes their unread count; the other participant is untouched.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Conversation c SET " +
+           "c.clearedLow = CASE WHEN c.userLow = :userId THEN c.lastMessageId ELSE c.clearedLow END, " +
+           "c.clearedAtLow = CASE WHEN c.userLow = :userId THEN c.lastTimestamp ELSE c.clearedAtLow END, " +
+           "c.unreadLow = CASE WHEN c.userLow = :userId THEN 0 ELSE c.unreadLow END, " +
+           "c.clearedHigh = CASE WHEN c.userHigh = :userId THEN c.lastMessageId ELSE c.clearedHigh END, " +
+           "c.clearedAtHigh = CASE WHEN c.userHigh = :userId THEN c.lastTimestamp ELSE c.clearedAtHigh END, " +
+           "c.unreadHigh = CASE WHEN c.userHigh = :userId THEN 0 ELSE c.unreadHigh END " +
+           "WHERE c.userLow = :low AND c.userHigh = :high")
+    int clearFor(@Param("low") String userLow, @Param("high") String userHigh, @Param("userId") String userId);
+
+    /**
+     * Conversations where both participants cleared messages that are still
+     * stored, i.e. the purge position is before both clear positions.
+     */
+    @Query("SELECT c FROM Conversation c WHERE c.clearedLow IS NOT NULL AND c.clearedHigh IS NOT NULL " +
+           "AND (c.purgedUpTo IS NULL OR (" +
+           "  (c.purgedUpToAt < c.clearedAtLow OR (c.purgedUpToAt = c.clearedAtLow AND c.purgedUpTo < c.clearedLow)) " +
+           "  AND (c.purgedUpToAt < c.clearedAtHigh OR (c.purgedUpToAt = c.clearedAtHigh AND c.purgedUpTo < c.clearedHigh)))) " +
+           "ORDER BY c.id")
+    List<Conversation> findPurgeable(Pageable pageable);
+
+    /** Conversations with purged messages, in id order, for applying the purge to the archive. */
+    @Query("SELECT c FROM Conversation c WHERE c.purgedUpTo IS NOT NULL AND c.id > :afterId ORDER BY c.id")
+    List<Conversation> findPurgedAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Conversation c SET c.purgedUpToAt = :timestamp, c.purgedUpTo = :id WHERE c.id = :conversationId")
+    void markPurged(@Param("conversationId") Long conversationId,
+                    @Param("timestamp") LocalDateTime timestamp,
+                    @Param("id") Long id);
+}
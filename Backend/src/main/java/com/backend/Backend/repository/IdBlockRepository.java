@@ -0,0 +1,16 @@
+package com.backend.Backend.repository;
+
+import com.backend.Backend.model.IdBlock;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface IdBlockRepository extends JpaRepository<IdBlock, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM IdBlock b WHERE b.name = :name")
+    Optional<IdBlock> lockByName(@Param("name") String name);
+}
@@ -0,0 +1,16 @@
+package com.backend.Backend.repository;
+
+import com.backend.Backend.model.JobLease;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM JobLease l WHERE l.name = :name")
+    Optional<JobLease> lockByName(@Param("name") String name);
+}
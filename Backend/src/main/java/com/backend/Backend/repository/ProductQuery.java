@@ -0,0 +1,18 @@
+package com.backend.Backend.repository;
+
+import com.backend.Backend.dto.KeysetCursor;
+import java.time.LocalDateTime;
+
+/**
+ * Filters and position for a single keyset page of products. Null filters are
+ * ignored; a null cursor starts from the first page.
+ */
+public record ProductQuery(
+        Double minPrice,
+        Double maxPrice,
+        Long ownerId,
+        LocalDateTime createdAfter,
+        ProductSort sort,
+        KeysetCursor cursor,
+        int limit) {
+}
@@ -1,10 +1,80 @@
 package com.backend.Backend.repository;
 
+import com.backend.Backend.config.CacheConfig;
+import com.backend.Backend.dto.ProductView;
 import com.backend.Backend.model.Product;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    List<Product> findByUserId(Long userId);
-}
+/**
+ * Reads for the API go through the {@link ProductView} queries, which select
+ * only the columns a response needs. Single views are cached by id and every
+ * write path through this repository evicts the entry once it has succeeded;
+ * entities are always read fresh for modification.
+ */
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    String VIEW_SELECT = "SELECT new com.backend.Backend.dto.ProductView("
+            + "p.id, p.title, p.description, p.price, p.imageUrl, p.createdAt, u.id, u.name) "
+            + "FROM Product p LEFT JOIN p.user u ";
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, unless = "#result == null")
+    @Query(VIEW_SELECT + "WHERE p.id = :id")
+    Optional<ProductView> findViewById(@Param("id") Long id);
+
+    @Query(VIEW_SELECT + "WHERE u.id = :userId ORDER BY p.id DESC")
+    List<ProductView> findViewsByUserId(@Param("userId") Long userId);
+
+    @Query(VIEW_SELECT + "WHERE p.id IN :ids")
+    List<ProductView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#result.id")
+    <S extends Product> S save(S product);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#p0")
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#result.id")
+    <S extends Product> S saveAndFlush(S product);
 
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true)
+    <S extends Product> List<S> saveAll(Iterable<S> products);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#p0.id")
+    void delete(Product product);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true)
+    void deleteAllById(Iterable<? extends Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true)
+    void deleteAll(Iterable<? extends Product> products);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true)
+    void deleteAll();
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true)
+    void deleteAllInBatch(Iterable<Product> products);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true)
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true)
+    void deleteAllInBatch();
+}
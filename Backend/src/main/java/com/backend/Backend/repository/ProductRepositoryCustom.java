@@ -0,0 +1,14 @@
+package com.backend.Backend.repository;
+
+import com.backend.Backend.dto.ProductPage;
+import com.backend.Backend.dto.ProductView;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Fetches one page using a seek predicate on the sort key instead of an
+     * OFFSET, so deep pages cost the same as the first one. Rows are
+     * projected straight into {@link ProductView}.
+     */
+    ProductPage<ProductView> findPage(ProductQuery query);
+}
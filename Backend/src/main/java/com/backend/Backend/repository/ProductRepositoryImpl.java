@@ -0,0 +1,125 @@
+package com.backend.Backend.repository;
+
+import com.backend.Backend.dto.KeysetCursor;
+import com.backend.Backend.dto.ProductPage;
+import com.backend.Backend.dto.ProductView;
+import com.backend.Backend.model.Product;
+import com.backend.Backend.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public ProductPage<ProductView> findPage(ProductQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductView> cq = cb.createQuery(ProductView.class);
+        Root<Product> product = cq.from(Product.class);
+        Join<Product, User> owner = product.join("user", JoinType.LEFT);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.minPrice() != null) {
+            predicates.add(cb.ge(product.get("price"), query.minPrice()));
+        }
+        if (query.maxPrice() != null) {
+            predicates.add(cb.le(product.get("price"), query.maxPrice()));
+        }
+        if (query.ownerId() != null) {
+            predicates.add(cb.equal(owner.get("id"), query.ownerId()));
+        }
+        if (query.createdAfter() != null) {
+            predicates.add(cb.greaterThan(product.get("createdAt"), query.createdAfter()));
+        }
+        if (query.cursor() != null) {
+            predicates.add(seek(cb, product, query.sort(), query.cursor()));
+        }
+
+        cq.select(cb.construct(ProductView.class,
+                        product.get("id"),
+                        product.get("title"),
+                        product.get("description"),
+                        product.get("price"),
+                        product.get("imageUrl"),
+                        product.get("createdAt"),
+                        owner.get("id"),
+                        owner.get("name")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(ordering(cb, product, query.sort()));
+
+        // One extra row tells us whether another page exists without a COUNT.
+        List<ProductView> rows = entityManager.createQuery(cq)
+                .setMaxResults(query.limit() + 1)
+                .getResultList();
+
+        if (rows.size() <= query.limit()) {
+            return new ProductPage<>(rows, null);
+        }
+        List<ProductView> items = new ArrayList<>(rows.subList(0, query.limit()));
+        ProductView last = items.get(items.size() - 1);
+        return new ProductPage<>(items, cursorFor(last, query.sort()).encode());
+    }
+
+    private static Predicate seek(CriteriaBuilder cb, Root<Product> product, ProductSort sort, KeysetCursor cursor) {
+        Path<Long> id = product.get("id");
+        Path<Double> price = product.get("price");
+        switch (sort) {
+            case OLDEST:
+                return cb.greaterThan(id, cursor.id());
+            case PRICE_ASC: {
+                double value = parsePrice(cursor);
+                return cb.or(cb.greaterThan(price, value),
+                        cb.and(cb.equal(price, value), cb.greaterThan(id, cursor.id())));
+            }
+            case PRICE_DESC: {
+                double value = parsePrice(cursor);
+                return cb.or(cb.lessThan(price, value),
+                        cb.and(cb.equal(price, value), cb.lessThan(id, cursor.id())));
+            }
+            case NEWEST:
+            default:
+                return cb.lessThan(id, cursor.id());
+        }
+    }
+
+    private static List<Order> ordering(CriteriaBuilder cb, Root<Product> product, ProductSort sort) {
+        switch (sort) {
+            case OLDEST:
+                return List.of(cb.asc(product.get("id")));
+            case PRICE_ASC:
+                return List.of(cb.asc(product.get("price")), cb.asc(product.get("id")));
+            case PRICE_DESC:
+                return List.of(cb.desc(product.get("price")), cb.desc(product.get("id")));
+            case NEWEST:
+            default:
+                return List.of(cb.desc(product.get("id")));
+        }
+    }
+
+    private static KeysetCursor cursorFor(ProductView last, ProductSort sort) {
+        if (sort == ProductSort.PRICE_ASC || sort == ProductSort.PRICE_DESC) {
+            return new KeysetCursor(Double.toString(last.price()), last.id());
+        }
+        return new KeysetCursor(null, last.id());
+    }
+
+    private static double parsePrice(KeysetCursor cursor) {
+        try {
+            return Double.parseDouble(cursor.value());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+    }
+}
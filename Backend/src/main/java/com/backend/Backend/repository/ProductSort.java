@@ -0,0 +1,20 @@
+package com.backend.Backend.repository;
+
+/**
+ * Orderings supported by the paginated product listing. Every ordering ends
+ * with the id so the keyset is unique and pages never overlap or skip rows.
+ */
+public enum ProductSort {
+    NEWEST,
+    OLDEST,
+    PRICE_ASC,
+    PRICE_DESC;
+
+    public static ProductSort fromParam(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort: " + value);
+        }
+    }
+}
@@ -4,16 +4,80 @@
  */
 package com.backend.Backend.repository;
 
+import com.backend.Backend.config.CacheConfig;
+import com.backend.Backend.dto.UserView;
 import com.backend.Backend.model.User;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
+ * Profiles for the API are read through {@link #findViewById}, which is
+ * cached by id. The cached value is an immutable {@link UserView}, never a
+ * managed entity, and every save and delete path evicts it. Public and
+ * batch reads go through {@link com.backend.Backend.service.UserDirectory},
+ * which serves them from the same entries.
  *
  * @author Zainab
  */
 public interface UserRepository extends JpaRepository<User, Long> {
      User findByEmail(String email);
-     @Override
-    Optional<User> findById(Long id); 
+
+    @Cacheable(cacheNames = CacheConfig.USERS, unless = "#result == null")
+    @Query("SELECT new com.backend.Backend.dto.UserView(u.id, u.name, u.email, u.phone) FROM User u WHERE u.id = :id")
+    Optional<UserView> findViewById(@Param("id") Long id);
+
+    @Query("SELECT new com.backend.Backend.dto.UserView(u.id, u.name, u.email, u.phone) FROM User u WHERE u.id IN :ids")
+    List<UserView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#result.id")
+    <S extends User> S save(S user);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#result.id")
+    <S extends User> S saveAndFlush(S user);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true)
+    <S extends User> List<S> saveAll(Iterable<S> users);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#p0")
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#p0.id")
+    void delete(User user);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true)
+    void deleteAllById(Iterable<? extends Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true)
+    void deleteAll(Iterable<? extends User> users);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true)
+    void deleteAll();
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true)
+    void deleteAllInBatch(Iterable<User> users);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true)
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true)
+    void deleteAllInBatch();
+
+    List<UserSummary> findAllByOrderByIdAsc();
 }
@@ -0,0 +1,12 @@
+package com.backend.Backend.repository;
+
+/**
+ * Public part of a user profile; selecting through this projection reads
+ * only the two columns and never exposes email, phone or password.
+ */
+public interface UserSummary {
+
+    Long getId();
+
+    String getName();
+}
@@ -0,0 +1,63 @@
+package com.backend.Backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Duration;
+import java.time.Instant;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Remembers tokens that passed the signature and claim checks until they
+ * expire, so a client sending the same token on every request pays for
+ * parsing and the HMAC once. Tokens that fail are not cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Cache<String, Jwt> verified;
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maximumSize) {
+        this.delegate = delegate;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Jwt>() {
+                    @Override
+                    public long expireAfterCreate(String token, Jwt jwt, long currentTime) {
+                        return untilExpiry(jwt).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Jwt jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Jwt jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Jwt jwt = verified.getIfPresent(token);
+        if (jwt == null) {
+            jwt = delegate.decode(token);
+            verified.put(token, jwt);
+        }
+        return jwt;
+    }
+
+    private static Duration untilExpiry(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null) {
+            return Duration.ZERO;
+        }
+        Duration remaining = Duration.between(Instant.now(), expiresAt);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+}
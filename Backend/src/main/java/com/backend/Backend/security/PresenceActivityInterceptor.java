@@ -0,0 +1,31 @@
+package com.backend.Backend.security;
+
+import com.backend.Backend.service.PresenceRegistry;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marks a session as alive on every inbound frame, heart-beats included, so
+ * {@link PresenceRegistry} can expire sessions that went silent.
+ */
+@Component
+public class PresenceActivityInterceptor implements ChannelInterceptor {
+
+    private final PresenceRegistry presenceRegistry;
+
+    public PresenceActivityInterceptor(PresenceRegistry presenceRegistry) {
+        this.presenceRegistry = presenceRegistry;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId != null) {
+            presenceRegistry.touch(sessionId);
+        }
+        return message;
+    }
+}
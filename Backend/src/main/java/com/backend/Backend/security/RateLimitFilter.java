@@ -0,0 +1,99 @@
+package com.backend.Backend.security;
+
+import com.backend.Backend.config.RateLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Rate limits for the product and user endpoints, answered with 429 and
+ * {@code Retry-After}. It runs after Spring Security, so authenticated
+ * requests count against their user and anonymous ones against their IP
+ * (the proxy's, unless {@code server.forward-headers-strategy} is set).
+ * Uploads are refused before their body is read.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final RateLimiter productWrites;
+    private final RateLimiter login;
+    private final RateLimiter listing;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.enabled = properties.enabled();
+        this.productWrites = new RateLimiter("product-writes", properties.productWrites(), properties, meterRegistry);
+        this.login = new RateLimiter("login", properties.login(), properties, meterRegistry);
+        this.listing = new RateLimiter("listing", properties.listing(), properties, meterRegistry);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return limiterFor(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimiter limiter = limiterFor(request);
+        String key = limiter == login ? "ip:" + request.getRemoteAddr() : clientKey(request);
+        long waitNanos = limiter.tryAcquire(key);
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private RateLimiter limiterFor(HttpServletRequest request) {
+        if (!enabled) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        boolean get = "GET".equals(request.getMethod());
+        if (path.equals("/api/users/login") || path.equals("/api/users/register")) {
+            return "POST".equals(request.getMethod()) ? login : null;
+        }
+        if (path.equals("/products") || path.startsWith("/products/")) {
+            if (get) {
+                // Images are cacheable and a grid asks for many at once.
+                return path.startsWith("/products/images/") ? null : listing;
+            }
+            return productWrites;
+        }
+        if (get && (path.equals("/api/users") || path.startsWith("/api/users/"))) {
+            return listing;
+        }
+        return null;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "user:" + principal.getName() : "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Too many requests, retry in " + retryAfterSeconds + "s");
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
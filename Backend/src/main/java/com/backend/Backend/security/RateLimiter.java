@@ -0,0 +1,78 @@
+package com.backend.Backend.security;
+
+import com.backend.Backend.config.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A token bucket per key, kept as the time its bucket is next empty (the
+ * generic cell rate algorithm): a request is let through unless that time
+ * is more than a full burst ahead of now, and each one moves it one refill
+ * interval further. The state is one {@link AtomicLong} per key updated by
+ * compare-and-set, so callers never block each other. Keys live in a
+ * bounded cache and are forgotten once idle, when a new bucket would be
+ * full anyway.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final LongSupplier clock;
+    private final Cache<String, AtomicLong> buckets;
+    private final Counter rejected;
+
+    public RateLimiter(String name, RateLimitProperties.Limit limit, RateLimitProperties properties,
+                       MeterRegistry meterRegistry) {
+        this(name, limit, properties.maxKeys(), properties.idleExpiry(), meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(String name, RateLimitProperties.Limit limit, long maxKeys, Duration idleExpiry,
+                MeterRegistry meterRegistry, LongSupplier clock) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / limit.perSecond()));
+        this.toleranceNanos = intervalNanos * (limit.burst() - 1);
+        this.clock = clock;
+        Duration refill = Duration.ofNanos(toleranceNanos + intervalNanos);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(refill.compareTo(idleExpiry) > 0 ? refill : idleExpiry)
+                .ticker(clock::getAsLong)
+                .build();
+        this.rejected = Counter.builder("rate.limit.rejected")
+                .description("Requests refused by a rate limit")
+                .tag("limit", name)
+                .register(meterRegistry);
+        Gauge.builder("rate.limit.keys", buckets, Cache::estimatedSize)
+                .description("Users or addresses currently tracked by a rate limit")
+                .tag("limit", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one permit for {@code key}.
+     *
+     * @return 0 if the request may go ahead, otherwise how many nanoseconds
+     *         until it would be allowed
+     */
+    public long tryAcquire(String key) {
+        AtomicLong emptyAt = buckets.get(key, k -> new AtomicLong(clock.getAsLong()));
+        while (true) {
+            long now = clock.getAsLong();
+            long current = emptyAt.get();
+            long start = current - now > 0 ? current : now;
+            long wait = start - toleranceNanos - now;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (emptyAt.compareAndSet(current, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
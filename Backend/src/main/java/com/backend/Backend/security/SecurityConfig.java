@@ -1,29 +1,65 @@
 package com.backend.Backend.security;
 
+import com.backend.Backend.config.AuthTokenProperties;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
-import java.util.Arrays;
-
+/**
+ * Stateless authentication: login hands out a signed token and every other
+ * write, and all chat endpoints, require it as {@code Authorization: Bearer}.
+ * Browsing products and profiles stays anonymous. The STOMP endpoints are
+ * open at the HTTP level; their CONNECT frame is checked by
+ * {@link StompPrincipalInterceptor}.
+ */
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
-            .cors().configurationSource(corsConfigurationSource())
-            .and()
-            .authorizeRequests()
-                .anyRequest().permitAll()
-            .and()
-            .csrf().disable(); 
+            .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+            .csrf(AbstractHttpConfigurer::disable)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(requests -> requests
+                .requestMatchers(HttpMethod.POST, "/api/users/register", "/api/users/login", "/api/users/logout").permitAll()
+                .requestMatchers(HttpMethod.GET, "/products", "/products/**", "/api/users", "/api/users/**",
+                        "/api/presence", "/api/presence/**").permitAll()
+                .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                .requestMatchers("/ws/**", "/ws-native/**", "/error").permitAll()
+                .requestMatchers("/actuator/health/**", "/actuator/info").permitAll()
+                .anyRequest().authenticated())
+            .oauth2ResourceServer(resourceServer -> resourceServer.jwt(Customizer.withDefaults()));
 
         return http.build();
     }
@@ -40,4 +76,49 @@ public class SecurityConfig {
         source.registerCorsConfiguration("/**", configuration); 
         return source;
     }
+
+    /**
+     * New passwords are stored as {@code {bcrypt}...}. Rows written before
+     * hashing have no prefix and are compared as plain text until the user
+     * next logs in, when {@code UserController} re-hashes them.
+     */
+    @Bean
+    @SuppressWarnings("deprecation")
+    public PasswordEncoder passwordEncoder() {
+        DelegatingPasswordEncoder encoder =
+                (DelegatingPasswordEncoder) PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        encoder.setDefaultPasswordEncoderForMatches(NoOpPasswordEncoder.getInstance());
+        return encoder;
+    }
+
+    @Bean
+    public SecretKey tokenSigningKey(AuthTokenProperties properties) {
+        byte[] secret;
+        if (properties.secret() == null || properties.secret().isBlank()) {
+            log.warn("auth.token.secret is not set; using a random key, tokens will not survive a restart "
+                    + "or work across nodes");
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        } else {
+            secret = Base64.getDecoder().decode(properties.secret().trim());
+            if (secret.length < 32) {
+                throw new IllegalStateException("auth.token.secret must be at least 32 bytes (base64 encoded)");
+            }
+        }
+        return new SecretKeySpec(secret, "HmacSHA256");
+    }
+
+    @Bean
+    public JwtEncoder jwtEncoder(SecretKey tokenSigningKey) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(tokenSigningKey));
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(SecretKey tokenSigningKey, AuthTokenProperties properties) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(tokenSigningKey)
+                .macAlgorithm(MacAlgorithm.HS256)
+                .build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(properties.issuer()));
+        return new CachingJwtDecoder(decoder, properties.cacheSize());
+    }
 }
@@ -0,0 +1,25 @@
+package com.backend.Backend.security;
+
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * Refusing a client frame from an inbound interceptor. Throwing does not
+ * reach the client: with ordered receiving the exception is only logged.
+ * Instead an ERROR frame is sent on the outbound channel, after which the
+ * session is closed, and the interceptor drops the frame by returning null.
+ */
+final class StompErrors {
+
+    private StompErrors() {
+    }
+
+    static void send(MessageChannel clientOutboundChannel, String sessionId, String message) {
+        StompHeaderAccessor error = StompHeaderAccessor.create(StompCommand.ERROR);
+        error.setMessage(message);
+        error.setSessionId(sessionId);
+        clientOutboundChannel.send(MessageBuilder.createMessage(new byte[0], error.getMessageHeaders()));
+    }
+}
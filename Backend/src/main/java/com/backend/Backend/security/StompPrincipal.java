@@ -0,0 +1,15 @@
+package com.backend.Backend.security;
+
+import java.security.Principal;
+
+/**
+ * Identity bound to a STOMP session at CONNECT. Its name is the user id, which
+ * is what {@code convertAndSendToUser} routes on.
+ */
+public record StompPrincipal(String name) implements Principal {
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
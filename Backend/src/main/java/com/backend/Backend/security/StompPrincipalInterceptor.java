@@ -0,0 +1,63 @@
+package com.backend.Backend.security;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authenticates a STOMP session from the {@code Authorization: Bearer}
+ * header of its CONNECT frame and makes the token's subject the session
+ * principal, so user destinations ({@code /user/queue/...}) reach exactly
+ * that user's sessions.
+ *
+ * <p>A CONNECT without a valid token is refused with an ERROR frame, which
+ * closes the session; see {@link StompErrors}.
+ */
+@Component
+public class StompPrincipalInterceptor implements ChannelInterceptor {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtDecoder jwtDecoder;
+    private final MessageChannel clientOutboundChannel;
+
+    // The outbound channel is created by the configuration this interceptor is registered with, hence @Lazy.
+    public StompPrincipalInterceptor(JwtDecoder jwtDecoder,
+                                     @Lazy @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel) {
+        this.jwtDecoder = jwtDecoder;
+        this.clientOutboundChannel = clientOutboundChannel;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.CONNECT.equals(accessor.getCommand())) {
+            return message;
+        }
+        String authorization = accessor.getFirstNativeHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return reject(accessor, "Missing bearer token");
+        }
+        try {
+            String userId = jwtDecoder.decode(authorization.substring(BEARER_PREFIX.length()).trim()).getSubject();
+            accessor.setUser(new StompPrincipal(userId));
+            return message;
+        } catch (JwtException e) {
+            return reject(accessor, "Invalid bearer token");
+        }
+    }
+
+    private Message<?> reject(StompHeaderAccessor connect, String reason) {
+        StompErrors.send(clientOutboundChannel, connect.getSessionId(), reason);
+        return null;
+    }
+}
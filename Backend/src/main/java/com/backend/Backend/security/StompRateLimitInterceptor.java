@@ -0,0 +1,57 @@
+package com.backend.Backend.security;
+
+import com.backend.Backend.config.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.security.Principal;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits how fast each user can send chat messages. A client over the
+ * limit gets an ERROR frame and is disconnected (see {@link StompErrors}),
+ * before the message reaches the controller, the write-behind queue or
+ * the broker.
+ */
+@Component
+public class StompRateLimitInterceptor implements ChannelInterceptor {
+
+    static final String CHAT_SEND_DESTINATION = "/app/chat.send";
+
+    private final boolean enabled;
+    private final RateLimiter chatSend;
+    private final MessageChannel clientOutboundChannel;
+
+    // The outbound channel is created by the configuration this interceptor is registered with, hence @Lazy.
+    public StompRateLimitInterceptor(RateLimitProperties properties, MeterRegistry meterRegistry,
+                                     @Lazy @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel) {
+        this.enabled = properties.enabled();
+        this.chatSend = new RateLimiter("chat-send", properties.chatSend(), properties, meterRegistry);
+        this.clientOutboundChannel = clientOutboundChannel;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (!enabled) {
+            return message;
+        }
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.SEND.equals(accessor.getCommand())
+                || !CHAT_SEND_DESTINATION.equals(accessor.getDestination())) {
+            return message;
+        }
+        Principal user = accessor.getUser();
+        String key = user != null ? user.getName() : accessor.getSessionId();
+        if (chatSend.tryAcquire(key) > 0) {
+            StompErrors.send(clientOutboundChannel, accessor.getSessionId(), "Too many messages, slow down");
+            return null;
+        }
+        return message;
+    }
+}
@@ -0,0 +1,45 @@
+package com.backend.Backend.security;
+
+import com.backend.Backend.config.AuthTokenProperties;
+import java.time.Instant;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+
+/**
+ * Issues the access tokens clients send as {@code Authorization: Bearer}
+ * on REST calls and in the STOMP CONNECT frame. The subject is the user
+ * id, so verifying a token is enough to know the caller without a lookup.
+ */
+@Service
+public class TokenService {
+
+    private final JwtEncoder jwtEncoder;
+    private final AuthTokenProperties properties;
+
+    public TokenService(JwtEncoder jwtEncoder, AuthTokenProperties properties) {
+        this.jwtEncoder = jwtEncoder;
+        this.properties = properties;
+    }
+
+    public IssuedToken issue(Long userId, String name) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(properties.ttl());
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(properties.issuer())
+                .subject(userId.toString())
+                .issuedAt(now)
+                .expiresAt(expiresAt)
+                .claim("name", name)
+                .build();
+        String value = jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+        return new IssuedToken(value, expiresAt);
+    }
+
+    public record IssuedToken(String value, Instant expiresAt) {
+    }
+}
@@ -8,14 +8,25 @@ package com.backend.Backend.security;
  *
  * @author rahul
  */
+import com.backend.Backend.config.ChatBrokerProperties;
+import com.backend.Backend.config.ChatTransportProperties;
+import com.backend.Backend.config.RelayRoutingHeaderInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.tcp.TcpOperations;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 @Configuration
@@ -23,17 +34,107 @@ import org.springframework.web.socket.handler.TextWebSocketHandler;
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompPrincipalInterceptor stompPrincipalInterceptor;
+    private final StompRateLimitInterceptor stompRateLimitInterceptor;
+    private final PresenceActivityInterceptor presenceActivityInterceptor;
+    private final ChatBrokerProperties brokerProperties;
+    private final ChatTransportProperties transportProperties;
+    private final ObjectProvider<TcpOperations<byte[]>> stompRelayTcpClient;
+    private final TaskScheduler messageBrokerTaskScheduler;
+
+    // The broker scheduler is created by the configuration this class feeds, hence @Lazy.
+    public WebSocketConfig(StompPrincipalInterceptor stompPrincipalInterceptor,
+                           StompRateLimitInterceptor stompRateLimitInterceptor,
+                           PresenceActivityInterceptor presenceActivityInterceptor,
+                           ChatBrokerProperties brokerProperties,
+                           ChatTransportProperties transportProperties,
+                           ObjectProvider<TcpOperations<byte[]>> stompRelayTcpClient,
+                           @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler) {
+        this.stompPrincipalInterceptor = stompPrincipalInterceptor;
+        this.stompRateLimitInterceptor = stompRateLimitInterceptor;
+        this.presenceActivityInterceptor = presenceActivityInterceptor;
+        this.brokerProperties = brokerProperties;
+        this.transportProperties = transportProperties;
+        this.stompRelayTcpClient = stompRelayTcpClient;
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic", "/queue"); 
+        if (brokerProperties.mode() == ChatBrokerProperties.Mode.RELAY) {
+            ChatBrokerProperties.Relay relay = brokerProperties.relay();
+            registry.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relay.host())
+                    .setRelayPort(relay.port())
+                    .setClientLogin(relay.clientLogin())
+                    .setClientPasscode(relay.clientPasscode())
+                    .setSystemLogin(relay.systemLogin())
+                    .setSystemPasscode(relay.systemPasscode())
+                    .setVirtualHost(relay.virtualHost())
+                    .setSystemHeartbeatSendInterval(relay.systemHeartbeatSendInterval().toMillis())
+                    .setSystemHeartbeatReceiveInterval(relay.systemHeartbeatReceiveInterval().toMillis())
+                    .setTcpClient(stompRelayTcpClient.getObject())
+                    // Let every node resolve /user destinations for sessions held by the others.
+                    .setUserDestinationBroadcast("/topic/unresolved-user")
+                    .setUserRegistryBroadcast("/topic/user-registry");
+            registry.configureBrokerChannel().interceptors(new RelayRoutingHeaderInterceptor());
+        } else {
+            ChatTransportProperties.Heartbeat heartbeat = transportProperties.heartbeat();
+            registry.enableSimpleBroker("/topic", "/queue")
+                    .setHeartbeatValue(new long[] {heartbeat.send().toMillis(), heartbeat.receive().toMillis()})
+                    .setTaskScheduler(messageBrokerTaskScheduler);
+        }
         registry.setApplicationDestinationPrefixes("/app"); 
+        registry.setUserDestinationPrefix("/user");
+        // Pooled outbound threads must not reorder messages within one session.
+        registry.setPreservePublishOrder(true);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompPrincipalInterceptor, stompRateLimitInterceptor, presenceActivityInterceptor);
+        configureExecutor(registration, transportProperties.inbound(), "ws-inbound-");
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        configureExecutor(registration, transportProperties.outbound(), "ws-outbound-");
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit((int) transportProperties.sendTimeLimit().toMillis())
+                .setSendBufferSizeLimit((int) transportProperties.sendBufferSizeLimit().toBytes())
+                .setMessageSizeLimit((int) transportProperties.messageSizeLimit().toBytes())
+                .setTimeToFirstMessage((int) transportProperties.timeToFirstMessage().toMillis());
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
+        String[] origins = transportProperties.allowedOrigins().toArray(String[]::new);
+        // Plain WebSocket for clients that have it, without SockJS framing or fallback polling.
+        registry.addEndpoint("/ws-native")
+                .setAllowedOrigins(origins);
         registry.addEndpoint("/ws")
-                .setAllowedOrigins("http://localhost:5173") 
-                .withSockJS(); 
+                .setAllowedOrigins(origins)
+                .withSockJS();
+        registry.setPreserveReceiveOrder(true);
+    }
+
+    private static void configureExecutor(ChannelRegistration registration,
+                                          ChatTransportProperties.Pool pool, String threadNamePrefix) {
+        if (pool.virtualThreads()) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(pool.maxPoolSize());
+            registration.executor(executor);
+        } else {
+            registration.taskExecutor()
+                    .corePoolSize(pool.corePoolSize())
+                    .maxPoolSize(pool.maxPoolSize())
+                    .queueCapacity(pool.queueCapacity())
+                    .keepAliveSeconds((int) pool.keepAlive().toSeconds());
+        }
     }
 }
 
@@ -0,0 +1,66 @@
+package com.backend.Backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Storage for uploaded files, shared by every node: {@link LocalBlobStore}
+ * for a single node or a shared mount, {@link S3BlobStore} for an
+ * S3-compatible bucket. Selected with {@code upload.store.type}.
+ *
+ * Keys are flat file names such as {@code <uuid>.png}; how they are laid out
+ * is up to the store.
+ */
+public interface BlobStore {
+
+    Pattern VALID_KEY = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,199}");
+
+    /**
+     * Stores {@code content} under {@code key}, replacing any previous blob.
+     * The stream is consumed incrementally and never held in memory as a
+     * whole; the blob only becomes visible once it is complete.
+     *
+     * @param length bytes in {@code content}, or -1 when unknown
+     */
+    void put(String key, InputStream content, long length, String contentType) throws IOException;
+
+    Optional<Blob> find(String key) throws IOException;
+
+    /**
+     * Deletes the blobs in the background; missing keys are ignored and
+     * failures are logged. The future completes once the deletes are done.
+     */
+    CompletableFuture<Void> deleteAsync(Collection<String> keys);
+
+    /** Visits every key in the store, e.g. for backfills. */
+    void forEachKey(Consumer<String> action) throws IOException;
+
+    static boolean isValidKey(String key) {
+        return key != null && VALID_KEY.matcher(key).matches() && !key.contains("..");
+    }
+
+    /** A stored blob's metadata and content. */
+    interface Blob {
+
+        long length();
+
+        /** Milliseconds since the epoch. */
+        long lastModified();
+
+        /** The blob as a file on local disk, when the store keeps one, so it can be sent without copying. */
+        Optional<Path> localFile();
+
+        /** Bytes {@code start} to {@code end}, both inclusive. */
+        InputStream open(long start, long end) throws IOException;
+
+        default InputStream open() throws IOException {
+            return open(0, length() - 1);
+        }
+    }
+}
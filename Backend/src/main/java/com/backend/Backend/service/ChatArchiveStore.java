@@ -0,0 +1,466 @@
+package com.backend.Backend.service;
+
+import com.backend.Backend.config.BlobStoreConfig;
+import com.backend.Backend.config.ChatArchiveProperties;
+import com.backend.Backend.model.ChatMessage;
+import com.backend.Backend.model.MessagePosition;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ * Append-only cold storage for archived chat messages.
+ *
+ * Each archive run writes one immutable segment: a {@code .seg} file of
+ * Deflate-compressed blocks, each holding up to
+ * {@code chat.archive.block-size} consecutive messages of one conversation,
+ * and a {@code .idx} file listing every block with its conversation key and
+ * time range. The index files of all segments are held in memory, so a
+ * history read only decompresses the blocks of the conversation it asks for.
+ *
+ * Segments live in the {@link BlobStoreConfig#CHAT_ARCHIVE} blob store,
+ * which every node shares. A segment becomes visible once its index exists:
+ * the data file is stored first, the index last, and each node picks up new
+ * and removed indexes on {@link #refresh()}. A message may be in a segment
+ * and still in {@code chat_message} for a moment (or, after a crash or a
+ * {@linkplain #rewrite rewrite}, in two segments), so readers de-duplicate
+ * by id.
+ */
+@Service
+public class ChatArchiveStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatArchiveStore.class);
+
+    private static final int INDEX_MAGIC = 0x43484958; // "CHIX"
+    private static final int INDEX_VERSION = 1;
+
+    static final Comparator<ChatMessage> CHRONOLOGICAL =
+            Comparator.comparing(ChatMessage::getTimestamp).thenComparing(ChatMessage::getId);
+
+    private final ChatArchiveProperties properties;
+    private final BlobStore blobStore;
+    private final Map<String, List<Block>> blocksByConversation = new ConcurrentHashMap<>();
+    /** The blocks of every loaded segment, by index key, in file order. */
+    private final Map<String, List<Block>> segments = new ConcurrentHashMap<>();
+    private final Map<String, BlobStore.Blob> segmentBlobs = new ConcurrentHashMap<>();
+
+    /** Where one block lives and which messages it holds. */
+    private record Block(String segment, String conversationKey, long offset, int length, int count,
+                         LocalDateTime firstTimestamp, long firstId,
+                         LocalDateTime lastTimestamp, long lastId) {
+
+        boolean startsAfter(LocalDateTime timestamp, long id) {
+            int byTime = firstTimestamp.compareTo(timestamp);
+            return byTime > 0 || (byTime == 0 && firstId >= id);
+        }
+
+        boolean endsBefore(ChatMessage message) {
+            int byTime = lastTimestamp.compareTo(message.getTimestamp());
+            return byTime < 0 || (byTime == 0 && lastId < message.getId());
+        }
+
+        boolean startsUpTo(MessagePosition position) {
+            return !new MessagePosition(firstTimestamp, firstId).isAfter(position);
+        }
+    }
+
+    public ChatArchiveStore(ChatArchiveProperties properties,
+                            @Qualifier(BlobStoreConfig.CHAT_ARCHIVE) BlobStore blobStore) throws IOException {
+        this.properties = properties;
+        this.blobStore = blobStore;
+        log.info("Chat archive: {} segments loaded", refresh());
+    }
+
+    /**
+     * Loads the segments other nodes have added since the last call and
+     * forgets those they have removed.
+     *
+     * @return number of segments loaded now
+     */
+    public synchronized int refresh() throws IOException {
+        Set<String> indexes = new TreeSet<>();
+        blobStore.forEachKey(key -> {
+            if (key.endsWith(".idx")) {
+                indexes.add(key);
+            }
+        });
+        for (String index : indexes) {
+            if (!segments.containsKey(index)) {
+                Optional<BlobStore.Blob> blob = blobStore.find(index);
+                if (blob.isPresent()) {
+                    publish(index, readIndex(index, blob.get()));
+                }
+            }
+        }
+        for (String index : List.copyOf(segments.keySet())) {
+            if (!indexes.contains(index)) {
+                unpublish(index);
+            }
+        }
+        return segments.size();
+    }
+
+    /** Starts a new segment for messages of {@code month}; see {@link SegmentWriter}. */
+    public SegmentWriter create(YearMonth month) throws IOException {
+        String prefix = "chat-" + month + "-";
+        int[] sequence = {0};
+        // Past data files count too, so a new segment never reuses the name of a removed one.
+        blobStore.forEachKey(key -> {
+            if (key.startsWith(prefix)) {
+                String number = key.substring(prefix.length(), key.indexOf('.'));
+                sequence[0] = Math.max(sequence[0], Integer.parseInt(number) + 1);
+            }
+        });
+        return new SegmentWriter(String.format("%s%03d", prefix, sequence[0]));
+    }
+
+    /**
+     * Index keys of the segments holding a block of the conversation that
+     * starts at or before {@code upTo}.
+     */
+    public Set<String> segmentsReaching(String conversationKey, MessagePosition upTo) {
+        Set<String> found = new HashSet<>();
+        for (Block block : blocksByConversation.getOrDefault(conversationKey, List.of())) {
+            if (block.startsUpTo(upTo)) {
+                found.add(indexKey(block.segment()));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Replaces a segment with a new one of the same month holding only the
+     * messages {@code keep} accepts. The old index is removed at once, so no
+     * node loads the segment again; its data file must outlive the reads
+     * other nodes may still make from it, so the caller deletes it later
+     * with {@link #deleteData}.
+     *
+     * @return the data file of the replaced segment
+     */
+    public String rewrite(String index, Predicate<ChatMessage> keep) throws IOException {
+        List<Block> blocks = segments.get(index);
+        if (blocks == null) {
+            throw new IllegalArgumentException("Unknown chat archive segment: " + index);
+        }
+        YearMonth month = YearMonth.parse(index.substring("chat-".length(), "chat-yyyy-MM".length()));
+        try (SegmentWriter writer = create(month)) {
+            for (Block block : blocks) {
+                for (ChatMessage message : read(block)) {
+                    if (keep.test(message)) {
+                        writer.append(message);
+                    }
+                }
+            }
+            if (writer.appended() > 0) {
+                writer.commit();
+            }
+        }
+        blobStore.deleteAsync(List.of(index)).join();
+        unpublish(index);
+        return dataKey(index);
+    }
+
+    /** Deletes data files of replaced segments; see {@link #rewrite}. */
+    public void deleteData(Collection<String> dataKeys) {
+        blobStore.deleteAsync(dataKeys).join();
+    }
+
+    /** Every archived message of the conversation after {@code after}, oldest first. */
+    public List<ChatMessage> findAll(String conversationKey, MessagePosition after) {
+        Map<Long, ChatMessage> byId = new HashMap<>();
+        for (Block block : blocksByConversation.getOrDefault(conversationKey, List.of())) {
+            for (ChatMessage message : read(block)) {
+                if (MessagePosition.of(message).isAfter(after)) {
+                    byId.putIfAbsent(message.getId(), message);
+                }
+            }
+        }
+        List<ChatMessage> messages = new ArrayList<>(byId.values());
+        messages.sort(CHRONOLOGICAL);
+        return messages;
+    }
+
+    /**
+     * Up to {@code limit} archived messages of the conversation after
+     * {@code after} that sort before ({@code timestamp}, {@code id}), newest
+     * first; the newest messages when {@code timestamp} is null. Blocks are
+     * read newest first and reading stops as soon as no older block can
+     * change the result.
+     */
+    public List<ChatMessage> findBefore(String conversationKey, MessagePosition after,
+                                        LocalDateTime timestamp, Long id, int limit) {
+        List<Block> blocks = new ArrayList<>(blocksByConversation.getOrDefault(conversationKey, List.of()));
+        if (blocks.isEmpty()) {
+            return List.of();
+        }
+        blocks.sort(Comparator.comparing(Block::lastTimestamp).thenComparingLong(Block::lastId).reversed());
+        Map<Long, ChatMessage> byId = new LinkedHashMap<>();
+        List<ChatMessage> newestFirst = new ArrayList<>();
+        for (Block block : blocks) {
+            if (timestamp != null && block.startsAfter(timestamp, id)) {
+                continue;
+            }
+            if (newestFirst.size() >= limit && block.endsBefore(newestFirst.get(limit - 1))) {
+                break;
+            }
+            for (ChatMessage message : read(block)) {
+                if (MessagePosition.of(message).isAfter(after) && isBefore(message, timestamp, id)) {
+                    byId.putIfAbsent(message.getId(), message);
+                }
+            }
+            newestFirst = new ArrayList<>(byId.values());
+            newestFirst.sort(CHRONOLOGICAL.reversed());
+        }
+        return newestFirst.size() > limit ? newestFirst.subList(0, limit) : newestFirst;
+    }
+
+    private static boolean isBefore(ChatMessage message, LocalDateTime timestamp, Long id) {
+        if (timestamp == null) {
+            return true;
+        }
+        int byTime = message.getTimestamp().compareTo(timestamp);
+        return byTime < 0 || (byTime == 0 && message.getId() < id);
+    }
+
+    private void publish(String index, List<Block> blocks) {
+        for (Block block : blocks) {
+            blocksByConversation.compute(block.conversationKey(), (key, existing) -> {
+                List<Block> updated = existing != null ? new ArrayList<>(existing) : new ArrayList<>();
+                updated.add(block);
+                return List.copyOf(updated);
+            });
+        }
+        segments.put(index, List.copyOf(blocks));
+    }
+
+    private void unpublish(String index) {
+        List<Block> blocks = segments.remove(index);
+        if (blocks == null) {
+            return;
+        }
+        String segment = dataKey(index);
+        for (Block block : blocks) {
+            blocksByConversation.computeIfPresent(block.conversationKey(), (key, existing) -> {
+                List<Block> updated = existing.stream().filter(b -> !b.segment().equals(segment)).toList();
+                return updated.isEmpty() ? null : updated;
+            });
+        }
+        segmentBlobs.remove(segment);
+    }
+
+    private List<ChatMessage> read(Block block) {
+        try {
+            BlobStore.Blob segment = segmentBlobs.get(block.segment());
+            if (segment == null) {
+                segment = blobStore.find(block.segment())
+                        .orElseThrow(() -> new IOException("Missing chat archive segment " + block.segment()));
+                segmentBlobs.put(block.segment(), segment);
+            }
+            byte[] bytes;
+            try (InputStream in = segment.open(block.offset(), block.offset() + block.length() - 1)) {
+                bytes = in.readNBytes(block.length());
+            }
+            if (bytes.length < block.length()) {
+                throw new EOFException("Truncated chat archive block in " + block.segment());
+            }
+            return decode(block.conversationKey(), bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String indexKey(String segment) {
+        return segment.replaceFirst("\\.seg$", ".idx");
+    }
+
+    private static String dataKey(String index) {
+        return index.replaceFirst("\\.idx$", ".seg");
+    }
+
+    private static byte[] encode(List<ChatMessage> messages) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            out.writeInt(messages.size());
+            for (ChatMessage message : messages) {
+                out.writeLong(message.getId());
+                out.writeLong(Long.parseLong(message.getSenderId()));
+                out.writeLong(Long.parseLong(message.getRecipientId()));
+                writeTimestamp(out, message.getTimestamp());
+                out.writeBoolean(message.getContent() != null);
+                if (message.getContent() != null) {
+                    out.writeUTF(message.getContent());
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<ChatMessage> decode(String conversationKey, byte[] block) throws IOException {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(block)))) {
+            int count = in.readInt();
+            List<ChatMessage> messages = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ChatMessage message = new ChatMessage();
+                message.setId(in.readLong());
+                message.setSenderId(Long.toString(in.readLong()));
+                message.setRecipientId(Long.toString(in.readLong()));
+                message.setTimestamp(readTimestamp(in));
+                message.setContent(in.readBoolean() ? in.readUTF() : null);
+                message.setConversationKey(conversationKey);
+                messages.add(message);
+            }
+            return messages;
+        }
+    }
+
+    private static void writeTimestamp(DataOutputStream out, LocalDateTime timestamp) throws IOException {
+        out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(timestamp.getNano());
+    }
+
+    private static LocalDateTime readTimestamp(DataInputStream in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static List<Block> readIndex(String index, BlobStore.Blob blob) throws IOException {
+        String segment = dataKey(index);
+        try (DataInputStream in = new DataInputStream(blob.open())) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION) {
+                throw new IOException("Not a chat archive index: " + index);
+            }
+            int count = in.readInt();
+            List<Block> blocks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                blocks.add(new Block(segment, in.readUTF(), in.readLong(), in.readInt(), in.readInt(),
+                        readTimestamp(in), in.readLong(), readTimestamp(in), in.readLong()));
+            }
+            return blocks;
+        }
+    }
+
+    private static void writeIndex(OutputStream stream, List<Block> blocks) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(INDEX_MAGIC);
+        out.writeInt(INDEX_VERSION);
+        out.writeInt(blocks.size());
+        for (Block block : blocks) {
+            out.writeUTF(block.conversationKey());
+            out.writeLong(block.offset());
+            out.writeInt(block.length());
+            out.writeInt(block.count());
+            writeTimestamp(out, block.firstTimestamp());
+            out.writeLong(block.firstId());
+            writeTimestamp(out, block.lastTimestamp());
+            out.writeLong(block.lastId());
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes one segment. Messages must be appended grouped by conversation
+     * and oldest first within each; nothing is visible to readers until
+     * {@link #commit()}. Closing without committing discards the segment.
+     */
+    public final class SegmentWriter implements Closeable {
+
+        private final String segment;
+        private final String index;
+        private final Path tempSegment;
+        private final OutputStream out;
+        private final List<Block> blocks = new ArrayList<>();
+        private final List<ChatMessage> pending = new ArrayList<>();
+        private long offset;
+        private int appended;
+
+        private SegmentWriter(String name) throws IOException {
+            this.segment = name + ".seg";
+            this.index = name + ".idx";
+            this.tempSegment = Files.createTempFile("chat-segment-", ".tmp");
+            this.out = new BufferedOutputStream(Files.newOutputStream(tempSegment));
+        }
+
+        public void append(ChatMessage message) throws IOException {
+            if (!pending.isEmpty() && (pending.size() == properties.blockSize()
+                    || !pending.get(0).getConversationKey().equals(message.getConversationKey()))) {
+                writeBlock();
+            }
+            pending.add(message);
+            appended++;
+        }
+
+        public int appended() {
+            return appended;
+        }
+
+        /** Stores the segment and makes it visible to readers. */
+        public void commit() throws IOException {
+            writeBlock();
+            out.close();
+            try (InputStream data = Files.newInputStream(tempSegment)) {
+                blobStore.put(segment, data, Files.size(tempSegment), "application/octet-stream");
+            }
+            ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+            writeIndex(indexBytes, blocks);
+            // The index goes last: a segment without one is ignored by every node.
+            blobStore.put(index, new ByteArrayInputStream(indexBytes.toByteArray()), indexBytes.size(),
+                    "application/octet-stream");
+            publish(index, blocks);
+        }
+
+        private void writeBlock() throws IOException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            byte[] bytes = encode(pending);
+            out.write(bytes);
+            ChatMessage first = pending.get(0);
+            ChatMessage last = pending.get(pending.size() - 1);
+            blocks.add(new Block(segment, first.getConversationKey(), offset, bytes.length, pending.size(),
+                    first.getTimestamp(), first.getId(), last.getTimestamp(), last.getId()));
+            offset += bytes.length;
+            pending.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+            Files.deleteIfExists(tempSegment);
+        }
+    }
+}
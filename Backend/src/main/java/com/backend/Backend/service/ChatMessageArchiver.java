@@ -0,0 +1,243 @@
+package com.backend.Backend.service;
+
+import com.backend.Backend.config.ChatArchiveProperties;
+import com.backend.Backend.model.ChatMessage;
+import com.backend.Backend.model.Conversation;
+import com.backend.Backend.model.MessagePosition;
+import com.backend.Backend.repository.ChatMessageRepository;
+import com.backend.Backend.repository.ConversationRepository;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+/**
+ * Moves whole months of chat messages older than {@code chat.archive.age}
+ * from {@code chat_message} into the {@link ChatArchiveStore}. A month is
+ * read in conversation order, written as one segment, and only deleted from
+ * the table once the segment is durable; a crash in between leaves the rows
+ * in place and the next run archives them again, which readers tolerate.
+ * On MySQL the emptied monthly partitions are then dropped.
+ *
+ * Archived messages up to a conversation's purge position are dropped too,
+ * by rewriting the segments that hold them. Only the node holding the
+ * {@value #LEASE} lease archives; every node refreshes its view of the
+ * store each {@code chat.archive.refresh-interval}, and rows and replaced
+ * segments are only deleted two refresh intervals after the segments that
+ * supersede them were stored.
+ */
+@Service
+public class ChatMessageArchiver implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatMessageArchiver.class);
+
+    static final String LEASE = "chat-archive";
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final ConversationRepository conversationRepository;
+    private final ChatArchiveStore archiveStore;
+    private final ChatMessagePartitions partitions;
+    private final JobLeases leases;
+    private final ChatArchiveProperties properties;
+
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public ChatMessageArchiver(ChatMessageRepository chatMessageRepository,
+                               ConversationRepository conversationRepository,
+                               ChatArchiveStore archiveStore,
+                               ChatMessagePartitions partitions,
+                               JobLeases leases,
+                               ChatArchiveProperties properties) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.conversationRepository = conversationRepository;
+        this.archiveStore = archiveStore;
+        this.partitions = partitions;
+        this.leases = leases;
+        this.properties = properties;
+    }
+
+    /**
+     * Archives every month that has become old enough and drops purged
+     * messages from the archive. Callers must hold the {@value #LEASE} lease.
+     *
+     * @return number of messages moved to the archive
+     */
+    public long archive(LocalDateTime now) throws IOException, InterruptedException {
+        partitions.ensureMonthsUpTo(YearMonth.from(now).plusMonths(properties.monthsAhead()));
+
+        YearMonth firstHotMonth = YearMonth.from(now.minus(properties.age()));
+        LocalDateTime cutoff = firstHotMonth.atDay(1).atStartOfDay();
+        long archived = 0;
+        List<YearMonth> written = new ArrayList<>();
+        Optional<LocalDateTime> oldest = chatMessageRepository.findOldestArchivable(cutoff);
+        if (oldest.isPresent()) {
+            for (YearMonth month = YearMonth.from(oldest.get()); month.isBefore(firstHotMonth);
+                 month = month.plusMonths(1)) {
+                int count = writeSegment(month);
+                if (count > 0) {
+                    archived += count;
+                    written.add(month);
+                }
+            }
+        }
+        List<String> replaced = compact();
+
+        if (!written.isEmpty() || !replaced.isEmpty()) {
+            // Other nodes keep reading the rows and old segments until their next refresh.
+            Thread.sleep(properties.refreshInterval().multipliedBy(2).toMillis());
+        }
+        for (YearMonth month : written) {
+            deleteRows(month);
+        }
+        archiveStore.deleteData(replaced);
+        partitions.dropEmptyBefore(firstHotMonth);
+        return archived;
+    }
+
+    private int writeSegment(YearMonth month) throws IOException {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        PageRequest chunk = PageRequest.of(0, properties.chunkSize());
+
+        try (ChatArchiveStore.SegmentWriter writer = archiveStore.create(month)) {
+            List<ChatMessage> messages = chatMessageRepository.findArchivable(from, to, "", from, -1L, chunk);
+            while (!messages.isEmpty()) {
+                for (ChatMessage message : messages) {
+                    writer.append(message);
+                }
+                ChatMessage last = messages.get(messages.size() - 1);
+                messages = messages.size() < properties.chunkSize()
+                        ? List.of()
+                        : chatMessageRepository.findArchivable(from, to, last.getConversationKey(),
+                                last.getTimestamp(), last.getId(), chunk);
+            }
+            if (writer.appended() > 0) {
+                writer.commit();
+            }
+            return writer.appended();
+        }
+    }
+
+    private void deleteRows(YearMonth month) throws InterruptedException {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        PageRequest chunk = PageRequest.of(0, properties.chunkSize());
+        long deleted = 0;
+        List<Long> ids;
+        do {
+            ids = chatMessageRepository.findArchivableIds(from, to, chunk);
+            if (!ids.isEmpty()) {
+                deleted += chatMessageRepository.deleteByIdIn(ids);
+                Thread.sleep(properties.chunkPause().toMillis());
+            }
+        } while (ids.size() == properties.chunkSize());
+        log.info("Archived chat messages from {} and deleted {} rows", month, deleted);
+    }
+
+    /**
+     * Rewrites the segments holding messages at or before their
+     * conversation's purge position without those messages.
+     *
+     * @return data files of the replaced segments
+     */
+    private List<String> compact() throws IOException {
+        Map<String, MessagePosition> purgedUpTo = new HashMap<>();
+        Set<String> segments = new TreeSet<>();
+        PageRequest page = PageRequest.of(0, properties.chunkSize());
+        long afterId = 0;
+        List<Conversation> conversations;
+        do {
+            conversations = conversationRepository.findPurgedAfter(afterId, page);
+            for (Conversation conversation : conversations) {
+                String key = conversation.pair().key();
+                MessagePosition upTo = MessagePosition.of(conversation.getPurgedUpToAt(), conversation.getPurgedUpTo());
+                Set<String> reaching = archiveStore.segmentsReaching(key, upTo);
+                if (!reaching.isEmpty()) {
+                    purgedUpTo.put(key, upTo);
+                    segments.addAll(reaching);
+                }
+                afterId = conversation.getId();
+            }
+        } while (conversations.size() == properties.chunkSize());
+
+        List<String> replaced = new ArrayList<>();
+        for (String segment : segments) {
+            replaced.add(archiveStore.rewrite(segment, message -> {
+                MessagePosition upTo = purgedUpTo.get(message.getConversationKey());
+                return upTo == null || MessagePosition.of(message).isAfter(upTo);
+            }));
+        }
+        if (!replaced.isEmpty()) {
+            log.info("Dropped purged messages of {} conversations from {} archive segments",
+                    purgedUpTo.size(), replaced.size());
+        }
+        return replaced;
+    }
+
+    private void runOnce() {
+        try {
+            // The lease outlives the pause between runs, so the holder keeps it while it is alive.
+            if (leases.tryAcquire(LEASE, properties.interval().multipliedBy(2))) {
+                archive(LocalDateTime.now());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Chat message archiving failed", e);
+        }
+    }
+
+    private void refresh() {
+        try {
+            archiveStore.refresh();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not refresh the chat archive", e);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        if (!properties.enabled()) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "chat-archive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long refreshInterval = properties.refreshInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::refresh, refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+        long interval = properties.interval().toMillis();
+        executor.scheduleWithFixedDelay(this::runOnce, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
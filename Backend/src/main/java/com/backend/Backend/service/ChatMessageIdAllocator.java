@@ -0,0 +1,88 @@
+package com.backend.Backend.service;
+
+import com.backend.Backend.config.ChatIngestProperties;
+import com.backend.Backend.model.IdBlock;
+import com.backend.Backend.repository.ChatMessageRepository;
+import com.backend.Backend.repository.IdBlockRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Pooled id allocator for {@link com.backend.Backend.model.ChatMessage}.
+ * Ids are known before the row is written, which lets a message be delivered
+ * immediately and inserted later in a JDBC batch (identity columns force
+ * Hibernate to insert one row at a time to learn the key).
+ */
+@Component
+public class ChatMessageIdAllocator {
+
+    static final String SEQUENCE = "chat_message";
+
+    private final IdBlockRepository idBlockRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final TransactionTemplate requiresNew;
+    private final int blockSize;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private long next;
+    private long limit;
+
+    public ChatMessageIdAllocator(IdBlockRepository idBlockRepository,
+                                  ChatMessageRepository chatMessageRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  ChatIngestProperties properties) {
+        this.idBlockRepository = idBlockRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = properties.idBlockSize();
+    }
+
+    public long next() {
+        lock.lock();
+        try {
+            if (next >= limit) {
+                next = reserveBlock();
+                limit = next + blockSize;
+            }
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long reserveBlock() {
+        try {
+            return requiresNew.execute(status -> reserve());
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the sequence row first; its row now exists.
+            return requiresNew.execute(status -> reserve());
+        }
+    }
+
+    private long reserve() {
+        IdBlock block = idBlockRepository.lockByName(SEQUENCE).orElse(null);
+        if (block == null) {
+            block = new IdBlock(SEQUENCE, chatMessageRepository.findMaxId() + 1);
+            long start = block.getNextVal();
+            block.setNextVal(start + blockSize);
+            // persist, not save: a concurrent creator must make this insert fail
+            // rather than have it silently turn into an update of their row.
+            entityManager.persist(block);
+            entityManager.flush();
+            return start;
+        }
+        long start = block.getNextVal();
+        block.setNextVal(start + blockSize);
+        return start;
+    }
+}
@@ -0,0 +1,93 @@
+package com.backend.Backend.service;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Upkeep of the monthly {@code chat_message} partitions created by the
+ * MySQL migration: {@code pYYYYMM} per month, {@code p_old} below them and
+ * {@code p_future} catching everything above. Months are split off
+ * {@code p_future} ahead of time, while it is still empty and the split is
+ * instant, and partitions the archiver has emptied are dropped. On any other
+ * database (H2 in tests) the table is not partitioned and this does nothing.
+ */
+@Component
+public class ChatMessagePartitions {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatMessagePartitions.class);
+
+    private static final Pattern MONTH_PARTITION = Pattern.compile("p\\d{6}");
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean partitioned;
+
+    public ChatMessagePartitions(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public boolean isPartitioned() {
+        if (partitioned == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            partitioned = "MySQL".equalsIgnoreCase(product) && !partitionNames().isEmpty();
+        }
+        return partitioned;
+    }
+
+    /** Makes sure every month up to {@code last} has its own partition. */
+    public void ensureMonthsUpTo(YearMonth last) {
+        if (!isPartitioned()) {
+            return;
+        }
+        YearMonth highest = monthPartitions().stream().max(YearMonth::compareTo).orElse(null);
+        YearMonth next = highest != null ? highest.plusMonths(1) : YearMonth.now();
+        for (YearMonth month = next; !month.isAfter(last); month = month.plusMonths(1)) {
+            jdbcTemplate.execute("ALTER TABLE chat_message REORGANIZE PARTITION p_future INTO ("
+                    + "PARTITION " + month.format(PARTITION_NAME)
+                    + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "'), "
+                    + "PARTITION p_future VALUES LESS THAN (MAXVALUE))");
+            log.info("Added chat_message partition {}", month.format(PARTITION_NAME));
+        }
+    }
+
+    /**
+     * Drops the partitions of months before {@code before} that hold no rows.
+     * Rows the archiver skipped (no conversation key yet) keep theirs alive.
+     */
+    public void dropEmptyBefore(YearMonth before) {
+        if (!isPartitioned()) {
+            return;
+        }
+        for (YearMonth month : monthPartitions()) {
+            String name = month.format(PARTITION_NAME);
+            if (month.isBefore(before)
+                    && jdbcTemplate.queryForList("SELECT id FROM chat_message PARTITION (" + name + ") LIMIT 1",
+                            Long.class).isEmpty()) {
+                jdbcTemplate.execute("ALTER TABLE chat_message DROP PARTITION " + name);
+                log.info("Dropped empty chat_message partition {}", name);
+            }
+        }
+    }
+
+    private List<YearMonth> monthPartitions() {
+        return partitionNames().stream()
+                .filter(name -> MONTH_PARTITION.matcher(name).matches())
+                .map(name -> YearMonth.parse(name, PARTITION_NAME))
+                .toList();
+    }
+
+    private List<String> partitionNames() {
+        return jdbcTemplate.queryForList("SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'chat_message' "
+                + "AND PARTITION_NAME IS NOT NULL", String.class);
+    }
+}
@@ -0,0 +1,131 @@
+package com.backend.Backend.service;
+
+import com.backend.Backend.config.ChatPurgeProperties;
+import com.backend.Backend.model.Conversation;
+import com.backend.Backend.model.MessagePosition;
+import com.backend.Backend.repository.ChatMessageRepository;
+import com.backend.Backend.repository.ConversationRepository;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+/**
+ * Deletes messages once both participants have cleared them. Each chunk of
+ * at most {@code chat.purge.chunk-size} rows is deleted by primary key in
+ * its own transaction, so no statement holds locks on {@code chat_message}
+ * for long however big the conversation was. Only the node holding the
+ * {@value #LEASE} lease purges, so nodes never scan and delete the same
+ * conversations at once.
+ */
+@Service
+public class ChatMessagePurger implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatMessagePurger.class);
+
+    private static final int CONVERSATIONS_PER_RUN = 100;
+
+    static final String LEASE = "chat-purge";
+
+    private final ConversationRepository conversationRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final JobLeases leases;
+    private final ChatPurgeProperties properties;
+
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public ChatMessagePurger(ConversationRepository conversationRepository,
+                             ChatMessageRepository chatMessageRepository,
+                             JobLeases leases,
+                             ChatPurgeProperties properties) {
+        this.conversationRepository = conversationRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.leases = leases;
+        this.properties = properties;
+    }
+
+    /**
+     * Purges what is currently eligible.
+     *
+     * @return number of messages deleted
+     */
+    public long purge() throws InterruptedException {
+        long deleted = 0;
+        List<Conversation> conversations;
+        do {
+            conversations = conversationRepository.findPurgeable(PageRequest.of(0, CONVERSATIONS_PER_RUN));
+            for (Conversation conversation : conversations) {
+                deleted += purge(conversation);
+            }
+        } while (conversations.size() == CONVERSATIONS_PER_RUN && running);
+        return deleted;
+    }
+
+    private long purge(Conversation conversation) throws InterruptedException {
+        MessagePosition upTo = conversation.clearedByBoth();
+        String key = conversation.pair().key();
+        PageRequest chunk = PageRequest.of(0, properties.chunkSize());
+        long deleted = 0;
+        List<Long> ids;
+        do {
+            ids = chatMessageRepository.findIdsUpTo(key, upTo.timestamp(), upTo.id(), chunk);
+            if (!ids.isEmpty()) {
+                deleted += chatMessageRepository.deleteByIdIn(ids);
+                Thread.sleep(properties.chunkPause().toMillis());
+            }
+        } while (ids.size() == properties.chunkSize());
+        conversationRepository.markPurged(conversation.getId(), upTo.timestamp(), upTo.id());
+        return deleted;
+    }
+
+    private void runOnce() {
+        try {
+            if (!leases.tryAcquire(LEASE, properties.interval().multipliedBy(2))) {
+                return;
+            }
+            long deleted = purge();
+            if (deleted > 0) {
+                log.info("Purged {} cleared chat messages", deleted);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Chat message purge failed", e);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        if (!properties.enabled()) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "chat-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.interval().toMillis();
+        executor.scheduleWithFixedDelay(this::runOnce, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,231 @@
+package com.backend.Backend.service;
+
+import com.backend.Backend.config.ChatIngestProperties;
+import com.backend.Backend.dto.ChatSendError;
+import com.backend.Backend.model.ChatMessage;
+import com.backend.Backend.model.ConversationPair;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Component;
+
+/**
+ * Accepts chat messages on the broker's inbound threads and persists them
+ * from a single background writer in batches, so a burst of sends costs a
+ * handful of JDBC round trips instead of one synchronous insert each.
+ *
+ * A message gets its id and timestamp when it is accepted and can be
+ * delivered straight away; it becomes visible to history queries once its
+ * batch commits (at most {@code chat.ingest.max-delay} later under normal
+ * load). When the queue is full, senders block for up to
+ * {@code chat.ingest.offer-timeout} and are then rejected. A batch that
+ * fails is retried message by message; a message that still fails is
+ * dropped and its sender gets a {@link ChatSendError} on
+ * {@code /user/queue/errors}. On shutdown the writer stops accepting and
+ * drains whatever is still queued.
+ */
+@Component
+public class ChatMessageWriteBehind implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatMessageWriteBehind.class);
+
+    public static final String ERROR_DESTINATION = "/queue/errors";
+
+    private final ConversationService conversationService;
+    private final ChatMessageIdAllocator idAllocator;
+    private final ChatIngestProperties properties;
+    private final ObjectProvider<SimpMessageSendingOperations> messagingTemplate;
+    private final BlockingQueue<ChatMessage> queue;
+
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+    private final Counter failedBatches;
+    private final Counter failed;
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private Thread writer;
+
+    public ChatMessageWriteBehind(ConversationService conversationService,
+                                  ChatMessageIdAllocator idAllocator,
+                                  ChatIngestProperties properties,
+                                  ObjectProvider<SimpMessageSendingOperations> messagingTemplate,
+                                  MeterRegistry meterRegistry) {
+        this.conversationService = conversationService;
+        this.idAllocator = idAllocator;
+        this.properties = properties;
+        this.messagingTemplate = messagingTemplate;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+
+        Gauge.builder("chat.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Chat messages accepted but not yet written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("chat.ingest.flush")
+                .description("Time to write one batch of chat messages")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("chat.ingest.batch.size")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("chat.ingest.rejected")
+                .description("Messages refused because the ingest queue stayed full")
+                .register(meterRegistry);
+        this.failedBatches = Counter.builder("chat.ingest.batch.failed")
+                .description("Batches that failed and were retried message by message")
+                .register(meterRegistry);
+        this.failed = Counter.builder("chat.ingest.failed")
+                .description("Messages dropped because they could not be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Assigns the message its id and conversation key and queues it for
+     * writing.
+     *
+     * @throws IllegalStateException if the queue stays full past the offer
+     *                               timeout or the writer is shutting down
+     */
+    public ChatMessage submit(ChatMessage message) {
+        if (!accepting) {
+            throw new IllegalStateException("Chat ingest is not accepting messages");
+        }
+        message.setId(idAllocator.next());
+        message.setConversationKey(ConversationPair.of(message.getSenderId(), message.getRecipientId()).key());
+        try {
+            if (!queue.offer(message, properties.offerTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new IllegalStateException("Chat ingest queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing chat message", e);
+        }
+        return message;
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void runWriter() {
+        List<ChatMessage> batch = new ArrayList<>(properties.batchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                // Treat an interrupt as a shutdown request but still drain.
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Waits for a first message, then keeps adding until the batch is full or
+     * the first message has waited {@code maxDelay}.
+     */
+    private void collect(List<ChatMessage> batch) throws InterruptedException {
+        long maxDelayNanos = properties.maxDelay().toNanos();
+        ChatMessage first = queue.poll(maxDelayNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < properties.batchSize()) {
+            queue.drainTo(batch, properties.batchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.batchSize() || remaining <= 0 || !running) {
+                return;
+            }
+            ChatMessage next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<ChatMessage> batch) {
+        batchSizes.record(batch.size());
+        long start = System.nanoTime();
+        try {
+            conversationService.recordBatch(batch);
+        } catch (RuntimeException e) {
+            failedBatches.increment();
+            log.warn("Batch of {} chat messages failed, retrying individually", batch.size(), e);
+            for (ChatMessage message : batch) {
+                try {
+                    conversationService.recordBatch(List.of(message));
+                } catch (RuntimeException single) {
+                    failed.increment();
+                    log.error("Dropping chat message {} from {} to {} after write failure",
+                            message.getId(), message.getSenderId(), message.getRecipientId(), single);
+                    notifySender(message);
+                }
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void notifySender(ChatMessage message) {
+        try {
+            messagingTemplate.getObject().convertAndSendToUser(message.getSenderId(), ERROR_DESTINATION,
+                    new ChatSendError(message.getId(), "Message could not be stored"));
+        } catch (RuntimeException e) {
+            log.warn("Could not tell {} that chat message {} was dropped", message.getSenderId(), message.getId(), e);
+        }
+    }
+
+    @Override
+    public void start() {
+        accepting = true;
+        running = true;
+        writer = new Thread(this::runWriter, "chat-write-behind");
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        running = false;
+        // No interrupt: the writer wakes within maxDelay, and interrupting an
+        // in-flight JDBC batch would abort it.
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Chat write-behind drained");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the STOMP handlers (which use the default phase) so nothing
+     * new arrives while the queue drains, and before the DataSource closes.
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 1024;
+    }
+}
@@ -0,0 +1,93 @@
+package com.backend.Backend.service;
+
+import com.backend.Backend.model.ChatMessage;
+import com.backend.Backend.model.Conversation;
+import com.backend.Backend.model.ConversationPair;
+import com.backend.Backend.repository.ChatMessageRepository;
+import com.backend.Backend.repository.ConversationRepository;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * One-shot rebuild of {@link Conversation} summaries from existing
+ * {@code chat_message} rows (their {@code conversationKey} is filled in by
+ * the V2 migration). Run once after deploying the summary table with
+ * {@code --chat.conversations.backfill=true}; it is safe to re-run.
+ *
+ * Messages are read in id order one batch at a time, so memory is bounded by
+ * the number of conversations rather than the number of messages.
+ */
+@Component
+@ConditionalOnProperty(name = "chat.conversations.backfill", havingValue = "true")
+public class ConversationBackfillRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ConversationBackfillRunner.class);
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final ConversationRepository conversationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ConversationBackfillRunner(ChatMessageRepository chatMessageRepository,
+                                      ConversationRepository conversationRepository,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${chat.conversations.backfill-batch-size:1000}") int batchSize) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.conversationRepository = conversationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Map<ConversationPair, ChatMessage> latest = new HashMap<>();
+        long lastId = 0;
+        long scanned = 0;
+        List<ChatMessage> batch;
+        do {
+            long from = lastId;
+            batch = transactionTemplate.execute(status -> chatMessageRepository.findByIdGreaterThanOrderByIdAsc(
+                    from, PageRequest.of(0, batchSize)));
+            for (ChatMessage message : batch) {
+                lastId = message.getId();
+                if (message.getSenderId() == null || message.getRecipientId() == null
+                        || message.getSenderId().equals(message.getRecipientId())) {
+                    continue;
+                }
+                latest.merge(ConversationPair.of(message.getSenderId(), message.getRecipientId()), message,
+                        (current, candidate) -> isAfter(candidate, current) ? candidate : current);
+            }
+            scanned += batch.size();
+        } while (batch.size() == batchSize);
+
+        transactionTemplate.executeWithoutResult(status -> latest.forEach((pair, message) -> {
+            Conversation conversation = conversationRepository.findByUserLowAndUserHigh(pair.low(), pair.high())
+                    .orElseGet(() -> new Conversation(pair));
+            conversation.setLastMessage(message.getContent());
+            conversation.setLastSenderId(message.getSenderId());
+            conversation.setLastTimestamp(message.getTimestamp());
+            conversation.setLastMessageId(message.getId());
+            conversation.setArchivedForBoth(message.isArchived());
+            conversationRepository.save(conversation);
+        }));
+
+        log.info("Conversation backfill scanned {} messages and wrote {} summaries", scanned, latest.size());
+    }
+
+    private static boolean isAfter(ChatMessage candidate, ChatMessage current) {
+        if (candidate.getTimestamp() == null || current.getTimestamp() == null) {
+            return candidate.getTimestamp() != null;
+        }
+        return !candidate.getTimestamp().isBefore(current.getTimestamp());
+    }
+}
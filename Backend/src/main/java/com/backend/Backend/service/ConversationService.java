@@ -0,0 +1,307 @@
+package com.backend.Backend.service;
+
+import com.backend.Backend.dto.ChatHistoryPage;
+import com.backend.Backend.dto.ConversationDTO;
+import com.backend.Backend.dto.KeysetCursor;
+import com.backend.Backend.dto.ReadAck;
+import com.backend.Backend.model.ChatMessage;
+import com.backend.Backend.model.Conversation;
+import com.backend.Backend.model.ConversationPair;
+import com.backend.Backend.model.MessagePosition;
+import com.backend.Backend.model.UserIdConverter;
+import com.backend.Backend.repository.ChatMessageRepository;
+import com.backend.Backend.repository.ConversationRepository;
+import com.backend.Backend.repository.UserSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+/**
+ * Writes chat messages together with their {@link Conversation} summary so
+ * the two never drift apart. History reads merge {@code chat_message} with
+ * the months already moved to the {@link ChatArchiveStore}.
+ */
+@Service
+public class ConversationService {
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final ConversationRepository conversationRepository;
+    private final UserDirectory userDirectory;
+    private final ChatMessageIdAllocator idAllocator;
+    private final ChatArchiveStore archiveStore;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ConversationService(ChatMessageRepository chatMessageRepository,
+                               ConversationRepository conversationRepository,
+                               UserDirectory userDirectory,
+                               ChatMessageIdAllocator idAllocator,
+                               ChatArchiveStore archiveStore) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.conversationRepository = conversationRepository;
+        this.userDirectory = userDirectory;
+        this.idAllocator = idAllocator;
+        this.archiveStore = archiveStore;
+    }
+
+    @Transactional
+    public ChatMessage recordMessage(ChatMessage chatMessage) {
+        recordBatch(List.of(chatMessage));
+        return chatMessage;
+    }
+
+    /**
+     * Inserts new messages and folds them into their conversation summaries.
+     * Messages must be in send order; each summary row is locked and written
+     * once per batch however many of its messages the batch contains.
+     */
+    @Transactional
+    public void recordBatch(List<ChatMessage> messages) {
+        Map<ConversationPair, List<ChatMessage>> byConversation = new TreeMap<>(
+                Comparator.comparing(ConversationPair::key));
+        for (ChatMessage message : messages) {
+            if (message.getId() == null) {
+                message.setId(idAllocator.next());
+            }
+            if (!message.getSenderId().equals(message.getRecipientId())) {
+                byConversation.computeIfAbsent(
+                        ConversationPair.of(message.getSenderId(), message.getRecipientId()),
+                        pair -> new ArrayList<>()).add(message);
+            }
+        }
+
+        // Pairs are visited in key order so concurrent writers lock rows in the same order.
+        byConversation.forEach((pair, pending) -> {
+            Conversation conversation = lockOrCreate(pair);
+            for (ChatMessage message : pending) {
+                MessagePosition position = MessagePosition.of(message);
+                // Another node's writer may store an earlier message after this one.
+                MessagePosition last = conversation.lastMessagePosition();
+                if (last == null || position.isAfter(last)) {
+                    conversation.setLastMessage(message.getContent());
+                    conversation.setLastSenderId(message.getSenderId());
+                    conversation.setLastTimestamp(message.getTimestamp());
+                    conversation.setLastMessageId(message.getId());
+                }
+                // Delivery precedes the write, so the recipient may have read past it already.
+                if (!conversation.hasRead(message.getRecipientId(), position)) {
+                    conversation.incrementUnreadFor(message.getRecipientId());
+                }
+            }
+            conversation.setArchivedForBoth(false);
+            conversationRepository.save(conversation);
+        });
+
+        // Ids are assigned, so persist() queues plain INSERTs that Hibernate
+        // sends as one JDBC batch at flush.
+        for (ChatMessage message : messages) {
+            entityManager.persist(message);
+        }
+    }
+
+    @Transactional
+    public void markRead(String userId, String otherUserId) {
+        ConversationPair pair = ConversationPair.of(userId, otherUserId);
+        conversationRepository.findByUserLowAndUserHigh(pair.low(), pair.high())
+                .ifPresent(conversation -> {
+                    MessagePosition last = conversation.lastMessagePosition();
+                    if (last != null) {
+                        conversation.advanceReadCursor(userId, last);
+                    }
+                    conversation.resetUnreadFor(userId);
+                });
+    }
+
+    /**
+     * Moves read cursors forward and recomputes the affected unread counters,
+     * locking each conversation row once. Each reader's cursor moves to the
+     * newest of their acked messages by (timestamp, id). Acks naming a
+     * message of another conversation, or that would move a cursor
+     * backwards, are ignored.
+     */
+    @Transactional
+    public AppliedReadAcks applyReadAcks(Collection<ReadAck> acks) {
+        Map<Long, ChatMessage> messages = chatMessageRepository.findAllById(
+                        acks.stream().map(ReadAck::messageId).distinct().toList()).stream()
+                .collect(Collectors.toMap(ChatMessage::getId, message -> message));
+        // Keyed in the same lock order as recordBatch.
+        Map<ReadAck, ChatMessage> newestPerReader = new TreeMap<>(
+                Comparator.comparing((ReadAck ack) -> ConversationPair.of(ack.userId(), ack.otherUserId()).key())
+                        .thenComparing(ReadAck::userId));
+        List<ReadAck> unknown = new ArrayList<>();
+        for (ReadAck ack : acks) {
+            ChatMessage message = messages.get(ack.messageId());
+            if (message == null) {
+                unknown.add(ack);
+            } else if (ConversationPair.of(ack.userId(), ack.otherUserId()).key().equals(message.getConversationKey())) {
+                newestPerReader.merge(ack, message, (current, candidate) ->
+                        MessagePosition.of(candidate).isAfter(MessagePosition.of(current)) ? candidate : current);
+            }
+        }
+
+        List<ReadAck> advanced = new ArrayList<>();
+        newestPerReader.forEach((ack, message) -> {
+            ConversationPair pair = ConversationPair.of(ack.userId(), ack.otherUserId());
+            MessagePosition read = MessagePosition.of(message);
+            Conversation conversation = conversationRepository.findByUserLowAndUserHigh(pair.low(), pair.high())
+                    .orElse(null);
+            if (conversation == null || !conversation.advanceReadCursor(ack.userId(), read)) {
+                return;
+            }
+            MessagePosition last = conversation.lastMessagePosition();
+            int unread = last == null || !last.isAfter(read)
+                    ? 0
+                    : (int) chatMessageRepository.countUnread(pair.key(), ack.otherUserId(), read.timestamp(), read.id());
+            conversation.setUnreadFor(ack.userId(), unread);
+            advanced.add(new ReadAck(ack.userId(), ack.otherUserId(), message.getId()));
+        });
+        return new AppliedReadAcks(advanced, unknown);
+    }
+
+    /**
+     * Outcome of {@link #applyReadAcks}.
+     *
+     * @param advanced one ack per cursor that moved, naming the message it moved to
+     * @param unknown  acks naming a message that is not stored (yet): the
+     *                 reader may have acked it before its batch was written
+     */
+    public record AppliedReadAcks(List<ReadAck> advanced, List<ReadAck> unknown) {
+    }
+
+    /**
+     * Hides the conversation's current messages from {@code userId} only.
+     * The rows are deleted by {@link ChatMessagePurger} once the other
+     * participant has cleared them too.
+     */
+    @Transactional
+    public void clear(String userId, String otherUserId) {
+        ConversationPair pair = ConversationPair.of(userId, otherUserId);
+        conversationRepository.clearFor(pair.low(), pair.high(), userId);
+    }
+
+    /** Archives the conversation for {@code userId}; a new message unarchives it. */
+    @Transactional
+    public void archive(String userId, String otherUserId) {
+        ConversationPair pair = ConversationPair.of(userId, otherUserId);
+        conversationRepository.archiveFor(pair.low(), pair.high(), userId);
+    }
+
+    /** Every message of the conversation that {@code userId} has not cleared, oldest first. */
+    public List<ChatMessage> findHistory(String userId, String otherUserId) {
+        ConversationPair pair = ConversationPair.of(userId, otherUserId);
+        MessagePosition after = clearedUpTo(pair, userId);
+        List<ChatMessage> hot = chatMessageRepository.findAfter(pair.key(), after.timestamp(), after.id());
+        List<ChatMessage> archived = archiveStore.findAll(pair.key(), after);
+        return archived.isEmpty() ? hot : merge(hot, archived, ChatArchiveStore.CHRONOLOGICAL, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns up to {@code limit} messages older than {@code before}, or the
+     * newest messages when no cursor is given.
+     */
+    public ChatHistoryPage findHistoryPage(String userId, String otherUserId, KeysetCursor before, int limit) {
+        ConversationPair pair = ConversationPair.of(userId, otherUserId);
+        MessagePosition after = clearedUpTo(pair, userId);
+        PageRequest page = PageRequest.of(0, limit + 1);
+        LocalDateTime beforeTimestamp = before != null ? cursorTimestamp(before) : null;
+        List<ChatMessage> newestFirst = before == null
+                ? chatMessageRepository.findLatest(pair.key(), after.timestamp(), after.id(), page)
+                : chatMessageRepository.findBefore(pair.key(), after.timestamp(), after.id(),
+                        beforeTimestamp, before.id(), page);
+        List<ChatMessage> archived = archiveStore.findBefore(pair.key(), after, beforeTimestamp,
+                before != null ? before.id() : null, limit + 1);
+        if (!archived.isEmpty()) {
+            newestFirst = merge(newestFirst, archived, ChatArchiveStore.CHRONOLOGICAL.reversed(), limit + 1);
+        }
+
+        String nextCursor = null;
+        if (newestFirst.size() > limit) {
+            newestFirst = newestFirst.subList(0, limit);
+            ChatMessage oldest = newestFirst.get(limit - 1);
+            nextCursor = new KeysetCursor(oldest.getTimestamp().toString(), oldest.getId()).encode();
+        }
+        List<ChatMessage> messages = new ArrayList<>(newestFirst);
+        Collections.reverse(messages);
+        return new ChatHistoryPage(messages, nextCursor);
+    }
+
+    /** The user's conversation list; partner names come from the user cache, misses in one batch. */
+    public List<ConversationDTO> findConversationsForUser(String userId) {
+        List<Conversation> conversations = conversationRepository.findVisibleForUser(userId);
+        Set<Long> partnerIds = new HashSet<>();
+        for (Conversation conversation : conversations) {
+            partnerIds.add(Long.valueOf(conversation.otherParticipant(userId)));
+        }
+        Map<String, String> partnerNames = new HashMap<>();
+        for (UserSummary partner : userDirectory.findSummaries(partnerIds)) {
+            partnerNames.put(partner.getId().toString(), partner.getName());
+        }
+        return conversations.stream()
+                .map(conversation -> {
+                    String otherUserId = conversation.otherParticipant(userId);
+                    String partnerName = partnerNames.get(otherUserId);
+                    return new ConversationDTO(
+                            otherUserId,
+                            partnerName != null ? partnerName : "User " + otherUserId,
+                            conversation.getLastMessage(),
+                            conversation.getLastTimestamp() != null ? conversation.getLastTimestamp().toString() : null,
+                            conversation.unreadFor(userId),
+                            conversation.isArchivedFor(userId),
+                            conversation.lastReadFor(userId));
+                })
+                .collect(Collectors.toList());
+    }
+
+    /** Both lists in {@code order}, without the messages that are in both, cut to {@code limit}. */
+    private static List<ChatMessage> merge(List<ChatMessage> hot, List<ChatMessage> archived,
+                                           Comparator<ChatMessage> order, int limit) {
+        Map<Long, ChatMessage> byId = new HashMap<>();
+        hot.forEach(message -> byId.put(message.getId(), message));
+        archived.forEach(message -> byId.putIfAbsent(message.getId(), message));
+        return byId.values().stream().sorted(order).limit(limit).collect(Collectors.toList());
+    }
+
+    private static LocalDateTime cursorTimestamp(KeysetCursor cursor) {
+        try {
+            return LocalDateTime.parse(cursor.value());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor is not a chat history cursor");
+        }
+    }
+
+    private MessagePosition clearedUpTo(ConversationPair pair, String userId) {
+        return conversationRepository.findPair(pair.low(), pair.high())
+                .map(conversation -> conversation.clearedPositionFor(userId))
+                .orElse(MessagePosition.START);
+    }
+
+    // The row is created before it is locked, so concurrent first messages of
+    // a pair queue on it rather than both inserting. The existence check is a
+    // plain read: a locking read of a missing row would take a gap lock that
+    // two such writers' inserts deadlock on in MySQL.
+    private Conversation lockOrCreate(ConversationPair pair) {
+        if (!conversationRepository.existsByUserLowAndUserHigh(pair.low(), pair.high())) {
+            UserIdConverter ids = new UserIdConverter();
+            conversationRepository.insertIfAbsent(
+                    ids.convertToDatabaseColumn(pair.low()), ids.convertToDatabaseColumn(pair.high()));
+        }
+        return conversationRepository.findByUserLowAndUserHigh(pair.low(), pair.high())
+                .orElseThrow(() -> new IllegalStateException("Conversation " + pair.key() + " vanished"));
+    }
+}
@@ -0,0 +1,162 @@
+package com.backend.Backend.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Writes a stored {@link BlobStore.Blob} as an HTTP response: conditional
+ * GETs answered with 304, a single byte range answered with 206, and the
+ * body sent without passing through the heap when the blob is a local file.
+ *
+ * On Tomcat's NIO connector a local file goes out via sendfile (the
+ * connector hands the file to the kernel after the request thread returns);
+ * elsewhere it is copied with {@link FileChannel#transferTo}. Blobs without
+ * a local file, e.g. in S3, are streamed from a ranged read. Blobs are
+ * treated as immutable, which holds for uploads because each one gets a
+ * fresh UUID name.
+ */
+@Component
+public class FileResponseWriter {
+
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePublic()
+            .immutable();
+
+    /**
+     * @param filename name the response is served as; decides the content type
+     */
+    public void write(BlobStore.Blob blob, String filename, ServletWebRequest webRequest) throws IOException {
+        write(blob, filename, webRequest, IMMUTABLE);
+    }
+
+    /**
+     * As {@link #write(BlobStore.Blob, String, ServletWebRequest)} with
+     * explicit caching, for responses that may later change under the same URL.
+     */
+    public void write(BlobStore.Blob blob, String filename, ServletWebRequest webRequest, CacheControl cacheControl)
+            throws IOException {
+        HttpServletRequest request = webRequest.getRequest();
+        HttpServletResponse response = webRequest.getResponse();
+
+        long length = blob.length();
+        long lastModified = blob.lastModified();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        MediaType contentType = MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setContentType(contentType.toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = requestedRange(request, etag, lastModified);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                start = length;
+            }
+            if (start >= length) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+
+        if (HttpMethod.HEAD.matches(request.getMethod()) || count <= 0) {
+            return;
+        }
+        Path file = blob.localFile().orElse(null);
+        if (file == null) {
+            try (InputStream in = blob.open(start, end)) {
+                in.transferTo(response.getOutputStream());
+            }
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    /**
+     * The single range to send, or null for the whole file. Multiple ranges
+     * and a stale {@code If-Range} fall back to a full response, which the
+     * spec allows.
+     */
+    private static HttpRange requestedRange(HttpServletRequest request, String etag, long lastModified) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                return null;
+            }
+            try {
+                long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+                if (lastModified / 1000 > date / 1000) {
+                    return null;
+                }
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return ranges.size() == 1 ? ranges.get(0) : null;
+    }
+}
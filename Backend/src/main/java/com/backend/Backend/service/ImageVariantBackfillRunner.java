@@ -0,0 +1,58 @@
+package com.backend.Backend.service;
+
+import com.backend.Backend.model.ImageVariant;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-shot generation of missing {@link ImageVariant} blobs for images
+ * already in the {@link BlobStore}. Run with
+ * {@code --upload.images.backfill=true}; images that already have their
+ * variants are skipped, so it is safe to re-run.
+ */
+@Component
+@ConditionalOnProperty(name = "upload.images.backfill", havingValue = "true")
+public class ImageVariantBackfillRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantBackfillRunner.class);
+
+    private final ImageVariantService imageVariantService;
+    private final BlobStore blobStore;
+
+    public ImageVariantBackfillRunner(ImageVariantService imageVariantService, BlobStore blobStore) {
+        this.imageVariantService = imageVariantService;
+        this.blobStore = blobStore;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        List<String> originals = new ArrayList<>();
+        blobStore.forEachKey(key -> {
+            if (!ImageVariant.isVariantFile(key)) {
+                originals.add(key);
+            }
+        });
+        int generated = 0;
+        int skipped = 0;
+        for (String original : originals) {
+            try {
+                if (imageVariantService.generate(original)) {
+                    generated++;
+                } else {
+                    skipped++;
+                }
+            } catch (IOException | RuntimeException e) {
+                skipped++;
+                log.warn("Image backfill failed for {}", original, e);
+            }
+        }
+        log.info("Image backfill processed {} images and skipped {} files", generated, skipped);
+    }
+}
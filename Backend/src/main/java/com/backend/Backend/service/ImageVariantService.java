@@ -0,0 +1,330 @@
+package com.backend.Backend.service;
+
+import com.backend.Backend.config.ImageVariantProperties;
+import com.backend.Backend.model.ImageVariant;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.Node;
+
+/**
+ * Generates the {@link ImageVariant} copies of uploaded images on a small
+ * bounded pool, so an upload request returns as soon as the original is
+ * stored. Each variant is re-encoded as JPEG, without the original's
+ * EXIF/GPS metadata, and stored in the same {@link BlobStore} under
+ * {@link ImageVariant#filenameFor} of the original's key.
+ *
+ * When the pool is saturated the upload is skipped rather than blocking the
+ * request; its image is served from the original until the backfill runner
+ * ({@code --upload.images.backfill=true}) catches up.
+ */
+@Service
+public class ImageVariantService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+
+    // Decoding is refused above this many pixels to bound memory per worker.
+    private static final long MAX_SOURCE_PIXELS = 100_000_000L;
+
+    private static final String JPEG_METADATA = "javax_imageio_jpeg_image_1.0";
+    private static final int APP1 = 0xE1;
+    private static final int EXIF_ORIENTATION = 0x0112;
+    private static final byte[] EXIF_HEADER = "Exif\0\0".getBytes(StandardCharsets.ISO_8859_1);
+
+    private final ImageVariantProperties properties;
+    private final BlobStore blobStore;
+    private final ThreadPoolExecutor executor;
+
+    public ImageVariantService(ImageVariantProperties properties, BlobStore blobStore) {
+        this.properties = properties;
+        this.blobStore = blobStore;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.workers(), properties.workers(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(properties.queueCapacity()),
+                task -> {
+                    Thread thread = new Thread(task, "image-variants-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, pool) -> log.warn("Image variant queue full, leaving resize to the backfill"));
+    }
+
+    /** Queues variant generation for the blob {@code key} and returns immediately. */
+    public void submit(String key) {
+        executor.execute(() -> {
+            try {
+                generate(key);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not generate variants for {}", key, e);
+            }
+        });
+    }
+
+    /**
+     * Stores every variant of the blob {@code key} that does not exist yet.
+     *
+     * @return false when there is no such blob or it is not an image ImageIO can decode
+     */
+    public boolean generate(String key) throws IOException {
+        Optional<BlobStore.Blob> original = blobStore.find(key);
+        if (original.isEmpty()) {
+            return false;
+        }
+        BufferedImage source = read(key, original.get());
+        if (source == null) {
+            return false;
+        }
+        for (ImageVariant variant : ImageVariant.values()) {
+            String variantKey = variantKey(key, variant);
+            if (blobStore.find(variantKey).isEmpty()) {
+                write(scale(source, maxEdge(variant)), variantKey);
+            }
+        }
+        return true;
+    }
+
+    public String variantKey(String key, ImageVariant variant) {
+        return variant.filenameFor(key);
+    }
+
+    /** The blob and all its variant keys, for deleting an image completely. */
+    public List<String> keysWithVariants(String key) {
+        List<String> keys = new ArrayList<>();
+        keys.add(key);
+        for (ImageVariant variant : ImageVariant.values()) {
+            keys.add(variantKey(key, variant));
+        }
+        return keys;
+    }
+
+    private int maxEdge(ImageVariant variant) {
+        return switch (variant) {
+            case THUMB -> properties.thumbWidth();
+            case MEDIUM -> properties.mediumWidth();
+        };
+    }
+
+    /**
+     * Decodes the image, subsampling at read time when it is far larger than
+     * the biggest variant so a 48MP photo never materialises at full size,
+     * and turns it upright according to its EXIF orientation: variants carry
+     * no metadata, so the rotation has to be in the pixels.
+     */
+    private BufferedImage read(String key, BlobStore.Blob blob) throws IOException {
+        Optional<Path> file = blob.localFile();
+        try (InputStream content = file.isPresent() ? null : blob.open();
+             ImageInputStream input = ImageIO.createImageInputStream(
+                     file.isPresent() ? file.get().toFile() : content)) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, false);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    log.warn("Skipping {}: {}x{} exceeds the decode limit", key, width, height);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / (2 * properties.mediumWidth()));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage image = reader.read(0, param);
+                return orient(image, orientation(key, reader));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static int orientation(String key, ImageReader reader) {
+        try {
+            return exifOrientation(reader.getImageMetadata(0));
+        } catch (IOException e) {
+            // The pixels decoded; only the markers are out of order or malformed.
+            log.debug("Ignoring unreadable metadata of {}", key, e);
+            return 1;
+        }
+    }
+
+    /** The EXIF orientation (1-8) of a JPEG's metadata; 1 (upright) when there is none. */
+    private static int exifOrientation(IIOMetadata metadata) {
+        if (metadata == null || !JPEG_METADATA.equals(metadata.getNativeMetadataFormatName())) {
+            return 1;
+        }
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(JPEG_METADATA);
+        Node markers = root.getElementsByTagName("markerSequence").item(0);
+        for (Node marker = markers != null ? markers.getFirstChild() : null; marker != null;
+             marker = marker.getNextSibling()) {
+            if (marker instanceof IIOMetadataNode unknown && "unknown".equals(unknown.getNodeName())
+                    && String.valueOf(APP1).equals(unknown.getAttribute("MarkerTag"))
+                    && unknown.getUserObject() instanceof byte[] data) {
+                int orientation = exifOrientation(data);
+                if (orientation != 0) {
+                    return orientation;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /** Reads tag 0x0112 from IFD0 of an APP1 Exif segment; 0 when it is not there. */
+    private static int exifOrientation(byte[] app1) {
+        int start = EXIF_HEADER.length;
+        if (app1.length < start + 8 || !Arrays.equals(app1, 0, start, EXIF_HEADER, 0, start)) {
+            return 0;
+        }
+        // Offsets in the TIFF structure are relative to its byte-order mark.
+        ByteBuffer tiff = ByteBuffer.wrap(app1, start, app1.length - start).slice();
+        tiff.order(tiff.getShort(0) == 0x4949 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        try {
+            int ifd = tiff.getInt(4);
+            int entries = tiff.getShort(ifd) & 0xFFFF;
+            for (int i = 0; i < entries; i++) {
+                int entry = ifd + 2 + i * 12;
+                if ((tiff.getShort(entry) & 0xFFFF) == EXIF_ORIENTATION) {
+                    int orientation = tiff.getShort(entry + 8) & 0xFFFF;
+                    return orientation >= 1 && orientation <= 8 ? orientation : 0;
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // Truncated or corrupt Exif: treat as upright.
+        }
+        return 0;
+    }
+
+    /** Applies an EXIF orientation so the image is upright; 1 returns it unchanged. */
+    static BufferedImage orient(BufferedImage image, int orientation) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        // Maps a stored pixel (x, y) to its upright position.
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);  // mirrored
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h); // upside down
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);  // mirrored vertically
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);   // transposed
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);  // needs a quarter turn clockwise
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w); // transversed
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);  // needs a quarter turn anticlockwise
+            default -> null;
+        };
+        if (transform == null) {
+            return image;
+        }
+        boolean turned = orientation >= 5;
+        BufferedImage upright = new BufferedImage(turned ? h : w, turned ? w : h,
+                image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = upright.createGraphics();
+        try {
+            g.drawImage(image, transform, null);
+        } finally {
+            g.dispose();
+        }
+        return upright;
+    }
+
+    /**
+     * Fits the image inside {@code maxEdge} x {@code maxEdge}, halving in
+     * bilinear steps so large reductions don't alias. Never upscales.
+     */
+    static BufferedImage scale(BufferedImage source, int maxEdge) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage current = source;
+        int w = width;
+        int h = height;
+        do {
+            w = Math.max(targetWidth, w / 2);
+            h = Math.max(targetHeight, h / 2);
+            current = draw(current, w, h);
+        } while (w != targetWidth || h != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        // JPEG has no alpha; flatten onto white instead of letting transparent pixels turn black.
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private void write(BufferedImage image, String key) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(properties.quality());
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+
+        // Encode to a temp file first so the store gets a known length and never a partial image.
+        Path temp = Files.createTempFile("variant-", ".jpg");
+        try {
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            try (InputStream in = Files.newInputStream(temp)) {
+                blobStore.put(key, in, Files.size(temp), "image/jpeg");
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,69 @@
+package com.backend.Backend.service;
+
+import com.backend.Backend.model.JobLease;
+import com.backend.Backend.repository.JobLeaseRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps a background job to one node at a time. A node runs the job only
+ * while it holds the job's {@link JobLease}, renewing it on every run; if the
+ * holder dies, another node takes over once the lease has expired. Expiry is
+ * compared against each node's own clock, so leases should be long next to
+ * the clock skew between nodes.
+ */
+@Component
+public class JobLeases {
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final TransactionTemplate requiresNew;
+    private final String owner = UUID.randomUUID().toString();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public JobLeases(JobLeaseRepository jobLeaseRepository, PlatformTransactionManager transactionManager) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Takes or renews the lease on {@code name} for {@code duration}.
+     *
+     * @return whether this node now holds the lease
+     */
+    public boolean tryAcquire(String name, Duration duration) {
+        try {
+            return requiresNew.execute(status -> acquire(name, duration));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the lease row first; its row now exists.
+            return requiresNew.execute(status -> acquire(name, duration));
+        }
+    }
+
+    private boolean acquire(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        JobLease lease = jobLeaseRepository.lockByName(name).orElse(null);
+        if (lease == null) {
+            // persist, not save: a concurrent creator must make this insert fail.
+            entityManager.persist(new JobLease(name, owner, now.plus(duration)));
+            entityManager.flush();
+            return true;
+        }
+        if (!lease.getOwner().equals(owner) && lease.getExpiresAt().isAfter(now)) {
+            return false;
+        }
+        lease.setOwner(owner);
+        lease.setExpiresAt(now.plus(duration));
+        return true;
+    }
+}
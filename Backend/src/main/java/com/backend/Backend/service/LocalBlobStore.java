@@ -0,0 +1,166 @@
+package com.backend.Backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link BlobStore} on a local or mounted directory. Blobs are spread over
+ * two levels of 256 sub-directories picked by a hash of the key
+ * ({@code ab/cd/<key>}), so no directory grows large enough to slow down
+ * lookups. Files uploaded before sharding, directly under the root, are
+ * still found and deleted.
+ */
+public class LocalBlobStore implements BlobStore {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalBlobStore.class);
+
+    private final Path root;
+    private final Executor deleteExecutor;
+
+    public LocalBlobStore(Path root, Executor deleteExecutor) {
+        this.root = root.toAbsolutePath().normalize();
+        this.deleteExecutor = deleteExecutor;
+    }
+
+    @Override
+    public void put(String key, InputStream content, long length, String contentType) throws IOException {
+        Path target = shardedPath(key);
+        Files.createDirectories(target.getParent());
+        // Copy beside the target and move into place so a reader never sees half a file.
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<Blob> find(String key) throws IOException {
+        Path file = existingPath(key);
+        if (file == null) {
+            return Optional.empty();
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return Optional.of(new FileBlob(file, attributes.size(), attributes.lastModifiedTime().toMillis()));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAsync(Collection<String> keys) {
+        List<String> pending = List.copyOf(keys);
+        return CompletableFuture.runAsync(() -> {
+            for (String key : pending) {
+                try {
+                    if (BlobStore.isValidKey(key)) {
+                        Files.deleteIfExists(shardedPath(key));
+                        Files.deleteIfExists(root.resolve(key));
+                    }
+                } catch (IOException e) {
+                    log.warn("Could not delete blob {}", key, e);
+                }
+            }
+        }, deleteExecutor);
+    }
+
+    @Override
+    public void forEachKey(Consumer<String> action) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(root, 3)) {
+            files.filter(Files::isRegularFile)
+                    .map(file -> file.getFileName().toString())
+                    .filter(BlobStore::isValidKey)
+                    .forEach(action);
+        }
+    }
+
+    Path shardedPath(String key) {
+        if (!BlobStore.isValidKey(key)) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(key.getBytes(StandardCharsets.UTF_8));
+        String hash = String.format("%08x", crc.getValue());
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(key);
+    }
+
+    private Path existingPath(String key) {
+        if (!BlobStore.isValidKey(key)) {
+            return null;
+        }
+        Path sharded = shardedPath(key);
+        if (Files.isRegularFile(sharded)) {
+            return sharded;
+        }
+        Path legacy = root.resolve(key);
+        return Files.isRegularFile(legacy) ? legacy : null;
+    }
+
+    private record FileBlob(Path file, long length, long lastModified) implements Blob {
+
+        @Override
+        public Optional<Path> localFile() {
+            return Optional.of(file);
+        }
+
+        @Override
+        public InputStream open(long start, long end) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            channel.position(start);
+            InputStream in = Channels.newInputStream(channel);
+            long count = Math.max(0, end - start + 1);
+            return new InputStream() {
+                private long remaining = count;
+
+                @Override
+                public int read() throws IOException {
+                    if (remaining <= 0) {
+                        return -1;
+                    }
+                    int b = in.read();
+                    if (b >= 0) {
+                        remaining--;
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    if (remaining <= 0) {
+                        return -1;
+                    }
+                    int read = in.read(buffer, offset, (int) Math.min(length, remaining));
+                    if (read > 0) {
+                        remaining -= read;
+                    }
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    in.close();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.backend.Backend.service;
+
+import com.backend.Backend.config.PresenceProperties;
+import com.backend.Backend.dto.PresenceDelta;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+/**
+ * Which users have an open STOMP session on this node.
+ *
+ * Sessions are kept in {@link ConcurrentHashMap}s keyed by session and by
+ * user; updates to one user's session set lock only that user's bin, so
+ * connects and disconnects of different users never contend. Changes are
+ * not published one by one: affected users are marked dirty and a periodic
+ * flush sends a single {@link PresenceDelta} with only the users whose
+ * status actually flipped since the last one.
+ *
+ * Sessions whose client sends heart-beats are also dropped once they have
+ * been silent for {@code chat.presence.expiry}, covering disconnects that
+ * never produced an event. The session stays known until its disconnect
+ * event, so if it was only briefly silent its next frame brings the user
+ * back online. With the broker relay each node only knows its own sessions.
+ */
+@Service
+public class PresenceRegistry implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PresenceRegistry.class);
+
+    static final String PRESENCE_DESTINATION = "/topic/presence";
+
+    private final PresenceProperties properties;
+    private final ObjectProvider<SimpMessageSendingOperations> messagingTemplate;
+    private final TaskScheduler scheduler;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+    // Expired sessions whose disconnect event has not arrived yet.
+    private final Map<String, Session> expired = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    // Only touched by flush(), which never runs concurrently with itself.
+    private final Set<String> publishedOnline = new HashSet<>();
+
+    private final List<ScheduledFuture<?>> tasks = new ArrayList<>();
+    private volatile boolean running;
+
+    private static final class Session {
+        final String userId;
+        final boolean heartbeating;
+        volatile long lastSeen;
+
+        Session(String userId, boolean heartbeating, long lastSeen) {
+            this.userId = userId;
+            this.heartbeating = heartbeating;
+            this.lastSeen = lastSeen;
+        }
+    }
+
+    // The broker scheduler and template come from the WebSocket configuration, which needs this bean first.
+    public PresenceRegistry(PresenceProperties properties,
+                            ObjectProvider<SimpMessageSendingOperations> messagingTemplate,
+                            @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler scheduler,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.messagingTemplate = messagingTemplate;
+        this.scheduler = scheduler;
+
+        Gauge.builder("chat.presence.users", sessionsByUser, Map::size)
+                .description("Users with at least one open STOMP session")
+                .register(meterRegistry);
+        Gauge.builder("chat.presence.sessions", sessions, Map::size)
+                .description("Open STOMP sessions with a user")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Principal user = event.getUser();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (user == null || sessionId == null) {
+            return;
+        }
+        connect(sessionId, user.getName(), sendsHeartbeats(event.getMessage()));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        disconnect(event.getSessionId());
+    }
+
+    void connect(String sessionId, String userId, boolean heartbeating) {
+        sessions.put(sessionId, new Session(userId, heartbeating, System.currentTimeMillis()));
+        sessionsByUser.compute(userId, (id, userSessions) -> {
+            Set<String> updated = userSessions != null ? userSessions : ConcurrentHashMap.newKeySet();
+            updated.add(sessionId);
+            return updated;
+        });
+        dirty.add(userId);
+    }
+
+    void disconnect(String sessionId) {
+        expired.remove(sessionId);
+        remove(sessionId);
+    }
+
+    private Session remove(String sessionId) {
+        Session session = sessions.remove(sessionId);
+        if (session == null) {
+            return null;
+        }
+        sessionsByUser.computeIfPresent(session.userId, (id, userSessions) -> {
+            userSessions.remove(sessionId);
+            return userSessions.isEmpty() ? null : userSessions;
+        });
+        dirty.add(session.userId);
+        return session;
+    }
+
+    /**
+     * Records activity on a session; called for every inbound frame. A
+     * frame on an expired session that is still open puts it back.
+     */
+    public void touch(String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session != null) {
+            session.lastSeen = System.currentTimeMillis();
+            return;
+        }
+        Session resumed = expired.remove(sessionId);
+        if (resumed != null) {
+            connect(sessionId, resumed.userId, resumed.heartbeating);
+        }
+    }
+
+    public boolean isOnline(String userId) {
+        return sessionsByUser.containsKey(userId);
+    }
+
+    /** The subset of {@code userIds} that is online, in request order. */
+    public List<String> onlineAmong(Collection<String> userIds) {
+        return userIds.stream().filter(this::isOnline).distinct().toList();
+    }
+
+    /** Publishes one delta for everything that changed since the previous flush. */
+    void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<String> online = new ArrayList<>();
+        List<String> offline = new ArrayList<>();
+        for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+            String userId = it.next();
+            it.remove();
+            if (isOnline(userId)) {
+                if (publishedOnline.add(userId)) {
+                    online.add(userId);
+                }
+            } else if (publishedOnline.remove(userId)) {
+                offline.add(userId);
+            }
+        }
+        if (!online.isEmpty() || !offline.isEmpty()) {
+            messagingTemplate.getObject().convertAndSend(PRESENCE_DESTINATION, new PresenceDelta(online, offline));
+        }
+    }
+
+    /** Drops heart-beating sessions that have been silent longer than the expiry. */
+    void expireIdle(long now) {
+        long cutoff = now - properties.expiry().toMillis();
+        int count = 0;
+        for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+            Session session = entry.getValue();
+            if (session.heartbeating && session.lastSeen < cutoff) {
+                // Parked before removal, so a disconnect event racing with this always clears it.
+                expired.put(entry.getKey(), session);
+                if (remove(entry.getKey()) == null) {
+                    expired.remove(entry.getKey());
+                }
+                count++;
+            }
+        }
+        if (count > 0) {
+            log.info("Expired {} silent STOMP sessions", count);
+        }
+    }
+
+    private static boolean sendsHeartbeats(Message<?> connectAck) {
+        Object connect = connectAck.getHeaders().get(SimpMessageHeaderAccessor.CONNECT_MESSAGE_HEADER);
+        if (!(connect instanceof Message<?> connectMessage)) {
+            return false;
+        }
+        long[] heartbeat = SimpMessageHeaderAccessor.getHeartbeat(connectMessage.getHeaders());
+        return heartbeat != null && heartbeat[0] > 0;
+    }
+
+    private void run(Runnable task, String name) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.warn("Presence {} failed", name, e);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        tasks.add(scheduler.scheduleWithFixedDelay(() -> run(this::flush, "flush"), properties.flushInterval()));
+        tasks.add(scheduler.scheduleWithFixedDelay(
+                () -> run(() -> expireIdle(System.currentTimeMillis()), "sweep"), properties.sweepInterval()));
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        tasks.forEach(task -> task.cancel(false));
+        tasks.clear();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,253 @@
+package com.backend.Backend.service;
+
+import com.backend.Backend.config.ProductSearchProperties;
+import com.backend.Backend.dto.KeysetCursor;
+import com.backend.Backend.dto.ProductPage;
+import com.backend.Backend.dto.ProductView;
+import com.backend.Backend.repository.ProductQuery;
+import com.backend.Backend.repository.ProductRepository;
+import com.backend.Backend.repository.ProductSort;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Full-text search over product titles and descriptions, backed by an
+ * in-memory Lucene index ranked with BM25 (Lucene's default similarity).
+ *
+ * The index is rebuilt from the database once the application is ready and
+ * kept current by {@link #index} and {@link #remove} from the write paths.
+ * Hits are resolved against the database by id, so a product deleted while
+ * a rebuild was reading it never shows up in results.
+ */
+@Service
+public class ProductSearchService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchService.class);
+
+    static final String ID = "id";
+    static final String TITLE = "title";
+    static final String DESCRIPTION = "description";
+    // Unstemmed copy of title and description for typeahead prefix matching.
+    static final String PREFIX = "prefix";
+    static final String PRICE = "price";
+
+    private final ProductSearchProperties properties;
+    private final ProductRepository productRepository;
+    private final Analyzer analyzer;
+    private final QueryBuilder queryBuilder;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public ProductSearchService(ProductSearchProperties properties, ProductRepository productRepository)
+            throws IOException {
+        this.properties = properties;
+        this.productRepository = productRepository;
+        this.analyzer = new PerFieldAnalyzerWrapper(new EnglishAnalyzer(), Map.of(PREFIX, new StandardAnalyzer()));
+        this.queryBuilder = new QueryBuilder(analyzer);
+        this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    /** Replaces the index contents with every product in the database. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() throws IOException {
+        long started = System.nanoTime();
+        writer.deleteAll();
+        int indexed = 0;
+        KeysetCursor cursor = null;
+        do {
+            ProductPage<ProductView> page = productRepository.findPage(new ProductQuery(
+                    null, null, null, null, ProductSort.OLDEST, cursor, properties.rebuildBatchSize()));
+            for (ProductView product : page.items()) {
+                // update rather than add: a concurrent index() may already have written it
+                writer.updateDocument(new Term(ID, product.id().toString()), document(product));
+            }
+            indexed += page.items().size();
+            cursor = page.nextCursor() != null ? KeysetCursor.decode(page.nextCursor()) : null;
+        } while (cursor != null);
+        searcherManager.maybeRefreshBlocking();
+        log.info("Product search index rebuilt with {} products in {} ms",
+                indexed, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Adds or replaces one product. Failures are logged rather than thrown so
+     * a write that already committed is not reported as failed; the next
+     * rebuild picks the product up.
+     */
+    public void index(ProductView product) {
+        try {
+            writer.updateDocument(new Term(ID, product.id().toString()), document(product));
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            log.warn("Could not index product {}", product.id(), e);
+        }
+    }
+
+    public void remove(Long productId) {
+        try {
+            writer.deleteDocuments(new Term(ID, productId.toString()));
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            log.warn("Could not remove product {} from the search index", productId, e);
+        }
+    }
+
+    /**
+     * Products matching every word of {@code text}, best first. The last word
+     * also matches as a prefix unless the text ends with a space, so results
+     * can be shown while the user is still typing.
+     */
+    public List<ProductView> search(String text, Double minPrice, Double maxPrice, int limit) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        for (Document hit : topDocuments(text, minPrice, maxPrice, Math.min(limit, properties.maxResults()))) {
+            ids.add(Long.valueOf(hit.get(ID)));
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductView> byId = productRepository.findViewsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductView::id, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    /** Distinct titles of the best matches for a partially typed query. */
+    public List<String> suggest(String text, int limit) throws IOException {
+        int capped = Math.min(limit, properties.maxResults());
+        Set<String> titles = new LinkedHashSet<>();
+        for (Document hit : topDocuments(text, null, null, capped * 2)) {
+            titles.add(hit.get(TITLE));
+            if (titles.size() == capped) {
+                break;
+            }
+        }
+        return List.copyOf(titles);
+    }
+
+    private List<Document> topDocuments(String text, Double minPrice, Double maxPrice, int limit) throws IOException {
+        Query query = buildQuery(text, minPrice, maxPrice);
+        if (query == null || limit <= 0) {
+            return List.of();
+        }
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            StoredFields storedFields = searcher.storedFields();
+            List<Document> documents = new ArrayList<>();
+            for (ScoreDoc scoreDoc : searcher.search(query, limit).scoreDocs) {
+                documents.add(storedFields.document(scoreDoc.doc, Set.of(ID, TITLE)));
+            }
+            return documents;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /** Null when the text has no searchable words, e.g. only stop words or punctuation. */
+    private Query buildQuery(String text, Double minPrice, Double maxPrice) throws IOException {
+        List<String> words = words(text);
+        boolean typing = !text.isEmpty() && !Character.isWhitespace(text.charAt(text.length() - 1));
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        int required = 0;
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            BooleanQuery.Builder alternatives = new BooleanQuery.Builder();
+            Query title = queryBuilder.createBooleanQuery(TITLE, word);
+            if (title != null) {
+                alternatives.add(new BoostQuery(title, properties.titleBoost()), BooleanClause.Occur.SHOULD);
+            }
+            Query description = queryBuilder.createBooleanQuery(DESCRIPTION, word);
+            if (description != null) {
+                alternatives.add(description, BooleanClause.Occur.SHOULD);
+            }
+            if (typing && i == words.size() - 1) {
+                alternatives.add(new PrefixQuery(new Term(PREFIX, word)), BooleanClause.Occur.SHOULD);
+            }
+            BooleanQuery clause = alternatives.build();
+            if (!clause.clauses().isEmpty()) {
+                query.add(clause, BooleanClause.Occur.MUST);
+                required++;
+            }
+        }
+        if (required == 0) {
+            return null;
+        }
+        if (minPrice != null || maxPrice != null) {
+            query.add(DoublePoint.newRangeQuery(PRICE,
+                    minPrice != null ? minPrice : Double.NEGATIVE_INFINITY,
+                    maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY), BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    /** Lower-cased words as the unstemmed prefix field sees them. */
+    private List<String> words(String text) throws IOException {
+        List<String> words = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(PREFIX, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                words.add(term.toString());
+            }
+            stream.end();
+        }
+        return words;
+    }
+
+    private static Document document(ProductView product) {
+        String title = Objects.toString(product.title(), "");
+        String description = Objects.toString(product.description(), "");
+        Document document = new Document();
+        document.add(new StringField(ID, product.id().toString(), Field.Store.YES));
+        document.add(new TextField(TITLE, title, Field.Store.YES));
+        document.add(new TextField(DESCRIPTION, description, Field.Store.NO));
+        document.add(new TextField(PREFIX, title + " " + description, Field.Store.NO));
+        document.add(new DoublePoint(PRICE, product.price()));
+        return document;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        writer.close();
+        analyzer.close();
+    }
+}
@@ -0,0 +1,133 @@
+package com.backend.Backend.service;
+
+import com.backend.Backend.config.ReadReceiptProperties;
+import com.backend.Backend.dto.ReadAck;
+import com.backend.Backend.dto.ReadReceipt;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Collects read acknowledgements and writes them once per debounce window.
+ * A client acks every message as it is displayed; only the newest acked
+ * message per reader and conversation matters, so a burst of acks costs one
+ * cursor update instead of one write each. Which one is newest is decided
+ * when the messages are looked up, since ids do not follow send order
+ * across nodes. After the write the other participant gets a
+ * {@link ReadReceipt} on {@code /user/queue/read-receipts}.
+ *
+ * An ack can overtake its message's write-behind batch; acks for messages
+ * not stored yet are retried in the next window, once. Pending acks are
+ * flushed on shutdown; a failed flush drops them, and the client's next ack
+ * or history fetch moves the cursor again.
+ */
+@Service
+public class ReadReceiptCoalescer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReceiptCoalescer.class);
+
+    static final String RECEIPT_DESTINATION = "/queue/read-receipts";
+
+    // A client acks what it displays, so a window rarely holds more than a
+    // few ids per conversation; beyond this the oldest submitted are dropped.
+    static final int MAX_ACKS_PER_CONVERSATION = 32;
+
+    private final ConversationService conversationService;
+    private final ReadReceiptProperties properties;
+    private final ObjectProvider<SimpMessageSendingOperations> messagingTemplate;
+    private final TaskScheduler scheduler;
+
+    private final Map<Key, Set<Long>> pending = new ConcurrentHashMap<>();
+    // Acks whose message was not stored at the previous flush; only touched by flush().
+    private List<ReadAck> retry = List.of();
+
+    private ScheduledFuture<?> task;
+    private volatile boolean running;
+
+    private record Key(String userId, String otherUserId) {
+    }
+
+    public ReadReceiptCoalescer(ConversationService conversationService,
+                                ReadReceiptProperties properties,
+                                ObjectProvider<SimpMessageSendingOperations> messagingTemplate,
+                                @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler scheduler) {
+        this.conversationService = conversationService;
+        this.properties = properties;
+        this.messagingTemplate = messagingTemplate;
+        this.scheduler = scheduler;
+    }
+
+    public void submit(ReadAck ack) {
+        pending.compute(new Key(ack.userId(), ack.otherUserId()), (key, messageIds) -> {
+            Set<Long> ids = messageIds != null ? messageIds : new LinkedHashSet<>();
+            if (ids.size() >= MAX_ACKS_PER_CONVERSATION) {
+                ids.remove(ids.iterator().next());
+            }
+            ids.add(ack.messageId());
+            return ids;
+        });
+    }
+
+    /** Writes everything acked since the previous flush. */
+    synchronized void flush() {
+        if (pending.isEmpty() && retry.isEmpty()) {
+            return;
+        }
+        List<ReadAck> batch = new ArrayList<>(retry);
+        for (Key key : pending.keySet()) {
+            Set<Long> messageIds = pending.remove(key);
+            if (messageIds != null) {
+                messageIds.forEach(id -> batch.add(new ReadAck(key.userId(), key.otherUserId(), id)));
+            }
+        }
+        List<ReadAck> retried = retry;
+        retry = List.of();
+        ConversationService.AppliedReadAcks applied;
+        try {
+            applied = conversationService.applyReadAcks(batch);
+        } catch (RuntimeException e) {
+            log.warn("Could not store {} read acks", batch.size(), e);
+            return;
+        }
+        retry = applied.unknown().stream().filter(ack -> !retried.contains(ack)).toList();
+        SimpMessageSendingOperations template = messagingTemplate.getObject();
+        for (ReadAck ack : applied.advanced()) {
+            template.convertAndSendToUser(ack.otherUserId(), RECEIPT_DESTINATION,
+                    new ReadReceipt(ack.userId(), ack.messageId()));
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        task = scheduler.scheduleWithFixedDelay(this::flush, properties.debounce());
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+        flush();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,210 @@
+package com.backend.Backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * {@link BlobStore} on an S3-compatible bucket (AWS S3, MinIO, ...).
+ *
+ * Uploads that fit in one part are streamed with a single PUT. Larger or
+ * unknown-length uploads use the multipart API, holding at most one part
+ * ({@code upload.store.s3.part-size}) in memory at a time; a failed upload
+ * is aborted so no orphaned parts stay billable. Reads are ranged GETs.
+ */
+public class S3BlobStore implements BlobStore {
+
+    private static final Logger log = LoggerFactory.getLogger(S3BlobStore.class);
+
+    // DeleteObjects accepts at most this many keys per request.
+    private static final int MAX_DELETE_BATCH = 1000;
+
+    private final S3Client s3;
+    private final String bucket;
+    private final String prefix;
+    private final int partSize;
+    private final Executor deleteExecutor;
+
+    public S3BlobStore(S3Client s3, String bucket, String prefix, int partSize, Executor deleteExecutor) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.prefix = prefix;
+        this.partSize = partSize;
+        this.deleteExecutor = deleteExecutor;
+    }
+
+    @Override
+    public void put(String key, InputStream content, long length, String contentType) throws IOException {
+        requireValid(key);
+        try {
+            if (length >= 0 && length <= partSize) {
+                s3.putObject(request -> request.bucket(bucket).key(objectKey(key)).contentType(contentType),
+                        RequestBody.fromInputStream(content, length));
+            } else {
+                putMultipart(objectKey(key), content, contentType);
+            }
+        } catch (SdkException e) {
+            throw new IOException("Could not upload " + key, e);
+        }
+    }
+
+    private void putMultipart(String objectKey, InputStream content, String contentType) throws IOException {
+        String uploadId = s3.createMultipartUpload(request -> request.bucket(bucket).key(objectKey)
+                .contentType(contentType)).uploadId();
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            byte[] buffer = new byte[partSize];
+            int filled;
+            while ((filled = content.readNBytes(buffer, 0, partSize)) > 0 || parts.isEmpty()) {
+                int partNumber = parts.size() + 1;
+                String etag = s3.uploadPart(request -> request.bucket(bucket).key(objectKey)
+                                .uploadId(uploadId).partNumber(partNumber),
+                        RequestBody.fromBytes(filled == partSize ? buffer : Arrays.copyOf(buffer, filled)))
+                        .eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(etag).build());
+                if (filled < partSize) {
+                    break;
+                }
+            }
+            s3.completeMultipartUpload(request -> request.bucket(bucket).key(objectKey).uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build()));
+        } catch (IOException | RuntimeException e) {
+            try {
+                s3.abortMultipartUpload(request -> request.bucket(bucket).key(objectKey).uploadId(uploadId));
+            } catch (SdkException abortFailure) {
+                e.addSuppressed(abortFailure);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<Blob> find(String key) throws IOException {
+        if (!BlobStore.isValidKey(key)) {
+            return Optional.empty();
+        }
+        try {
+            HeadObjectResponse head = s3.headObject(request -> request.bucket(bucket).key(objectKey(key)));
+            return Optional.of(new ObjectBlob(objectKey(key), head.contentLength(),
+                    head.lastModified() != null ? head.lastModified().toEpochMilli() : 0));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw new IOException("Could not look up " + key, e);
+        } catch (SdkException e) {
+            throw new IOException("Could not look up " + key, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAsync(Collection<String> keys) {
+        List<ObjectIdentifier> objects = keys.stream()
+                .filter(BlobStore::isValidKey)
+                .map(key -> ObjectIdentifier.builder().key(objectKey(key)).build())
+                .toList();
+        return CompletableFuture.runAsync(() -> {
+            for (int from = 0; from < objects.size(); from += MAX_DELETE_BATCH) {
+                List<ObjectIdentifier> batch = objects.subList(from, Math.min(objects.size(), from + MAX_DELETE_BATCH));
+                try {
+                    DeleteObjectsResponse response = s3.deleteObjects(request -> request.bucket(bucket)
+                            .delete(Delete.builder().objects(batch).quiet(true).build()));
+                    response.errors().forEach(error ->
+                            log.warn("Could not delete blob {}: {}", error.key(), error.message()));
+                } catch (SdkException e) {
+                    log.warn("Could not delete {} blobs", batch.size(), e);
+                }
+            }
+        }, deleteExecutor);
+    }
+
+    @Override
+    public void forEachKey(Consumer<String> action) throws IOException {
+        try {
+            for (S3Object object : s3.listObjectsV2Paginator(request -> request.bucket(bucket).prefix(prefix))
+                    .contents()) {
+                String key = object.key().substring(prefix.length());
+                if (BlobStore.isValidKey(key)) {
+                    action.accept(key);
+                }
+            }
+        } catch (SdkException e) {
+            throw new IOException("Could not list bucket " + bucket, e);
+        }
+    }
+
+    private String objectKey(String key) {
+        return prefix + key;
+    }
+
+    private static void requireValid(String key) {
+        if (!BlobStore.isValidKey(key)) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+    }
+
+    private final class ObjectBlob implements Blob {
+
+        private final String objectKey;
+        private final long length;
+        private final long lastModified;
+
+        ObjectBlob(String objectKey, long length, long lastModified) {
+            this.objectKey = objectKey;
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public long length() {
+            return length;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public Optional<Path> localFile() {
+            return Optional.empty();
+        }
+
+        @Override
+        public InputStream open(long start, long end) throws IOException {
+            if (end < start) {
+                return InputStream.nullInputStream();
+            }
+            try {
+                return s3.getObject(request -> request.bucket(bucket).key(objectKey)
+                        .range("bytes=" + start + "-" + end));
+            } catch (SdkException e) {
+                throw new IOException("Could not read " + objectKey, e);
+            }
+        }
+    }
+}
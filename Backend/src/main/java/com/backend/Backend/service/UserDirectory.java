@@ -0,0 +1,73 @@
+package com.backend.Backend.service;
+
+import com.backend.Backend.config.CacheConfig;
+import com.backend.Backend.dto.UserView;
+import com.backend.Backend.repository.UserRepository;
+import com.backend.Backend.repository.UserSummary;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cached user lookups. Every read is served from the {@link UserView}
+ * entries that {@link UserRepository#findViewById} caches; callers that may
+ * only see the public part get the {@link UserSummary} of the entry.
+ */
+@Service
+public class UserDirectory {
+
+    private final UserRepository userRepository;
+    private final Cache users;
+
+    public UserDirectory(UserRepository userRepository, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.users = cacheManager.getCache(CacheConfig.USERS);
+    }
+
+    /** The full profile, for the user themself. */
+    public Optional<UserView> findProfile(Long id) {
+        return userRepository.findViewById(id);
+    }
+
+    public Optional<UserSummary> findSummary(Long id) {
+        return findProfile(id).map(UserView::summary);
+    }
+
+    public boolean exists(Long id) {
+        return findProfile(id).isPresent();
+    }
+
+    /**
+     * Summaries of the users among {@code ids}, in id order; unknown ids are
+     * left out. Cached users are not read again, and the rest are read in
+     * one query and cached.
+     */
+    public List<UserSummary> findSummaries(Collection<Long> ids) {
+        Map<Long, UserView> found = new TreeMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            UserView cached = users != null ? users.get(id, UserView.class) : null;
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (UserView view : userRepository.findViewsByIdIn(missing)) {
+                if (users != null) {
+                    users.putIfAbsent(view.id(), view);
+                }
+                found.put(view.id(), view);
+            }
+        }
+        return found.values().stream().map(UserView::summary).toList();
+    }
+}
@@ -0,0 +1,34 @@
+-- Schema as Hibernate auto-DDL created it before migrations were introduced.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate)
+-- and only run the migrations that follow, so nothing added since belongs here.
+
+CREATE TABLE user (
+    id       BIGINT       NOT NULL AUTO_INCREMENT,
+    name     VARCHAR(255) NOT NULL,
+    email    VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    phone    VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_user_email UNIQUE (email)
+);
+
+CREATE TABLE product (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    title       VARCHAR(255),
+    description VARCHAR(255),
+    price       DOUBLE       NOT NULL,
+    image_url   VARCHAR(255),
+    user_id     BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_product_user FOREIGN KEY (user_id) REFERENCES user (id)
+);
+
+CREATE TABLE chat_message (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    sender_id    VARCHAR(255),
+    recipient_id VARCHAR(255),
+    content      VARCHAR(255),
+    timestamp    DATETIME(6),
+    archived     BIT          NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,61 @@
+-- Keyset-paginated product listing: newest first or by price, id as tie-breaker.
+ALTER TABLE product ADD COLUMN created_at DATETIME(6);
+CREATE INDEX idx_product_price_id ON product (price, id);
+CREATE INDEX idx_product_created_at ON product (created_at);
+
+-- Message ids now come from the id_block allocator so messages can be
+-- inserted in JDBC batches; it starts above the highest existing id.
+ALTER TABLE chat_message MODIFY id BIGINT NOT NULL;
+
+CREATE TABLE id_block (
+    name     VARCHAR(255) NOT NULL,
+    next_val BIGINT       NOT NULL,
+    PRIMARY KEY (name)
+);
+
+-- History is paged per conversation by (timestamp, id).
+ALTER TABLE chat_message ADD COLUMN conversation_key VARCHAR(64);
+
+-- Key existing messages like ConversationPair.key(): the smaller id first.
+-- Ids are unsigned decimal strings, so a shorter one is the smaller number.
+UPDATE chat_message
+SET conversation_key = CASE
+        WHEN LENGTH(sender_id) < LENGTH(recipient_id)
+            OR (LENGTH(sender_id) = LENGTH(recipient_id) AND sender_id <= recipient_id)
+        THEN CONCAT(sender_id, ':', recipient_id)
+        ELSE CONCAT(recipient_id, ':', sender_id)
+    END
+WHERE conversation_key IS NULL AND sender_id IS NOT NULL AND recipient_id IS NOT NULL;
+
+CREATE INDEX idx_chat_message_conversation ON chat_message (conversation_key, timestamp, id);
+
+-- One summary row per pair of users, maintained on every write. Existing
+-- conversations are summarised by ConversationBackfillRunner.
+CREATE TABLE conversation (
+    id                BIGINT       NOT NULL AUTO_INCREMENT,
+    user_low          VARCHAR(255),
+    user_high         VARCHAR(255),
+    last_message      VARCHAR(255),
+    last_sender_id    VARCHAR(255),
+    last_timestamp    DATETIME(6),
+    last_message_id   BIGINT,
+    unread_low        INT          NOT NULL,
+    unread_high       INT          NOT NULL,
+    last_read_low     BIGINT,
+    last_read_at_low  DATETIME(6),
+    last_read_high    BIGINT,
+    last_read_at_high DATETIME(6),
+    archived_low      BIT          NOT NULL,
+    archived_high     BIT          NOT NULL,
+    cleared_low       BIGINT,
+    cleared_at_low    DATETIME(6),
+    cleared_high      BIGINT,
+    cleared_at_high   DATETIME(6),
+    purged_up_to      BIGINT,
+    purged_up_to_at   DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_conversation_pair UNIQUE (user_low, user_high)
+);
+
+CREATE INDEX idx_conversation_low_ts ON conversation (user_low, last_timestamp);
+CREATE INDEX idx_conversation_high_ts ON conversation (user_high, last_timestamp);
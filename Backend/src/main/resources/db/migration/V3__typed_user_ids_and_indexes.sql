@@ -0,0 +1,22 @@
+-- User ids in chat tables become BIGINT like user.id. Rows holding a
+-- non-numeric id make this migration fail; there should be none, since
+-- every id written so far came from user.id or a session principal.
+ALTER TABLE chat_message MODIFY sender_id BIGINT NOT NULL;
+ALTER TABLE chat_message MODIFY recipient_id BIGINT NOT NULL;
+ALTER TABLE chat_message MODIFY content VARCHAR(2000);
+
+ALTER TABLE conversation MODIFY user_low BIGINT NOT NULL;
+ALTER TABLE conversation MODIFY user_high BIGINT NOT NULL;
+ALTER TABLE conversation MODIFY last_sender_id BIGINT;
+ALTER TABLE conversation MODIFY last_message VARCHAR(2000);
+
+-- Only widened: narrowing a live column fails, or truncates, on existing rows.
+ALTER TABLE product MODIFY description VARCHAR(2000);
+
+-- Per-user lookups that do not go through conversation_key: the legacy
+-- sender/recipient queries and anything listing a user's inbox.
+CREATE INDEX idx_chat_message_sender_recipient_ts ON chat_message (sender_id, recipient_id, timestamp);
+CREATE INDEX idx_chat_message_recipient_ts ON chat_message (recipient_id, timestamp);
+
+-- A seller's listings, newest first; also covers the product -> user foreign key.
+CREATE INDEX idx_product_user_id ON product (user_id, id);
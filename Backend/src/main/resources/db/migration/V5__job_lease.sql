@@ -0,0 +1,8 @@
+-- Background jobs that must run on one node at a time hold a lease here;
+-- another node takes the job over once the holder stops renewing it.
+CREATE TABLE job_lease (
+    name       VARCHAR(255) NOT NULL,
+    owner      VARCHAR(64)  NOT NULL,
+    expires_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (name)
+);
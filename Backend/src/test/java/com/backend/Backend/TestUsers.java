@@ -0,0 +1,26 @@
+package com.backend.Backend;
+
+import com.backend.Backend.model.User;
+import java.util.UUID;
+
+/**
+ * Unsaved {@link User}s for tests. Each gets its own email address, so
+ * tests sharing a database never collide on it.
+ */
+public final class TestUsers {
+
+    private TestUsers() {}
+
+    public static User user(String name) {
+        return user(name, "secret");
+    }
+
+    public static User user(String name, String password) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "-" + UUID.randomUUID() + "@northeastern.edu");
+        user.setPassword(password);
+        user.setPhone("555-0100");
+        return user;
+    }
+}
@@ -0,0 +1,47 @@
+package com.backend.Backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The {@code virtual-threads} profile moves async work and the STOMP
+ * channels onto virtual threads and turns the pinning monitor on.
+ */
+@SpringBootTest
+@ActiveProfiles("virtual-threads")
+class VirtualThreadModeTest {
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    @Qualifier("clientInboundChannel")
+    private ExecutorSubscribableChannel clientInboundChannel;
+
+    @Autowired
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @Test
+    void runsAsyncAndChannelWorkOnVirtualThreads() throws Exception {
+        assertTrue(onVirtualThread(applicationTaskExecutor::execute));
+        assertTrue(onVirtualThread(clientInboundChannel.getExecutor()::execute));
+        assertTrue(pinningMonitor.isRunning());
+    }
+
+    private static boolean onVirtualThread(Executor executor) throws Exception {
+        CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+        executor.execute(() -> virtual.complete(Thread.currentThread().isVirtual()));
+        return virtual.get(5, TimeUnit.SECONDS);
+    }
+}
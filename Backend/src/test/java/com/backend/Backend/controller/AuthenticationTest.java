@@ -0,0 +1,154 @@
+package com.backend.Backend.controller;
+
+import static com.backend.Backend.TestUsers.user;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.backend.Backend.model.Product;
+import com.backend.Backend.model.User;
+import com.backend.Backend.repository.ProductRepository;
+import com.backend.Backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Login issues a bearer token, passwords are stored hashed, and the token
+ * decides whose chats and products a request may touch.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthenticationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void registrationRefusesFieldsLongerThanTheirColumns() throws Exception {
+        mockMvc.perform(post("/api/users/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "name", "A".repeat(User.MAX_FIELD_LENGTH + 1),
+                                "email", "long-" + UUID.randomUUID() + "@northeastern.edu",
+                                "password", "correct horse", "phone", "555-0100"))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void registeredUsersGetATokenThatOnlyActsForThem() throws Exception {
+        String email = "auth-" + UUID.randomUUID() + "@northeastern.edu";
+        mockMvc.perform(post("/api/users/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "name", "Ada", "email", email, "password", "correct horse", "phone", "555-0100"))))
+                .andExpect(status().isCreated());
+        User stored = userRepository.findByEmail(email);
+        assertTrue(stored.getPassword().startsWith("{bcrypt}"));
+
+        mockMvc.perform(post("/api/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("email", email, "password", "wrong"))))
+                .andExpect(status().isUnauthorized());
+        String token = login(email, "correct horse");
+
+        String self = stored.getId().toString();
+        mockMvc.perform(get("/api/chat/conversations/" + self))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/chat/conversations/" + self).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/chat/conversations/" + self).header(HttpHeaders.AUTHORIZATION, "Bearer " + token + "x"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/chat/conversations/" + (stored.getId() + 1))
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/chat/history")
+                        .param("userId", String.valueOf(stored.getId() + 1))
+                        .param("otherUserId", self)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void plainTextPasswordsStillLogInAndAreRehashed() throws Exception {
+        User legacy = userRepository.save(user("legacy", "hunter2"));
+        mockMvc.perform(post("/api/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("email", legacy.getEmail(), "password", "hunter2"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user.id").value(legacy.getId()));
+
+        assertTrue(userRepository.findByEmail(legacy.getEmail()).getPassword().startsWith("{bcrypt}"));
+        login(legacy.getEmail(), "hunter2");
+    }
+
+    @Test
+    void contactDetailsAreOnlyReturnedToTheirOwner() throws Exception {
+        User owner = userRepository.save(user("contact", "pw-contact"));
+        String path = "/api/users/" + owner.getId();
+
+        mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("contact"))
+                .andExpect(jsonPath("$.email").doesNotExist())
+                .andExpect(jsonPath("$.phone").doesNotExist());
+        mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + login(owner.getEmail(), "pw-contact")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(owner.getEmail()))
+                .andExpect(jsonPath("$.phone").value("555-0100"));
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").exists())
+                .andExpect(jsonPath("$[*].email").isEmpty())
+                .andExpect(jsonPath("$[*].phone").isEmpty());
+        mockMvc.perform(get("/api/users").param("ids", owner.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].email").doesNotExist());
+    }
+
+    @Test
+    void onlyTheOwnerCanDeleteAProduct() throws Exception {
+        User owner = userRepository.save(user("owner", "pw-owner"));
+        User other = userRepository.save(user("other", "pw-other"));
+        Product product = productRepository.save(new Product("lamp", "desk lamp", 12.0, null, owner));
+
+        mockMvc.perform(delete("/products/" + product.getId()))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(delete("/products/" + product.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + login(other.getEmail(), "pw-other")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/products/" + product.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + login(owner.getEmail(), "pw-owner")))
+                .andExpect(status().isOk());
+    }
+
+    private String login(String email, String password) throws Exception {
+        String body = mockMvc.perform(post("/api/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("email", email, "password", password))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode json = objectMapper.readTree(body);
+        return json.get("token").asText();
+    }
+}
@@ -0,0 +1,52 @@
+package com.backend.Backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.backend.Backend.dto.ChatSendError;
+import com.backend.Backend.model.ChatMessage;
+import com.backend.Backend.service.ChatMessageWriteBehind;
+import com.backend.Backend.service.ConversationService;
+import com.backend.Backend.service.ReadReceiptCoalescer;
+import java.security.Principal;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+class ChatHistoryControllerTest {
+
+    private final ChatMessageWriteBehind writeBehind = mock(ChatMessageWriteBehind.class);
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final ChatHistoryController controller = new ChatHistoryController(mock(ConversationService.class),
+            writeBehind, messagingTemplate, mock(ReadReceiptCoalescer.class));
+    private final Principal sender = () -> "7";
+
+    @Test
+    void refusesOversizedContentBeforeDelivering() {
+        ChatMessage message = new ChatMessage();
+        message.setRecipientId("8");
+        message.setContent("x".repeat(ChatMessage.MAX_CONTENT_LENGTH + 1));
+
+        IllegalArgumentException refused = assertThrows(IllegalArgumentException.class,
+                () -> controller.sendMessage(message, sender));
+        verifyNoInteractions(writeBehind, messagingTemplate);
+
+        ChatSendError error = controller.sendRejected(refused);
+        assertEquals("Messages are limited to " + ChatMessage.MAX_CONTENT_LENGTH + " characters", error.error());
+    }
+
+    @Test
+    void refusesAMissingOrInvalidRecipient() {
+        for (String recipient : new String[] {null, "", "bob"}) {
+            ChatMessage message = new ChatMessage();
+            message.setRecipientId(recipient);
+            message.setContent("hi");
+
+            IllegalArgumentException refused = assertThrows(IllegalArgumentException.class,
+                    () -> controller.sendMessage(message, sender));
+            assertEquals("Recipient must be a user id", controller.sendRejected(refused).error());
+        }
+        verifyNoInteractions(writeBehind, messagingTemplate);
+    }
+}
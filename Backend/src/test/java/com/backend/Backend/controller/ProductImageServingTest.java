@@ -0,0 +1,101 @@
+package com.backend.Backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.backend.Backend.model.ImageVariant;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductImageServingTest {
+
+    private static final byte[] PNG_BYTES = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 1, 2, 3, 4};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${upload.dir}")
+    private String uploadDir;
+
+    private String filename;
+
+    @BeforeEach
+    void writeImage() throws Exception {
+        Path dir = Files.createDirectories(Paths.get(uploadDir));
+        filename = UUID.randomUUID() + ".png";
+        Files.write(dir.resolve(filename), PNG_BYTES);
+    }
+
+    @Test
+    void servesWithValidatorsAndImmutableCaching() throws Exception {
+        MvcResult result = mockMvc.perform(get("/products/images/" + filename))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        assertArrayEquals(PNG_BYTES, result.getResponse().getContentAsByteArray());
+
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/products/images/" + filename).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void servesSingleByteRange() throws Exception {
+        mockMvc.perform(get("/products/images/" + filename).header(HttpHeaders.RANGE, "bytes=1-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 1-3/" + PNG_BYTES.length))
+                .andExpect(content().bytes(new byte[] {'P', 'N', 'G'}));
+
+        mockMvc.perform(get("/products/images/" + filename).header(HttpHeaders.RANGE, "bytes=100-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + PNG_BYTES.length));
+    }
+
+    @Test
+    void servesVariantOnceGeneratedAndOriginalUntilThen() throws Exception {
+        mockMvc.perform(get("/products/images/" + filename).param("variant", "thumb"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+
+        Path variant = Paths.get(uploadDir).resolve(ImageVariant.THUMB.filenameFor(filename));
+        Files.write(variant, PNG_BYTES);
+        mockMvc.perform(get("/products/images/" + filename).param("variant", "thumb"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+
+        mockMvc.perform(get("/products/images/" + filename).param("variant", "huge"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void refusesPathsOutsideTheUploadDirectory() throws Exception {
+        mockMvc.perform(get("/products/images/..%2F" + filename))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/products/images/.."))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/products/images/missing.png"))
+                .andExpect(status().isNotFound());
+    }
+}
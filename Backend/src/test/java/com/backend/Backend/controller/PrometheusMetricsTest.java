@@ -0,0 +1,60 @@
+package com.backend.Backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.backend.Backend.security.TokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * The Prometheus scrape covers endpoints, repository calls, the connection
+ * pool, caches, the STOMP channel executors and WebSocket sessions.
+ */
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=prometheus")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class PrometheusMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Test
+    void scrapeRequiresAToken() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void scrapeContainsHotPathMeters() throws Exception {
+        mockMvc.perform(get("/products")).andExpect(status().isOk());
+        mockMvc.perform(get("/products/1"));
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.issue(1L, "scraper").value()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        for (String meter : new String[] {
+                "http_server_requests_seconds_bucket{",
+                "spring_data_repository_invocations_seconds_bucket{",
+                "hikaricp_connections_pending{",
+                "cache_gets_total{",
+                "executor_queued_tasks{",
+                "name=\"clientInboundChannelExecutor\"",
+                "name=\"clientOutboundChannelExecutor\"",
+                "chat_websocket_sessions{",
+                "chat_stomp_frames_total{",
+                "chat_ingest_queue_depth"}) {
+            assertTrue(scrape.contains(meter), () -> "missing " + meter);
+        }
+    }
+}
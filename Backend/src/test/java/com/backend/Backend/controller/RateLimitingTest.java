@@ -0,0 +1,59 @@
+package com.backend.Backend.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Over a limit, HTTP callers get 429 with {@code Retry-After}, counted
+ * against their own key and each endpoint group in its own bucket.
+ */
+@SpringBootTest(properties = {
+        "rate-limit.enabled=true",
+        "rate-limit.login.burst=2",
+        "rate-limit.login.per-second=0.01"
+})
+@AutoConfigureMockMvc
+class RateLimitingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void loginAttemptsAreLimitedPerAddress() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(login("10.0.0.1")).andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(login("10.0.0.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "100"))
+                .andExpect(jsonPath("$.error", Matchers.startsWith("Too many requests")));
+
+        mockMvc.perform(login("10.0.0.2")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/products").with(request -> {
+            request.setRemoteAddr("10.0.0.1");
+            return request;
+        })).andExpect(status().isOk());
+    }
+
+    private static MockHttpServletRequestBuilder login(String remoteAddr) {
+        return post("/api/users/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"nobody@northeastern.edu\",\"password\":\"nope\"}")
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddr);
+                    return request;
+                });
+    }
+}
@@ -0,0 +1,72 @@
+package com.backend.Backend.repository;
+
+import static com.backend.Backend.TestUsers.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.backend.Backend.dto.KeysetCursor;
+import com.backend.Backend.dto.ProductPage;
+import com.backend.Backend.dto.ProductView;
+import com.backend.Backend.model.Product;
+import com.backend.Backend.model.User;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+@DataJpaTest
+class ProductRepositoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void seed() {
+        alice = userRepository.save(user("alice"));
+        bob = userRepository.save(user("bob"));
+        double[] prices = {30, 10, 20, 10, 50, 40, 20};
+        for (int i = 0; i < prices.length; i++) {
+            productRepository.save(new Product("item" + i, "desc", prices[i], null, i % 2 == 0 ? alice : bob));
+        }
+    }
+
+    @Test
+    void walksEveryRowExactlyOnceByPrice() {
+        List<Double> seen = new ArrayList<>();
+        KeysetCursor cursor = null;
+        do {
+            ProductPage<ProductView> page = productRepository.findPage(
+                    new ProductQuery(null, null, null, null, ProductSort.PRICE_ASC, cursor, 3));
+            page.items().forEach(p -> seen.add(p.price()));
+            cursor = page.nextCursor() == null ? null : KeysetCursor.decode(page.nextCursor());
+        } while (cursor != null);
+
+        assertEquals(List.of(10.0, 10.0, 20.0, 20.0, 30.0, 40.0, 50.0), seen);
+    }
+
+    @Test
+    void appliesFiltersBeforeSeeking() {
+        ProductPage<ProductView> page = productRepository.findPage(
+                new ProductQuery(15.0, 45.0, alice.getId(), null, ProductSort.NEWEST, null, 10));
+
+        assertEquals(List.of(20.0, 20.0, 30.0), page.items().stream().map(ProductView::price).sorted().toList());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void projectsOwnerWithoutLoadingTheEntity() {
+        List<ProductView> views = productRepository.findViewsByUserId(bob.getId());
+
+        assertEquals(3, views.size());
+        assertEquals(new ProductView.Owner(bob.getId(), "bob"), views.get(0).user());
+        assertEquals(List.of("item5", "item3", "item1"), views.stream().map(ProductView::title).toList());
+    }
+}
@@ -0,0 +1,82 @@
+package com.backend.Backend.repository;
+
+import static com.backend.Backend.TestUsers.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.backend.Backend.config.CacheConfig;
+import com.backend.Backend.dto.ProductView;
+import com.backend.Backend.dto.UserView;
+import com.backend.Backend.model.Product;
+import com.backend.Backend.model.User;
+import com.backend.Backend.service.UserDirectory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+@SpringBootTest
+class RepositoryCachingTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void cachesViewsByIdAndEvictsOnWriteAndDelete() {
+        User owner = userRepository.save(user("Carol"));
+        Product product = productRepository.save(new Product("lamp", "desk lamp", 15, null, owner));
+        Cache products = cacheManager.getCache(CacheConfig.PRODUCTS);
+
+        ProductView first = productRepository.findViewById(product.getId()).orElseThrow();
+        assertSame(first, productRepository.findViewById(product.getId()).orElseThrow());
+        assertEquals("Carol", first.user().name());
+        assertNotNull(products.get(product.getId()));
+
+        Product editable = productRepository.findById(product.getId()).orElseThrow();
+        editable.setPrice(12);
+        productRepository.save(editable);
+        assertNull(products.get(product.getId()));
+        assertEquals(12, productRepository.findViewById(product.getId()).orElseThrow().price());
+
+        productRepository.findViewById(product.getId());
+        productRepository.saveAll(List.of(editable));
+        assertNull(products.get(product.getId()));
+        productRepository.findViewById(product.getId());
+        productRepository.deleteAllInBatch(List.of(editable));
+        assertNull(products.get(product.getId()));
+        assertTrue(productRepository.findViewById(product.getId()).isEmpty());
+
+        // Public and batch reads fill and use the same entries as the owner's own profile.
+        Cache users = cacheManager.getCache(CacheConfig.USERS);
+        assertEquals(List.of("Carol"), userDirectory.findSummaries(List.of(owner.getId(), 424242L)).stream()
+                .map(UserSummary::getName).toList());
+        UserView profile = users.get(owner.getId(), UserView.class);
+        assertNotNull(profile);
+        assertSame(profile, userDirectory.findProfile(owner.getId()).orElseThrow());
+        assertEquals("Carol", userDirectory.findSummary(owner.getId()).orElseThrow().getName());
+        userRepository.delete(owner);
+        assertNull(users.get(owner.getId()));
+        assertTrue(userRepository.findViewById(owner.getId()).isEmpty());
+
+        assertTrue(meterRegistry.get("cache.gets")
+                .tag("cache", CacheConfig.PRODUCTS).tag("result", "hit").functionCounter().count() > 0);
+    }
+}
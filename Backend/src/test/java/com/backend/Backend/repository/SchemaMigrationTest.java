@@ -0,0 +1,145 @@
+package com.backend.Backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+/**
+ * The schema comes from the Flyway migrations and Hibernate only validates
+ * it, so this context failing to start already means an entity drifted from
+ * the migrations. Indexes are not part of Hibernate's validation and are
+ * checked here, as is upgrading a database that predates the migrations.
+ */
+@DataJpaTest
+class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void everyMigrationIsApplied() {
+        assertEquals(0, flyway.info().pending().length);
+        assertTrue(flyway.info().current().getVersion().isAtLeast("4"));
+    }
+
+    @Test
+    void everyIndexDeclaredOnAnEntityExists() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+                Table table = entity.getJavaType().getAnnotation(Table.class);
+                if (table == null || table.indexes().length == 0) {
+                    continue;
+                }
+                String tableName = table.name().isEmpty() ? snakeCase(entity.getName()) : table.name();
+                Set<String> existing = indexNames(metaData, tableName);
+                for (Index index : table.indexes()) {
+                    assertTrue(existing.contains(index.name().toLowerCase()),
+                            tableName + " is missing " + index.name() + " in the migrations");
+                }
+            }
+        }
+    }
+
+    @Test
+    void chatUserIdsAreBigints() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            assertEquals(Types.BIGINT, columnType(metaData, "chat_message", "sender_id"));
+            assertEquals(Types.BIGINT, columnType(metaData, "chat_message", "recipient_id"));
+            assertEquals(Types.BIGINT, columnType(metaData, "conversation", "user_low"));
+            assertEquals(Types.BIGINT, columnType(metaData, "conversation", "user_high"));
+        }
+    }
+
+    @Test
+    void aDatabaseFromBeforeMigrationsUpgradesInPlace() throws SQLException {
+        String url = "jdbc:h2:mem:pre-flyway-" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER,VALUE";
+        // V1 is what auto-DDL left behind; such databases are baselined there.
+        migrate(url, "1");
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO user (name, email, password, phone) VALUES ('Ada', 'ada@x', 'pw', '1')");
+            statement.executeUpdate("INSERT INTO product (title, price, user_id) VALUES ('Desk', 20, 1)");
+            statement.executeUpdate("INSERT INTO chat_message (sender_id, recipient_id, content, timestamp, archived)"
+                    + " VALUES ('7', '3', 'hi', '2025-05-01 10:00:00', FALSE)");
+            statement.executeUpdate("INSERT INTO chat_message (sender_id, recipient_id, content, timestamp, archived)"
+                    + " VALUES ('9', '10', 'yo', '2025-05-01 10:01:00', FALSE)");
+        }
+
+        migrate(url, null);
+
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT sender_id, content, conversation_key FROM chat_message ORDER BY timestamp")) {
+            assertTrue(rs.next());
+            assertEquals(7L, rs.getLong("sender_id"));
+            assertEquals("hi", rs.getString("content"));
+            assertEquals("3:7", rs.getString("conversation_key"));
+            assertTrue(rs.next());
+            assertEquals("9:10", rs.getString("conversation_key"));
+        }
+    }
+
+    private static void migrate(String url, String target) {
+        FluentConfiguration configuration = Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("classpath:db/migration", "classpath:db/vendor/h2");
+        if (target != null) {
+            configuration.target(target);
+        }
+        configuration.load().migrate();
+    }
+
+    private static Set<String> indexNames(DatabaseMetaData metaData, String table) throws SQLException {
+        Set<String> names = new HashSet<>();
+        try (ResultSet rs = metaData.getIndexInfo(null, null, table, false, false)) {
+            while (rs.next()) {
+                String name = rs.getString("INDEX_NAME");
+                if (name != null) {
+                    names.add(name.toLowerCase());
+                }
+            }
+        }
+        return names;
+    }
+
+    private static int columnType(DatabaseMetaData metaData, String table, String column) throws SQLException {
+        try (ResultSet rs = metaData.getColumns(null, null, table, column)) {
+            assertTrue(rs.next(), table + "." + column + " does not exist");
+            return rs.getInt("DATA_TYPE");
+        }
+    }
+
+    private static String snakeCase(String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
+    }
+}
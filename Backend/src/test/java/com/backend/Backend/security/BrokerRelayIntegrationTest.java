@@ -0,0 +1,143 @@
+package com.backend.Backend.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.backend.Backend.BackendApplication;
+import com.backend.Backend.model.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+/**
+ * Two application nodes in relay mode share one in-process Artemis broker
+ * and a client on one node receives a message sent through the other.
+ */
+class BrokerRelayIntegrationTest {
+
+    private static EmbeddedActiveMQ broker;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void start() throws Exception {
+        int stompPort = freePort();
+        broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("stomp", "tcp://localhost:" + stompPort
+                        + "?protocols=STOMP;anycastPrefix=/queue/;multicastPrefix=/topic/"));
+        broker.start();
+
+        nodeA = node("nodeA", stompPort);
+        nodeB = node("nodeB", stompPort);
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (broker != null) {
+            broker.stop();
+        }
+    }
+
+    @Test
+    void deliversAcrossNodesThroughTheBroker() throws Exception {
+        BlockingQueue<ChatMessage> inbox = new LinkedBlockingQueue<>();
+        StompSession recipient = connect(nodeB, "2");
+        CountDownLatch subscribed = new CountDownLatch(1);
+        recipient.setAutoReceipt(true);
+        recipient.subscribe("/user/queue/messages", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return ChatMessage.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                inbox.add((ChatMessage) payload);
+            }
+        }).addReceiptTask(subscribed::countDown);
+        assertEquals(true, subscribed.await(10, TimeUnit.SECONDS));
+
+        StompSession sender = connect(nodeA, "1");
+        ChatMessage message = new ChatMessage();
+        message.setRecipientId("2");
+        message.setContent("hello from node A");
+        sender.send("/app/chat.send", message);
+
+        ChatMessage received = inbox.poll(15, TimeUnit.SECONDS);
+        assertNotNull(received, "message sent on node A never reached the subscriber on node B");
+        assertEquals("1", received.getSenderId());
+        assertEquals("hello from node A", received.getContent());
+
+        sender.disconnect();
+        recipient.disconnect();
+    }
+
+    private static ConfigurableApplicationContext node(String name, int stompPort) {
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER,VALUE",
+                        "chat.broker.mode=relay",
+                        "chat.broker.relay.port=" + stompPort,
+                        "chat.broker.relay.reconnect.initial-delay=100ms")
+                .run();
+    }
+
+    private static StompSession connect(ConfigurableApplicationContext node, String userId) throws Exception {
+        int port = ((WebServerApplicationContext) node).getWebServer().getPort();
+        WebSocketStompClient client = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(node.getBean(ObjectMapper.class));
+        client.setMessageConverter(converter);
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        client.setTaskScheduler(scheduler);
+        StompHeaders connectHeaders = new StompHeaders();
+        String token = node.getBean(TokenService.class).issue(Long.valueOf(userId), "user" + userId).value();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        return client.connectAsync("http://localhost:" + port + "/ws", new WebSocketHttpHeaders(),
+                        connectHeaders, new StompSessionHandlerAdapter() { })
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.backend.Backend.security;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.backend.Backend.model.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+/**
+ * A plain WebSocket client can use {@code /ws-native} without SockJS, and the
+ * simple broker negotiates the configured heart-beats.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class NativeWebSocketEndpointTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Test
+    void deliversOverNativeEndpointWithHeartbeats() throws Exception {
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        client.setMessageConverter(converter);
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        client.setTaskScheduler(scheduler);
+        client.setDefaultHeartbeat(new long[] {10000, 10000});
+
+        CompletableFuture<StompHeaders> connected = new CompletableFuture<>();
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + tokenService.issue(7L, "seven").value());
+        StompSession session = client.connectAsync("ws://localhost:" + port + "/ws-native",
+                        new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+                            @Override
+                            public void afterConnected(StompSession session, StompHeaders headers) {
+                                connected.complete(headers);
+                            }
+                        })
+                .get(10, TimeUnit.SECONDS);
+        assertArrayEquals(new long[] {10000, 10000}, connected.get(10, TimeUnit.SECONDS).getHeartbeat());
+
+        BlockingQueue<ChatMessage> inbox = new LinkedBlockingQueue<>();
+        // The simple broker sends no receipts; receive order is preserved, so
+        // SUBSCRIBE is handled before the SEND that follows it.
+        session.subscribe("/user/queue/messages", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return ChatMessage.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                inbox.add((ChatMessage) payload);
+            }
+        });
+
+        ChatMessage note = new ChatMessage();
+        note.setRecipientId("7");
+        note.setContent("note to self");
+        session.send("/app/chat.send", note);
+
+        ChatMessage received = inbox.poll(10, TimeUnit.SECONDS);
+        assertNotNull(received);
+        assertEquals("note to self", received.getContent());
+
+        session.disconnect();
+        scheduler.shutdown();
+    }
+
+    @Test
+    void rejectsConnectWithoutAValidToken() throws Exception {
+        // A raw client, since the STOMP client hides frames that arrive before CONNECTED.
+        CompletableFuture<String> reply = new CompletableFuture<>();
+        CompletableFuture<Integer> closed = new CompletableFuture<>();
+        WebSocket socket = HttpClient.newHttpClient().newWebSocketBuilder()
+                .buildAsync(URI.create("ws://localhost:" + port + "/ws-native"), new WebSocket.Listener() {
+                    @Override
+                    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+                        reply.complete(data.toString());
+                        webSocket.request(1);
+                        return null;
+                    }
+
+                    @Override
+                    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+                        closed.complete(statusCode);
+                        return null;
+                    }
+                })
+                .get(10, TimeUnit.SECONDS);
+        socket.sendText("CONNECT\naccept-version:1.2\nAuthorization:Bearer not-a-token\n\n\0", true);
+
+        String frame = reply.get(10, TimeUnit.SECONDS);
+        assertTrue(frame.startsWith("ERROR\n"), frame);
+        assertTrue(frame.contains("message:Invalid bearer token"), frame);
+        assertEquals(1002, closed.get(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,50 @@
+package com.backend.Backend.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.backend.Backend.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // A burst of 3, refilled at 2 per second.
+    private final RateLimiter limiter = new RateLimiter("test", new RateLimitProperties.Limit(3, 2),
+            1000, Duration.ofMinutes(10), registry, now::get);
+
+    @Test
+    void allowsABurstThenOneRequestPerRefillInterval() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("ada"));
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), limiter.tryAcquire("ada"));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(300), limiter.tryAcquire("ada"));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(300));
+        assertEquals(0, limiter.tryAcquire("ada"));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), limiter.tryAcquire("ada"));
+        assertEquals(3, registry.get("rate.limit.rejected").tag("limit", "test").counter().count());
+    }
+
+    @Test
+    void refillsToAtMostOneBurstAndKeepsKeysApart() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("ada"));
+        }
+        assertEquals(0, limiter.tryAcquire("grace"));
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("ada"));
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), limiter.tryAcquire("ada"));
+        assertEquals(2, registry.get("rate.limit.keys").tag("limit", "test").gauge().value());
+    }
+}
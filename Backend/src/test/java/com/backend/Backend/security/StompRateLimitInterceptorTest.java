@@ -0,0 +1,57 @@
+package com.backend.Backend.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.backend.Backend.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+class StompRateLimitInterceptorTest {
+
+    private final List<Message<?>> outbound = new ArrayList<>();
+    private final MessageChannel clientOutboundChannel = (message, timeout) -> outbound.add(message);
+    private final StompRateLimitInterceptor interceptor = new StompRateLimitInterceptor(
+            new RateLimitProperties(true, 1000, Duration.ofMinutes(10),
+                    new RateLimitProperties.Limit(2, 0.01), null, null, null),
+            new SimpleMeterRegistry(), clientOutboundChannel);
+
+    @Test
+    void chatSendsOverTheLimitAreDroppedWithAnError() {
+        assertNotNull(interceptor.preSend(send("ada", "/app/chat.send"), null));
+        assertNotNull(interceptor.preSend(send("ada", "/app/chat.send"), null));
+        assertNull(interceptor.preSend(send("ada", "/app/chat.send"), null));
+
+        assertEquals(1, outbound.size());
+        StompHeaderAccessor error = StompHeaderAccessor.wrap(outbound.get(0));
+        assertEquals(StompCommand.ERROR, error.getCommand());
+        assertEquals("session-ada", error.getSessionId());
+        assertEquals("Too many messages, slow down", error.getMessage());
+    }
+
+    @Test
+    void otherUsersAndDestinationsAreNotLimited() {
+        for (int i = 0; i < 3; i++) {
+            interceptor.preSend(send("ada", "/app/chat.send"), null);
+        }
+        assertNotNull(interceptor.preSend(send("grace", "/app/chat.send"), null));
+        assertNotNull(interceptor.preSend(send("ada", "/app/chat.read"), null));
+    }
+
+    private static Message<byte[]> send(String user, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SEND);
+        accessor.setDestination(destination);
+        accessor.setSessionId("session-" + user);
+        accessor.setUser(() -> user);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
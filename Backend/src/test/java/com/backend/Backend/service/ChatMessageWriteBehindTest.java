@@ -0,0 +1,119 @@
+package com.backend.Backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.backend.Backend.config.ChatIngestProperties;
+import com.backend.Backend.dto.ChatSendError;
+import com.backend.Backend.model.ChatMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+class ChatMessageWriteBehindTest {
+
+    private final List<List<Long>> flushed = new CopyOnWriteArrayList<>();
+    private final SimpMessageSendingOperations template = mock(SimpMessageSendingOperations.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Blocker blockFlushes = () -> { };
+
+    interface Blocker {
+        void await() throws InterruptedException;
+    }
+
+    @Test
+    void drainsEverythingQueuedOnStopInBoundedBatches() {
+        ChatMessageWriteBehind writeBehind = writeBehind(new ChatIngestProperties(100, 10, Duration.ofSeconds(5), Duration.ZERO, 100));
+        writeBehind.start();
+        for (int i = 0; i < 25; i++) {
+            writeBehind.submit(message());
+        }
+        writeBehind.stop();
+
+        assertEquals(25, flushed.stream().mapToInt(List::size).sum());
+        assertTrue(flushed.stream().allMatch(batch -> batch.size() <= 10));
+        assertEquals(0, writeBehind.queueDepth());
+        assertThrows(IllegalStateException.class, () -> writeBehind.submit(message()));
+    }
+
+    @Test
+    void rejectsWhenTheQueueStaysFull() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        blockFlushes = () -> {
+            writing.countDown();
+            release.await();
+        };
+        ChatMessageWriteBehind writeBehind = writeBehind(new ChatIngestProperties(1, 1, Duration.ofMillis(1), Duration.ZERO, 100));
+        writeBehind.start();
+
+        writeBehind.submit(message());
+        writing.await();
+        writeBehind.submit(message());
+        assertThrows(IllegalStateException.class, () -> writeBehind.submit(message()));
+
+        release.countDown();
+        writeBehind.stop();
+        assertEquals(2, flushed.size());
+    }
+
+    @Test
+    void dropsAMessageThatFailsOnItsOwnAndTellsTheSender() {
+        ChatMessageWriteBehind writeBehind = writeBehind(new ChatIngestProperties(100, 10, Duration.ofSeconds(5), Duration.ZERO, 100));
+        writeBehind.start();
+        ChatMessage good = writeBehind.submit(message());
+        ChatMessage bad = message();
+        bad.setContent("poison");
+        writeBehind.submit(bad);
+        writeBehind.stop();
+
+        assertEquals(List.of(List.of(good.getId())), flushed);
+        assertEquals(1, meterRegistry.counter("chat.ingest.batch.failed").count());
+        assertEquals(1, meterRegistry.counter("chat.ingest.failed").count());
+        verify(template).convertAndSendToUser("1", ChatMessageWriteBehind.ERROR_DESTINATION,
+                new ChatSendError(bad.getId(), "Message could not be stored"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ChatMessageWriteBehind writeBehind(ChatIngestProperties properties) {
+        ConversationService conversationService = mock(ConversationService.class);
+        doAnswer(invocation -> {
+            blockFlushes.await();
+            List<ChatMessage> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(message -> "poison".equals(message.getContent()))) {
+                throw new IllegalStateException("write failed");
+            }
+            flushed.add(batch.stream().map(ChatMessage::getId).toList());
+            return null;
+        }).when(conversationService).recordBatch(anyList());
+
+        AtomicLong ids = new AtomicLong();
+        ChatMessageIdAllocator allocator = mock(ChatMessageIdAllocator.class);
+        when(allocator.next()).thenAnswer(invocation -> ids.incrementAndGet());
+
+        ObjectProvider<SimpMessageSendingOperations> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(template);
+
+        return new ChatMessageWriteBehind(conversationService, allocator, properties, provider, meterRegistry);
+    }
+
+    private static ChatMessage message() {
+        ChatMessage message = new ChatMessage();
+        message.setSenderId("1");
+        message.setRecipientId("2");
+        message.setContent("hi");
+        return message;
+    }
+}
@@ -0,0 +1,374 @@
+package com.backend.Backend.service;
+
+import static com.backend.Backend.TestUsers.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.backend.Backend.config.BlobStoreConfig;
+import com.backend.Backend.config.BlobStoreProperties;
+import com.backend.Backend.config.CacheConfig;
+import com.backend.Backend.config.ChatArchiveProperties;
+import com.backend.Backend.config.ChatIngestProperties;
+import com.backend.Backend.config.ChatPurgeProperties;
+import com.backend.Backend.dto.ChatHistoryPage;
+import com.backend.Backend.dto.ConversationDTO;
+import com.backend.Backend.dto.KeysetCursor;
+import com.backend.Backend.dto.ReadAck;
+import com.backend.Backend.model.ChatMessage;
+import com.backend.Backend.model.Conversation;
+import com.backend.Backend.model.ConversationPair;
+import com.backend.Backend.model.MessagePosition;
+import com.backend.Backend.model.User;
+import com.backend.Backend.repository.ChatMessageRepository;
+import com.backend.Backend.repository.ConversationRepository;
+import com.backend.Backend.repository.UserRepository;
+import com.backend.Backend.repository.UserSummary;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@DataJpaTest(properties = {"chat.purge.chunk-size=2", "chat.purge.chunk-pause=0ms",
+        "chat.archive.block-size=2", "chat.archive.chunk-size=3", "chat.archive.chunk-pause=0ms",
+        "chat.archive.enabled=false", "chat.archive.refresh-interval=0ms"})
+@Import({ConversationService.class, ChatMessageIdAllocator.class, ChatMessagePurger.class,
+        ChatArchiveStore.class, ChatMessageArchiver.class, ChatMessagePartitions.class, JobLeases.class,
+        BlobStoreConfig.class, UserDirectory.class, CacheConfig.class})
+@EnableConfigurationProperties({ChatIngestProperties.class, ChatPurgeProperties.class, ChatArchiveProperties.class,
+        BlobStoreProperties.class})
+class ConversationServiceTest {
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Autowired
+    private ChatMessagePurger chatMessagePurger;
+
+    @Autowired
+    private ChatMessageArchiver chatMessageArchiver;
+
+    @Autowired
+    private ChatArchiveStore chatArchiveStore;
+
+    @Autowired
+    private JobLeases jobLeases;
+
+    @Autowired
+    private ChatArchiveProperties chatArchiveProperties;
+
+    @Autowired
+    @Qualifier(BlobStoreConfig.CHAT_ARCHIVE)
+    private BlobStore chatArchiveBlobStore;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Test
+    void keepsOneSummaryPerPairWithLatestMessageAndUnreadCounts() {
+        send("2", "10", "hi", 1);
+        send("10", "2", "hello", 2);
+        send("10", "2", "still there?", 3);
+        send("2", "7", "other chat", 4);
+
+        assertEquals(2, conversationRepository.count());
+
+        List<ConversationDTO> forTwo = conversationService.findConversationsForUser("2");
+        assertEquals(List.of("7", "10"), forTwo.stream().map(ConversationDTO::getUserId).toList());
+        ConversationDTO withTen = forTwo.get(1);
+        assertEquals("still there?", withTen.getLastMessage());
+        assertEquals(2, withTen.getUnreadCount());
+
+        conversationService.markRead("2", "10");
+        assertEquals(0, conversationService.findConversationsForUser("2").get(1).getUnreadCount());
+        assertEquals(1, conversationService.findConversationsForUser("10").get(0).getUnreadCount());
+    }
+
+    @Test
+    void readCursorsOnlyMoveForwardAndDriveUnreadCounts() {
+        ChatMessage first = send("11", "12", "one", 1);
+        ChatMessage second = send("11", "12", "two", 2);
+        ChatMessage third = send("11", "12", "three", 3);
+
+        assertEquals(List.of(new ReadAck("12", "11", second.getId())),
+                conversationService.applyReadAcks(List.of(new ReadAck("12", "11", second.getId()))).advanced());
+        ConversationDTO forTwelve = conversationService.findConversationsForUser("12").get(0);
+        assertEquals(1, forTwelve.getUnreadCount());
+        assertEquals(second.getId(), forTwelve.getLastReadMessageId());
+
+        assertTrue(conversationService.applyReadAcks(List.of(new ReadAck("12", "11", first.getId()))).advanced().isEmpty());
+        assertEquals(1, conversationService.findConversationsForUser("12").get(0).getUnreadCount());
+
+        conversationService.applyReadAcks(List.of(new ReadAck("12", "11", third.getId())));
+        assertEquals(0, conversationService.findConversationsForUser("12").get(0).getUnreadCount());
+        assertNull(conversationService.findConversationsForUser("11").get(0).getLastReadMessageId());
+    }
+
+    @Test
+    void readCursorsFollowSendOrderWhenIdsDoNot() {
+        // Each node allocates ids from its own block, so a later message can have a lower id.
+        ChatMessage early = sendWithId(5_000L, "13", "14", "from node a", 1);
+        ChatMessage late = sendWithId(4_000L, "13", "14", "from node b", 2);
+        ChatMessage elsewhere = send("15", "14", "other conversation", 3);
+
+        ConversationService.AppliedReadAcks applied = conversationService.applyReadAcks(List.of(
+                new ReadAck("14", "13", early.getId()),
+                new ReadAck("14", "13", elsewhere.getId()),
+                new ReadAck("14", "13", 987_654L)));
+
+        assertEquals(List.of(new ReadAck("14", "13", early.getId())), applied.advanced());
+        assertEquals(List.of(new ReadAck("14", "13", 987_654L)), applied.unknown());
+        ConversationDTO forFourteen = conversationService.findConversationsForUser("14").stream()
+                .filter(conversation -> conversation.getUserId().equals("13")).findFirst().orElseThrow();
+        assertEquals(1, forFourteen.getUnreadCount());
+        assertEquals("from node b", forFourteen.getLastMessage());
+
+        // Acks naming both: the later message wins although its id is lower.
+        conversationService.applyReadAcks(List.of(
+                new ReadAck("14", "13", late.getId()), new ReadAck("14", "13", early.getId())));
+        ConversationDTO read = conversationService.findConversationsForUser("14").stream()
+                .filter(conversation -> conversation.getUserId().equals("13")).findFirst().orElseThrow();
+        assertEquals(0, read.getUnreadCount());
+        assertEquals(late.getId(), read.getLastReadMessageId());
+    }
+
+    @Test
+    void resolvesPartnerNamesForTheConversationList() {
+        User alice = userRepository.save(user("Alice"));
+        User bob = userRepository.save(user("Bob"));
+        String aliceId = alice.getId().toString();
+        send(aliceId, bob.getId().toString(), "hey", 1);
+        send(aliceId, "99999", "anyone?", 2);
+
+        List<ConversationDTO> conversations = conversationService.findConversationsForUser(aliceId);
+        assertEquals(List.of("User 99999", "Bob"), conversations.stream().map(ConversationDTO::getUserName).toList());
+
+        assertEquals(List.of("Alice"), userDirectory.findSummaries(List.of(alice.getId(), 424242L)).stream()
+                .map(UserSummary::getName).toList());
+    }
+
+    @Test
+    void clearingHidesHistoryOnlyForThatUserUntilBothHaveCleared() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            send("3", "4", "ping" + i, i);
+        }
+        conversationService.clear("4", "3");
+
+        assertTrue(conversationService.findConversationsForUser("4").isEmpty());
+        assertTrue(conversationService.findHistory("4", "3").isEmpty());
+        assertEquals(5, conversationService.findHistory("3", "4").size());
+        assertEquals(0, chatMessagePurger.purge());
+
+        send("4", "3", "after clear", 6);
+        assertEquals(List.of("after clear"), conversationService.findHistory("4", "3").stream()
+                .map(ChatMessage::getContent).toList());
+
+        conversationService.clear("3", "4");
+        assertEquals(5, chatMessagePurger.purge());
+        assertEquals(1, chatMessageRepository.count());
+        assertEquals(0, chatMessagePurger.purge());
+        assertEquals(1, conversationService.findHistory("4", "3").size());
+    }
+
+    @Test
+    void clearsAndPurgesFollowSendOrderWhenIdsDoNot() throws Exception {
+        sendWithId(6_000L, "16", "17", "before clear", 1);
+        conversationService.clear("17", "16");
+        // Written on another node after the clear, with an id from a lower block.
+        sendWithId(3_000L, "16", "17", "after clear", 2);
+
+        assertEquals(List.of("after clear"), conversationService.findHistory("17", "16").stream()
+                .map(ChatMessage::getContent).toList());
+        assertEquals(List.of("after clear"), contents(conversationService.findHistoryPage("17", "16", null, 10)));
+        assertEquals(1, conversationService.findConversationsForUser("17").size());
+
+        conversationService.clear("16", "17");
+        sendWithId(2_000L, "17", "16", "newest", 3);
+        // Only what both have cleared goes: 17 still sees the message sent after their clear.
+        assertEquals(1, chatMessagePurger.purge());
+        assertEquals(List.of("after clear", "newest"), conversationService.findHistory("17", "16").stream()
+                .map(ChatMessage::getContent).toList());
+        assertEquals(List.of("newest"), conversationService.findHistory("16", "17").stream()
+                .map(ChatMessage::getContent).toList());
+    }
+
+    @Test
+    void archivingIsPerParticipantAndUndoneByANewMessage() {
+        send("20", "21", "hello", 1);
+        conversationService.archive("21", "20");
+
+        assertTrue(conversationService.findConversationsForUser("21").get(0).isArchived());
+        assertFalse(conversationService.findConversationsForUser("20").get(0).isArchived());
+
+        send("20", "21", "again", 2);
+        assertFalse(conversationService.findConversationsForUser("21").get(0).isArchived());
+    }
+
+    @Test
+    void pagesHistoryBackwardsFromNewest() {
+        for (int i = 0; i < 5; i++) {
+            send(i % 2 == 0 ? "5" : "6", i % 2 == 0 ? "6" : "5", "m" + i, i < 3 ? 1 : 2);
+        }
+        send("5", "9", "unrelated", 3);
+
+        ChatHistoryPage newest = conversationService.findHistoryPage("6", "5", null, 2);
+        assertEquals(List.of("m3", "m4"), contents(newest));
+
+        ChatHistoryPage middle = conversationService.findHistoryPage("6", "5", KeysetCursor.decode(newest.nextCursor()), 2);
+        assertEquals(List.of("m1", "m2"), contents(middle));
+
+        ChatHistoryPage oldest = conversationService.findHistoryPage("5", "6", KeysetCursor.decode(middle.nextCursor()), 2);
+        assertEquals(List.of("m0"), contents(oldest));
+        assertNull(oldest.nextCursor());
+    }
+
+    @Test
+    void archivedMonthsStayReadableThroughTheHistoryApi() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            send(i % 2 == 0 ? "40" : "41", i % 2 == 0 ? "41" : "40", "old" + i, i);
+        }
+        send("40", "42", "other conversation", 10);
+        ChatMessage recent = new ChatMessage();
+        recent.setSenderId("41");
+        recent.setRecipientId("40");
+        recent.setContent("new");
+        recent.setTimestamp(LocalDateTime.of(2025, 9, 1, 12, 0));
+        conversationService.recordMessage(recent);
+
+        assertEquals(6, chatMessageArchiver.archive(LocalDateTime.of(2025, 8, 15, 0, 0)));
+        assertEquals(1, chatMessageRepository.count());
+        assertEquals(0, chatMessageArchiver.archive(LocalDateTime.of(2025, 8, 15, 0, 0)));
+
+        assertEquals(List.of("old0", "old1", "old2", "old3", "old4", "new"),
+                conversationService.findHistory("40", "41").stream().map(ChatMessage::getContent).toList());
+
+        ChatHistoryPage newest = conversationService.findHistoryPage("40", "41", null, 3);
+        assertEquals(List.of("old3", "old4", "new"), contents(newest));
+        ChatHistoryPage older = conversationService.findHistoryPage("40", "41", KeysetCursor.decode(newest.nextCursor()), 3);
+        assertEquals(List.of("old0", "old1", "old2"), contents(older));
+        assertNull(older.nextCursor());
+
+        // A clear hides archived messages too.
+        conversationService.clear("41", "40");
+        assertTrue(conversationService.findHistory("41", "40").isEmpty());
+        assertEquals(6, conversationService.findHistory("40", "41").size());
+
+        // Another node sees the segments once it loads them.
+        ChatArchiveStore otherNode = new ChatArchiveStore(chatArchiveProperties, chatArchiveBlobStore);
+        String key = ConversationPair.of("40", "41").key();
+        assertEquals(5, otherNode.findAll(key, MessagePosition.START).size());
+
+        // Once both have cleared, the purge reaches the archived messages as well.
+        conversationService.clear("40", "41");
+        assertEquals(1, chatMessagePurger.purge());
+        assertEquals(0, chatMessageArchiver.archive(LocalDateTime.of(2025, 8, 15, 0, 0)));
+        otherNode.refresh();
+        for (ChatArchiveStore store : List.of(chatArchiveStore, otherNode)) {
+            assertTrue(store.findAll(key, MessagePosition.START).isEmpty());
+            assertEquals(List.of("other conversation"), store.findAll(ConversationPair.of("40", "42").key(),
+                    MessagePosition.START).stream().map(ChatMessage::getContent).toList());
+        }
+        assertTrue(new ChatArchiveStore(chatArchiveProperties, chatArchiveBlobStore)
+                .segmentsReaching(key, MessagePosition.of(recent)).isEmpty());
+    }
+
+    @Test
+    void onlyOneNodeAtATimeHoldsALease() {
+        JobLeases otherNode = beanFactory.createBean(JobLeases.class);
+
+        assertTrue(jobLeases.tryAcquire("test-job", Duration.ofMinutes(5)));
+        assertFalse(otherNode.tryAcquire("test-job", Duration.ofMinutes(5)));
+        assertTrue(jobLeases.tryAcquire("test-job", Duration.ofMinutes(5)));
+
+        // An expired lease goes to whoever asks next.
+        assertTrue(jobLeases.tryAcquire("test-job", Duration.ofMinutes(-1)));
+        assertTrue(otherNode.tryAcquire("test-job", Duration.ofMinutes(5)));
+        assertFalse(jobLeases.tryAcquire("test-job", Duration.ofMinutes(5)));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentFirstMessagesOfAPairShareOneSummary() throws Exception {
+        int senders = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(senders);
+        try {
+            List<Future<ChatMessage>> sent = new ArrayList<>();
+            for (int i = 0; i < senders; i++) {
+                int minute = i;
+                sent.add(executor.submit(() -> {
+                    start.await();
+                    return send("900", "901", "race" + minute, minute);
+                }));
+            }
+            start.countDown();
+            for (Future<ChatMessage> message : sent) {
+                message.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Committed outside the test transaction, so removed by hand.
+        List<Conversation> summaries = conversationRepository.findAll().stream()
+                .filter(c -> c.getUserLow().equals("900") && c.getUserHigh().equals("901"))
+                .toList();
+        List<ChatMessage> history = conversationService.findHistory("900", "901");
+        conversationRepository.deleteAll(summaries);
+        chatMessageRepository.deleteAll(history);
+
+        assertEquals(1, summaries.size());
+        assertEquals(senders, summaries.get(0).getUnreadHigh());
+        assertEquals(senders, history.size());
+    }
+
+    private static List<String> contents(ChatHistoryPage page) {
+        return page.messages().stream().map(ChatMessage::getContent).toList();
+    }
+
+    private ChatMessage sendWithId(long id, String from, String to, String content, int minute) {
+        ChatMessage message = new ChatMessage();
+        message.setId(id);
+        message.setSenderId(from);
+        message.setRecipientId(to);
+        message.setContent(content);
+        message.setTimestamp(LocalDateTime.of(2025, 1, 1, 12, minute));
+        return conversationService.recordMessage(message);
+    }
+
+    private ChatMessage send(String from, String to, String content, int minute) {
+        ChatMessage message = new ChatMessage();
+        message.setSenderId(from);
+        message.setRecipientId(to);
+        message.setContent(content);
+        message.setTimestamp(LocalDateTime.of(2025, 1, 1, 12, minute));
+        return conversationService.recordMessage(message);
+    }
+}
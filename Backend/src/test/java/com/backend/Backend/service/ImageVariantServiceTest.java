@@ -0,0 +1,131 @@
+package com.backend.Backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.backend.Backend.config.ImageVariantProperties;
+import com.backend.Backend.model.ImageVariant;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ImageVariantServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private LocalBlobStore store;
+    private ImageVariantService service;
+
+    @BeforeEach
+    void createService() {
+        store = new LocalBlobStore(dir, Runnable::run);
+        service = new ImageVariantService(new ImageVariantProperties(320, 1280, 0.8f, 1, 10), store);
+    }
+
+    @AfterEach
+    void shutdown() throws Exception {
+        service.destroy();
+    }
+
+    @Test
+    void writesDownscaledJpegVariants() throws Exception {
+        putImage("photo.png", new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_ARGB));
+
+        assertTrue(service.generate("photo.png"));
+
+        BufferedImage thumb = readImage("photo-thumb.jpg");
+        assertEquals(320, thumb.getWidth());
+        assertEquals(160, thumb.getHeight());
+        BufferedImage medium = readImage(service.variantKey("photo.png", ImageVariant.MEDIUM));
+        assertEquals(1280, medium.getWidth());
+        assertEquals(640, medium.getHeight());
+    }
+
+    @Test
+    void neverUpscalesSmallImages() throws Exception {
+        putImage("small.png", new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB));
+
+        assertTrue(service.generate("small.png"));
+
+        BufferedImage medium = readImage(service.variantKey("small.png", ImageVariant.MEDIUM));
+        assertEquals(100, medium.getWidth());
+    }
+
+    @Test
+    void turnsJpegsUprightByTheirExifOrientation() throws Exception {
+        // Stored sideways: red on the left, blue on the right; orientation 6 means turn clockwise.
+        BufferedImage sideways = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = sideways.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, 100, 100);
+        g.setColor(Color.BLUE);
+        g.fillRect(100, 0, 100, 100);
+        g.dispose();
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        ImageIO.write(sideways, "jpeg", jpeg);
+        byte[] withExif = withExifOrientation(jpeg.toByteArray(), 6);
+        store.put("camera.jpg", new ByteArrayInputStream(withExif), withExif.length, "image/jpeg");
+
+        assertTrue(service.generate("camera.jpg"));
+
+        BufferedImage thumb = readImage(service.variantKey("camera.jpg", ImageVariant.THUMB));
+        assertEquals(100, thumb.getWidth());
+        assertEquals(200, thumb.getHeight());
+        assertTrue(new Color(thumb.getRGB(50, 20)).getRed() > 200);
+        assertTrue(new Color(thumb.getRGB(50, 180)).getBlue() > 200);
+    }
+
+    @Test
+    void skipsFilesThatAreNotImages() throws Exception {
+        byte[] text = "not an image".getBytes(StandardCharsets.UTF_8);
+        store.put("notes.txt", new ByteArrayInputStream(text), text.length, "text/plain");
+
+        assertFalse(service.generate("notes.txt"));
+        assertFalse(service.generate("missing.png"));
+        assertTrue(store.find(service.variantKey("notes.txt", ImageVariant.THUMB)).isEmpty());
+    }
+
+    /**
+     * Inserts an APP1 segment holding a big-endian Exif IFD0 with only the
+     * orientation tag, after the JFIF APP0 segment ImageIO writes.
+     */
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        ByteBuffer exif = ByteBuffer.allocate(6 + 8 + 2 + 12 + 4);
+        exif.put("Exif\0\0".getBytes(StandardCharsets.ISO_8859_1));
+        exif.put((byte) 'M').put((byte) 'M').putShort((short) 42).putInt(8);
+        exif.putShort((short) 1);
+        exif.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        exif.putInt(0);
+        int afterApp0 = 4 + (((jpeg[4] & 0xFF) << 8) | (jpeg[5] & 0xFF));
+        ByteBuffer out = ByteBuffer.allocate(jpeg.length + 4 + exif.capacity());
+        out.put(jpeg, 0, afterApp0);
+        out.put((byte) 0xFF).put((byte) 0xE1).putShort((short) (exif.capacity() + 2)).put(exif.array());
+        out.put(jpeg, afterApp0, jpeg.length - afterApp0);
+        return out.array();
+    }
+
+    private void putImage(String key, BufferedImage image) throws Exception {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        store.put(key, new ByteArrayInputStream(png.toByteArray()), png.size(), "image/png");
+    }
+
+    private BufferedImage readImage(String key) throws Exception {
+        try (InputStream in = store.find(key).orElseThrow().open()) {
+            return ImageIO.read(in);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.backend.Backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LocalBlobStoreTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void storesUnderTwoLevelsOfShardsAndReadsByRange() throws Exception {
+        LocalBlobStore store = new LocalBlobStore(root, Runnable::run);
+
+        store.put("photo.png", new ByteArrayInputStream(new byte[] {0, 1, 2, 3}), 4, "image/png");
+
+        Path stored = store.shardedPath("photo.png");
+        assertTrue(Files.isRegularFile(stored));
+        assertEquals(root.toAbsolutePath().normalize(), stored.getParent().getParent().getParent());
+        BlobStore.Blob blob = store.find("photo.png").orElseThrow();
+        assertEquals(4, blob.length());
+        assertEquals(stored, blob.localFile().orElseThrow());
+        try (InputStream in = blob.open(1, 2)) {
+            assertArrayEquals(new byte[] {1, 2}, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void findsListsAndDeletesFilesFromBeforeSharding() throws Exception {
+        LocalBlobStore store = new LocalBlobStore(root, Runnable::run);
+        Files.write(root.resolve("legacy.png"), new byte[] {9});
+        store.put("new.png", new ByteArrayInputStream(new byte[] {1}), 1, "image/png");
+
+        assertTrue(store.find("legacy.png").isPresent());
+        Set<String> keys = new TreeSet<>();
+        store.forEachKey(keys::add);
+        assertEquals(Set.of("legacy.png", "new.png"), keys);
+
+        store.deleteAsync(List.of("legacy.png", "new.png")).get();
+
+        assertFalse(store.find("legacy.png").isPresent());
+        assertFalse(store.find("new.png").isPresent());
+    }
+
+    @Test
+    void rejectsKeysThatCouldEscapeTheRoot() throws Exception {
+        LocalBlobStore store = new LocalBlobStore(root, Runnable::run);
+
+        assertTrue(store.find("../etc/passwd").isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> store.put("../escape.png", InputStream.nullInputStream(), 0, "image/png"));
+    }
+}
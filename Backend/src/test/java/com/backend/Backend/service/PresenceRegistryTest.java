@@ -0,0 +1,144 @@
+package com.backend.Backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.backend.Backend.config.PresenceProperties;
+import com.backend.Backend.dto.PresenceDelta;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+class PresenceRegistryTest {
+
+    private final SimpMessageSendingOperations template = mock(SimpMessageSendingOperations.class);
+    private PresenceRegistry registry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<SimpMessageSendingOperations> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(template);
+        registry = new PresenceRegistry(new PresenceProperties(Duration.ofSeconds(30), Duration.ofSeconds(10),
+                Duration.ofMillis(250)), provider, null, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void coalescesChangesIntoOneDeltaPerFlush() {
+        registry.connect("s1", "1", false);
+        registry.connect("s2", "1", false);
+        registry.connect("s3", "2", false);
+        registry.disconnect("s3");
+        registry.flush();
+        verify(template).convertAndSend(PresenceRegistry.PRESENCE_DESTINATION, new PresenceDelta(List.of("1"), List.of()));
+
+        registry.disconnect("s1");
+        registry.flush();
+        assertTrue(registry.isOnline("1"));
+
+        registry.disconnect("s2");
+        registry.flush();
+        verify(template).convertAndSend(PresenceRegistry.PRESENCE_DESTINATION, new PresenceDelta(List.of(), List.of("1")));
+        verify(template, times(2)).convertAndSend(eq(PresenceRegistry.PRESENCE_DESTINATION), any(Object.class));
+    }
+
+    @Test
+    void followsStompSessionEvents() {
+        StompHeaderAccessor connect = StompHeaderAccessor.create(StompCommand.CONNECT);
+        connect.setHeader(SimpMessageHeaderAccessor.HEART_BEAT_HEADER, new long[] {10000, 10000});
+        SimpMessageHeaderAccessor connectAck = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+        connectAck.setSessionId("s1");
+        connectAck.setHeader(SimpMessageHeaderAccessor.CONNECT_MESSAGE_HEADER,
+                MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()));
+        Message<byte[]> ack = MessageBuilder.createMessage(new byte[0], connectAck.getMessageHeaders());
+
+        registry.onConnected(new SessionConnectedEvent(this, ack, () -> "7"));
+        assertTrue(registry.isOnline("7"));
+
+        // The client asked for heart-beats, so a silent session expires.
+        registry.expireIdle(System.currentTimeMillis() + Duration.ofSeconds(31).toMillis());
+        assertFalse(registry.isOnline("7"));
+
+        registry.onConnected(new SessionConnectedEvent(this, ack, () -> "7"));
+        registry.onDisconnect(new SessionDisconnectEvent(this, ack, "s1", CloseStatus.NORMAL, () -> "7"));
+        assertFalse(registry.isOnline("7"));
+    }
+
+    @Test
+    void expiresOnlySilentHeartbeatingSessions() {
+        registry.connect("s1", "1", true);
+        registry.connect("s2", "2", false);
+
+        registry.expireIdle(System.currentTimeMillis() + Duration.ofSeconds(31).toMillis());
+
+        assertEquals(List.of("2"), registry.onlineAmong(List.of("1", "2", "3")));
+    }
+
+    @Test
+    void anExpiredSessionComesBackOnItsNextFrame() {
+        registry.connect("s1", "1", true);
+        registry.expireIdle(System.currentTimeMillis() + Duration.ofSeconds(31).toMillis());
+        assertFalse(registry.isOnline("1"));
+
+        registry.touch("s1");
+        assertTrue(registry.isOnline("1"));
+
+        registry.expireIdle(System.currentTimeMillis() + Duration.ofSeconds(31).toMillis());
+        registry.disconnect("s1");
+        registry.touch("s1");
+        assertFalse(registry.isOnline("1"));
+    }
+
+    @Test
+    void staysConsistentUnderConcurrentConnectsAndDisconnects() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                workers.add(pool.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        String session = thread + "-" + i;
+                        String user = Integer.toString(i % 16);
+                        registry.connect(session, user, false);
+                        registry.touch(session);
+                        registry.disconnect(session);
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int user = 0; user < 16; user++) {
+            assertFalse(registry.isOnline(Integer.toString(user)));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.backend.Backend.service;
+
+import static com.backend.Backend.TestUsers.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.backend.Backend.dto.ProductView;
+import com.backend.Backend.model.Product;
+import com.backend.Backend.model.User;
+import com.backend.Backend.repository.ProductRepository;
+import com.backend.Backend.repository.UserRepository;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class ProductSearchServiceTest {
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void ranksTitleMatchesFirstAndMatchesPrefixesWhileTyping() throws Exception {
+        User seller = userRepository.save(user("dana"));
+        Product bike = indexed(new Product("Trek mountain bicycle", "Lightly used, 21 gears", 250, null, seller));
+        Product helmet = indexed(new Product("Helmet", "Fits any bicycle rider", 30, null, seller));
+        indexed(new Product("Desk", "Oak desk with drawers", 80, null, seller));
+
+        assertEquals(List.of(bike.getId(), helmet.getId()), ids(productSearchService.search("bicycles", null, null, 10)));
+        assertEquals(List.of(bike.getId()), ids(productSearchService.search("mountain bic", null, null, 10)));
+        assertEquals(List.of(helmet.getId()), ids(productSearchService.search("bicycle", null, 100.0, 10)));
+        assertTrue(productSearchService.search("mountain bic ", null, null, 10).isEmpty());
+        assertEquals(List.of("Trek mountain bicycle"), productSearchService.suggest("trek mou", 5));
+    }
+
+    @Test
+    void removesDeletedProductsAndRebuildsFromTheDatabase() throws Exception {
+        User seller = userRepository.save(user("eli"));
+        Product lamp = indexed(new Product("Lava lamp", "Retro orange", 20, null, seller));
+        Product chair = productRepository.save(new Product("Gaming chair", "Orange and black", 120, null, seller));
+
+        assertEquals(List.of(lamp.getId()), ids(productSearchService.search("orange", null, null, 10)));
+
+        productRepository.deleteById(lamp.getId());
+        productSearchService.remove(lamp.getId());
+        productSearchService.rebuild();
+
+        assertEquals(List.of(chair.getId()), ids(productSearchService.search("orange", null, null, 10)));
+    }
+
+    private Product indexed(Product product) {
+        Product saved = productRepository.save(product);
+        productSearchService.index(ProductView.from(saved));
+        return saved;
+    }
+
+    private static List<Long> ids(List<ProductView> views) {
+        return views.stream().map(ProductView::id).toList();
+    }
+}
@@ -0,0 +1,79 @@
+package com.backend.Backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.backend.Backend.config.ReadReceiptProperties;
+import com.backend.Backend.dto.ReadAck;
+import com.backend.Backend.dto.ReadReceipt;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+class ReadReceiptCoalescerTest {
+
+    private final ConversationService conversationService = mock(ConversationService.class);
+    private final SimpMessageSendingOperations template = mock(SimpMessageSendingOperations.class);
+    private final List<Collection<ReadAck>> writes = new ArrayList<>();
+
+    @Test
+    void mergesAcksPerConversationIntoOneWrite() {
+        // Stands in for the lookup: the highest id is the newest, and 99 is not stored yet.
+        when(conversationService.applyReadAcks(anyList())).thenAnswer(invocation -> {
+            List<ReadAck> acks = invocation.getArgument(0);
+            writes.add(List.copyOf(acks));
+            Map<String, ReadAck> newest = new TreeMap<>();
+            List<ReadAck> unknown = new ArrayList<>();
+            for (ReadAck ack : acks) {
+                if (ack.messageId() == 99L) {
+                    unknown.add(ack);
+                } else {
+                    newest.merge(ack.userId(), ack, (a, b) -> b.messageId() > a.messageId() ? b : a);
+                }
+            }
+            return new ConversationService.AppliedReadAcks(List.copyOf(newest.values()), unknown);
+        });
+        ReadReceiptCoalescer coalescer = coalescer();
+
+        coalescer.submit(new ReadAck("2", "1", 40L));
+        coalescer.submit(new ReadAck("2", "1", 42L));
+        coalescer.submit(new ReadAck("2", "1", 41L));
+        coalescer.submit(new ReadAck("2", "1", 42L));
+        coalescer.submit(new ReadAck("3", "1", 7L));
+        coalescer.submit(new ReadAck("3", "1", 99L));
+        coalescer.flush();
+        coalescer.flush();
+        coalescer.flush();
+
+        // Duplicates merged, order left to the lookup; the ack that overtook
+        // its message is retried once, then dropped.
+        assertEquals(2, writes.size());
+        assertEquals(5, writes.get(0).size());
+        assertEquals(Set.of(40L, 41L, 42L, 7L, 99L),
+                writes.get(0).stream().map(ReadAck::messageId).collect(Collectors.toSet()));
+        assertEquals(List.of(new ReadAck("3", "1", 99L)), writes.get(1));
+        verify(template).convertAndSendToUser("1", ReadReceiptCoalescer.RECEIPT_DESTINATION, new ReadReceipt("2", 42));
+        verify(template).convertAndSendToUser("1", ReadReceiptCoalescer.RECEIPT_DESTINATION, new ReadReceipt("3", 7));
+        verify(template, never()).convertAndSendToUser("1", ReadReceiptCoalescer.RECEIPT_DESTINATION, new ReadReceipt("2", 40));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ReadReceiptCoalescer coalescer() {
+        ObjectProvider<SimpMessageSendingOperations> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(template);
+        return new ReadReceiptCoalescer(conversationService,
+                new ReadReceiptProperties(Duration.ofMillis(500)), provider, null);
+    }
+}
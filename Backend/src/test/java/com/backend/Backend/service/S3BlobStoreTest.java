@@ -0,0 +1,228 @@
+package com.backend.Backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+class S3BlobStoreTest {
+
+    private final InMemoryS3 s3 = new InMemoryS3();
+    private final S3BlobStore store = new S3BlobStore(s3, "images", "products/", 4, Runnable::run);
+
+    @Test
+    void smallUploadsArePutInOneRequestAndReadByRange() throws Exception {
+        store.put("a.png", new ByteArrayInputStream(bytes(3)), 3, "image/png");
+
+        assertEquals(0, s3.multipartUploads.get());
+        BlobStore.Blob blob = store.find("a.png").orElseThrow();
+        assertEquals(3, blob.length());
+        assertTrue(blob.localFile().isEmpty());
+        try (InputStream in = blob.open(1, 2)) {
+            assertArrayEquals(new byte[] {1, 2}, in.readAllBytes());
+        }
+        assertTrue(store.find("missing.png").isEmpty());
+    }
+
+    @Test
+    void largeAndUnknownLengthUploadsGoUpInParts() throws Exception {
+        store.put("big.png", new ByteArrayInputStream(bytes(10)), 10, "image/png");
+        assertEquals(List.of(4, 4, 2), s3.lastPartSizes);
+        store.put("stream.png", new ByteArrayInputStream(bytes(2)), -1, "image/png");
+
+        assertEquals(2, s3.multipartUploads.get());
+        try (InputStream in = store.find("big.png").orElseThrow().open()) {
+            assertArrayEquals(bytes(10), in.readAllBytes());
+        }
+        assertEquals(2, store.find("stream.png").orElseThrow().length());
+    }
+
+    @Test
+    void failedMultipartUploadsAreAborted() {
+        InputStream failing = new InputStream() {
+            private int remaining = 5;
+
+            @Override
+            public int read() throws IOException {
+                if (remaining-- <= 0) {
+                    throw new IOException("client went away");
+                }
+                return 7;
+            }
+        };
+
+        assertThrows(IOException.class, () -> store.put("broken.png", failing, 10, "image/png"));
+        assertEquals(1, s3.aborted.get());
+        assertTrue(s3.objects.isEmpty());
+    }
+
+    @Test
+    void deletesInTheBackgroundAndListsUnderThePrefix() throws Exception {
+        store.put("a.png", new ByteArrayInputStream(bytes(1)), 1, "image/png");
+        store.put("b.png", new ByteArrayInputStream(bytes(1)), 1, "image/png");
+        s3.objects.put("other/c.png", bytes(1));
+
+        store.deleteAsync(List.of("a.png", "missing.png", "../escape")).get();
+
+        List<String> keys = new ArrayList<>();
+        store.forEachKey(keys::add);
+        assertEquals(List.of("b.png"), keys);
+    }
+
+    private static byte[] bytes(int count) {
+        byte[] bytes = new byte[count];
+        for (int i = 0; i < count; i++) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+
+    /** Just enough of S3 for {@link S3BlobStore}, standing in for MinIO. */
+    private static final class InMemoryS3 implements S3Client {
+
+        final Map<String, byte[]> objects = new TreeMap<>();
+        final Map<String, List<byte[]>> uploads = new ConcurrentHashMap<>();
+        final AtomicInteger multipartUploads = new AtomicInteger();
+        final AtomicInteger aborted = new AtomicInteger();
+        List<Integer> lastPartSizes = List.of();
+
+        @Override
+        public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+            objects.put(request.key(), read(body));
+            return PutObjectResponse.builder().build();
+        }
+
+        @Override
+        public CreateMultipartUploadResponse createMultipartUpload(CreateMultipartUploadRequest request) {
+            String uploadId = "upload-" + multipartUploads.incrementAndGet();
+            uploads.put(uploadId, new ArrayList<>());
+            return CreateMultipartUploadResponse.builder().uploadId(uploadId).build();
+        }
+
+        @Override
+        public UploadPartResponse uploadPart(UploadPartRequest request, RequestBody body) {
+            uploads.get(request.uploadId()).add(read(body));
+            return UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build();
+        }
+
+        @Override
+        public CompleteMultipartUploadResponse completeMultipartUpload(CompleteMultipartUploadRequest request) {
+            List<byte[]> parts = uploads.remove(request.uploadId());
+            assertEquals(parts.size(), request.multipartUpload().parts().size());
+            assertEquals(1, request.multipartUpload().parts().stream().mapToInt(CompletedPart::partNumber).min().orElse(0));
+            lastPartSizes = parts.stream().map(part -> part.length).toList();
+            byte[] whole = new byte[parts.stream().mapToInt(part -> part.length).sum()];
+            int offset = 0;
+            for (byte[] part : parts) {
+                System.arraycopy(part, 0, whole, offset, part.length);
+                offset += part.length;
+            }
+            objects.put(request.key(), whole);
+            return CompleteMultipartUploadResponse.builder().build();
+        }
+
+        @Override
+        public AbortMultipartUploadResponse abortMultipartUpload(AbortMultipartUploadRequest request) {
+            uploads.remove(request.uploadId());
+            aborted.incrementAndGet();
+            return AbortMultipartUploadResponse.builder().build();
+        }
+
+        @Override
+        public HeadObjectResponse headObject(HeadObjectRequest request) {
+            byte[] object = objects.get(request.key());
+            if (object == null) {
+                throw NoSuchKeyException.builder().statusCode(404).build();
+            }
+            return HeadObjectResponse.builder().contentLength((long) object.length).lastModified(Instant.EPOCH).build();
+        }
+
+        @Override
+        public <T> T getObject(GetObjectRequest request, ResponseTransformer<GetObjectResponse, T> transformer) {
+            byte[] object = objects.get(request.key());
+            if (object == null) {
+                throw NoSuchKeyException.builder().statusCode(404).build();
+            }
+            String[] range = request.range().substring("bytes=".length()).split("-");
+            byte[] slice = Arrays.copyOfRange(object, Integer.parseInt(range[0]), Integer.parseInt(range[1]) + 1);
+            try {
+                return transformer.transform(GetObjectResponse.builder().contentLength((long) slice.length).build(),
+                        AbortableInputStream.create(new ByteArrayInputStream(slice)));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public DeleteObjectsResponse deleteObjects(DeleteObjectsRequest request) {
+            request.delete().objects().stream().map(ObjectIdentifier::key).forEach(objects::remove);
+            return DeleteObjectsResponse.builder().build();
+        }
+
+        @Override
+        public ListObjectsV2Response listObjectsV2(ListObjectsV2Request request) {
+            List<S3Object> contents = objects.keySet().stream()
+                    .filter(key -> key.startsWith(request.prefix()))
+                    .map(key -> S3Object.builder().key(key).build())
+                    .toList();
+            return ListObjectsV2Response.builder().contents(contents).isTruncated(false).build();
+        }
+
+        private static byte[] read(RequestBody body) {
+            try (InputStream in = body.contentStreamProvider().newStream()) {
+                return in.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public String serviceName() {
+            return "s3";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
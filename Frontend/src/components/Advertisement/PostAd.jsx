@@ -13,6 +13,7 @@ import {
 } from '@mui/material';
 import { PhotoCamera } from '@mui/icons-material';
 import toast from 'react-hot-toast';
+import { authHeaders } from '../Auth/token.js';
 
 const PostAd = () => {
   const user = JSON.parse(localStorage.getItem('user')); 
@@ -58,6 +59,7 @@ const PostAd = () => {
     try {
       const response = await fetch('http://localhost:8080/products', {
         method: 'POST',
+        headers: authHeaders(),
         body: data,
       });
 
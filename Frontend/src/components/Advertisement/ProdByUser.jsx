@@ -90,7 +90,8 @@ const ProdByUser = () => {
                 <div className="flex flex-col md:flex-row"> 
                   <div className="relative md:w-1/3 h-64">
                     <img
-                      src={product.imageUrl || 'https://via.placeholder.com/300'}
+                      src={product.mediumUrl || product.imageUrl || 'https://via.placeholder.com/300'}
+                      loading="lazy"
                       alt={product.title}
                       className="w-full h-full object-cover"
                     />
@@ -6,6 +6,7 @@ import { EarthCanvas, StarsCanvas } from "../Canvas";
 import { slideIn } from "./motion";
 import toast from "react-hot-toast";
 import axios from "axios";
+import { saveToken } from "./token.js";
 import { Navigate, useNavigate } from "react-router-dom";
 import { FontAwesomeIcon } from "@fortawesome/react-fontawesome";
 import { useDispatch, useSelector } from "react-redux";
@@ -41,6 +42,7 @@ const Login = () => {
       if (data.success) {
         const user = data.user;
   
+        saveToken(data.token);
         dispatch(setAuth({ user }));
         localStorage.setItem("user", JSON.stringify(user));
         localStorage.setItem("userId", user.id); 
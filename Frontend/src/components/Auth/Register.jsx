@@ -1,5 +1,6 @@
 import { useState, useContext } from "react";
 import axios from "axios";
+import { saveToken } from "./token.js";
 import toast from "react-hot-toast";
 import { Navigate } from "react-router-dom";
 import { faEye, faEyeSlash } from "@fortawesome/free-solid-svg-icons";
@@ -74,6 +75,14 @@ const Register = () => {
         }
       );
   
+      // Log straight in to get the token the other endpoints need.
+      const { data: login } = await axios.post(
+        "http://localhost:8080/api/users/login",
+        { email, password },
+        { headers: { "Content-Type": "application/json" } }
+      );
+      saveToken(login.token);
+
       // Save to redux and localStorage
       dispatch(setAuth({ user: data }));
       localStorage.setItem("user", JSON.stringify(data));
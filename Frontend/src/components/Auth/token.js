@@ -0,0 +1,24 @@
+import axios from "axios";
+
+// Bearer token from POST /api/users/login. Sent on every API call and in
+// the STOMP CONNECT frame; the backend no longer trusts user ids alone.
+const TOKEN_KEY = "token";
+
+export const saveToken = (token) => localStorage.setItem(TOKEN_KEY, token);
+
+export const getToken = () => localStorage.getItem(TOKEN_KEY);
+
+export const clearToken = () => localStorage.removeItem(TOKEN_KEY);
+
+export const authHeaders = () => {
+  const token = getToken();
+  return token ? { Authorization: `Bearer ${token}` } : {};
+};
+
+axios.interceptors.request.use((config) => {
+  const token = getToken();
+  if (token && !config.headers.Authorization) {
+    config.headers.Authorization = `Bearer ${token}`;
+  }
+  return config;
+});
@@ -24,36 +24,13 @@ const ConversationList = () => {
         console.log("Conversations data:", response.data);
         setConversations(response.data);
         
-        const userIds = new Set();
-        response.data.forEach(convo => {
+        // Partner names are resolved server-side in the same query.
+        const names = {};
+        response.data.forEach((convo) => {
           if (convo.userId) {
-            userIds.add(convo.userId);
-            console.log(`Added user ${convo.userId} to fetch list`);
-          } else {
-            console.warn("Found conversation with null userId:", convo);
+            names[convo.userId] = convo.userName;
           }
         });
-        
-        const names = {};
-        for (const id of userIds) {
-          try {
-            console.log(`Fetching user info for ID: ${id}`);
-            const userResponse = await axios.get(`http://localhost:8080/api/users/${id}`, {
-              withCredentials: true
-            });
-            
-            if (userResponse.data && userResponse.data.name) {
-              names[id] = userResponse.data.name;
-              console.log(`Found name for user ${id}: ${names[id]}`);
-            } else {
-              names[id] = `User ${id}`;
-              console.log(`Using default name for user ${id}`);
-            }
-          } catch (error) {
-            console.error(`Error fetching user info for ID ${id}:`, error);
-            names[id] = `User ${id}`;
-          }
-        }
         setUserNames(names);
       } catch (error) {
         console.error("Error fetching conversations:", error);
@@ -6,6 +6,10 @@ import axios from "axios";
 
 import { FaTrash, FaEllipsisV } from "react-icons/fa";
 import toast from "react-hot-toast";
+import { authHeaders } from "../Auth/token.js";
+
+const HISTORY_PAGE_SIZE = 50;
+
 const Message = () => {
   const [message, setMessage] = useState("");
   const [stompClient, setStompClient] = useState(null);
@@ -15,6 +19,8 @@ const Message = () => {
   const [showOptions, setShowOptions] = useState(false);
   const [selectedMessage, setSelectedMessage] = useState(null);
   const [isArchived, setIsArchived] = useState(false);
+  const [olderCursor, setOlderCursor] = useState(null);
+  const [loadingOlder, setLoadingOlder] = useState(false);
 
   const { userId } = useParams();
   const currentUserId = localStorage.getItem("userId");
@@ -30,25 +36,25 @@ const Message = () => {
         userIds.add(msg.recipientId);
       });
 
-      for (const id of userIds) {
-        if (!userNames[id] && id) {
-          try {
-            const response = await axios.get(
-              `http://localhost:8080/api/users/${id}`
-            );
-            setUserNames((prev) => ({
-              ...prev,
-              [id]: response.data.name || `User ${id}`,
-            }));
-          } catch (error) {
-            console.error(`Error fetching user info for ID ${id}:`, error);
-            setUserNames((prev) => ({
-              ...prev,
-              [id]: `User ${id}`,
-            }));
-          }
-        }
+      const missing = [...userIds].filter((id) => id && !userNames[id]);
+      if (missing.length === 0) {
+        return;
       }
+      const names = {};
+      missing.forEach((id) => {
+        names[id] = `User ${id}`;
+      });
+      try {
+        const response = await axios.get(`http://localhost:8080/api/users`, {
+          params: { ids: missing.join(",") },
+        });
+        response.data.forEach((user) => {
+          names[user.id] = user.name || `User ${user.id}`;
+        });
+      } catch (error) {
+        console.error("Error fetching user names:", error);
+      }
+      setUserNames((prev) => ({ ...prev, ...names }));
     };
 
     fetchUserNames();
@@ -58,14 +64,40 @@ const Message = () => {
     window.global = window;
 
     const client = new Client({
-      webSocketFactory: () => new SockJS("http://localhost:8080/ws"),
+      // Native WebSocket where available; SockJS only as a fallback.
+      webSocketFactory: () =>
+        typeof WebSocket !== "undefined"
+          ? new WebSocket("ws://localhost:8080/ws-native")
+          : new SockJS("http://localhost:8080/ws"),
+      connectHeaders: authHeaders(),
+      heartbeatIncoming: 10000,
+      heartbeatOutgoing: 10000,
       onConnect: () => {
         console.log("STOMP connection established");
         setConnected(true);
-        client.subscribe(`/topic/messages/${currentUserId}`, (messageFrame) => {
+        client.subscribe("/user/queue/messages", (messageFrame) => {
           const receivedMessage = JSON.parse(messageFrame.body);
-          console.log("Message received:", receivedMessage);
+          // The user queue carries every conversation; show only this one.
+          if (String(receivedMessage.senderId) !== String(userId)) {
+            return;
+          }
           setMessages((prev) => [...prev, receivedMessage]);
+          // The conversation is open, so the message is read; the server
+          // merges these acks and stores one cursor per window.
+          client.publish({
+            destination: "/app/chat.read",
+            body: JSON.stringify({
+              userId: currentUserId,
+              otherUserId: userId,
+              messageId: receivedMessage.id,
+            }),
+          });
+        });
+        // Sends the server refused or could not store.
+        client.subscribe("/user/queue/errors", (errorFrame) => {
+          const sendError = JSON.parse(errorFrame.body);
+          console.error("Message not sent:", sendError.error);
+          alert("Your message could not be sent. Please try again.");
         });
       },
       onDisconnect: () => {
@@ -85,21 +117,30 @@ const Message = () => {
         client.deactivate();
       }
     };
-  }, [currentUserId]);
+  }, [currentUserId, userId]);
+
+  const fetchHistoryPage = async (before) => {
+    const params = {
+      userId: currentUserId,
+      otherUserId: userId,
+      limit: HISTORY_PAGE_SIZE,
+    };
+    if (before) {
+      params.before = before;
+    }
+    const response = await axios.get(
+      `http://localhost:8080/api/chat/history/page`,
+      { params }
+    );
+    return response.data;
+  };
 
   useEffect(() => {
     const fetchChatHistory = async () => {
       try {
-        const response = await axios.get(
-          `http://localhost:8080/api/chat/history`,
-          {
-            params: {
-              userId: currentUserId,
-              otherUserId: userId,
-            },
-          }
-        );
-        setMessages(response.data);
+        const page = await fetchHistoryPage(null);
+        setMessages(page.messages);
+        setOlderCursor(page.nextCursor);
       } catch (error) {
         console.error("Error fetching chat history:", error);
       }
@@ -110,6 +151,20 @@ const Message = () => {
     }
   }, [currentUserId, userId]);
 
+  const loadOlderMessages = async () => {
+    if (!olderCursor || loadingOlder) return;
+    setLoadingOlder(true);
+    try {
+      const page = await fetchHistoryPage(olderCursor);
+      setMessages((prev) => [...page.messages, ...prev]);
+      setOlderCursor(page.nextCursor);
+    } catch (error) {
+      console.error("Error fetching older messages:", error);
+    } finally {
+      setLoadingOlder(false);
+    }
+  };
+
   const sendMessage = () => {
     if (stompClient && connected && message.trim()) {
       const chatMessage = {
@@ -247,6 +302,17 @@ const Message = () => {
 
       {/* Messages container */}
       <div className="flex-1 overflow-y-auto p-4 space-y-4 bg-gradient-to-b from-gray-50 to-gray-100">
+        {olderCursor && (
+          <div className="text-center">
+            <button
+              onClick={loadOlderMessages}
+              disabled={loadingOlder}
+              className="text-sm text-blue-600 hover:underline disabled:text-gray-400"
+            >
+              {loadingOlder ? "Loading..." : "Load earlier messages"}
+            </button>
+          </div>
+        )}
         {messages.length === 0 ? (
           <div className="flex items-center justify-center h-full">
             <div className="text-gray-500 text-center p-6 bg-white rounded-lg shadow-sm max-w-md">
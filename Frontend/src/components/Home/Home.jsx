@@ -24,8 +24,14 @@ const Home = () => {
     image: null,
   });
 
-  const [currentPage, setCurrentPage] = useState(1);
   const [tasksPerPage] = useState(5);
+  // cursors[i] is the token that fetches page i; page 0 starts without one.
+  const [cursors, setCursors] = useState([null]);
+  const [pageIndex, setPageIndex] = useState(0);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [searchText, setSearchText] = useState("");
+  // null while the search box is empty; the paged listing is shown instead.
+  const [searchResults, setSearchResults] = useState(null);
 
   const userId = parseInt(localStorage.getItem("userId"));
   const user = localStorage.getItem("user");
@@ -51,13 +57,17 @@ const Home = () => {
   useEffect(() => {
     const fetchAdvertisements = async () => {
       try {
+        const params = { limit: tasksPerPage };
+        if (cursors[pageIndex]) {
+          params.cursor = cursors[pageIndex];
+        }
         const res = await axios.get(`${BACKEND_URL}/products`, {
+          params,
           withCredentials: true,
         });
 
-        console.log("Fetched ads:", res.data);
-
-        setAdvertisements(res.data);
+        setAdvertisements(res.data.items);
+        setNextCursor(res.data.nextCursor);
       } catch (error) {
         console.error("Error fetching advertisements:", error);
       } finally {
@@ -66,7 +76,34 @@ const Home = () => {
     };
 
     fetchAdvertisements();
-  }, []);
+  }, [pageIndex, cursors, tasksPerPage]);
+
+  useEffect(() => {
+    if (!searchText.trim()) {
+      setSearchResults(null);
+      return;
+    }
+    // Wait for a pause in typing; a newer keystroke cancels the request.
+    const controller = new AbortController();
+    const timer = setTimeout(async () => {
+      try {
+        const res = await axios.get(`${BACKEND_URL}/products/search`, {
+          params: { q: searchText, limit: 20 },
+          withCredentials: true,
+          signal: controller.signal,
+        });
+        setSearchResults(res.data);
+      } catch (error) {
+        if (!axios.isCancel(error)) {
+          console.error("Error searching advertisements:", error);
+        }
+      }
+    }, 200);
+    return () => {
+      clearTimeout(timer);
+      controller.abort();
+    };
+  }, [searchText]);
 
   if (!isAuthorized) return <Navigate to="/login" />;
 
@@ -111,6 +148,9 @@ const Home = () => {
       setAdvertisements((prev) =>
         prev.map((ad) => (ad.id === id ? response.data : ad))
       );
+      setSearchResults((prev) =>
+        prev && prev.map((ad) => (ad.id === id ? response.data : ad))
+      );
 
       setEditingAdId(null);
       toast.success("Advertisement updated successfully");
@@ -136,6 +176,7 @@ const Home = () => {
       });
 
       setAdvertisements((prev) => prev.filter((ad) => ad.id !== id));
+      setSearchResults((prev) => prev && prev.filter((ad) => ad.id !== id));
       console.log("Fetched ads:", res.data);
 
       toast.success("Advertisement deleted successfully");
@@ -154,22 +195,23 @@ const Home = () => {
     }));
   };
 
+  const listedAdvertisements = searchResults ?? advertisements;
+
   const filteredAdvertisements = statusFilter
-    ? advertisements.filter(
+    ? listedAdvertisements.filter(
         (ad) => (ad.status || "").toLowerCase() === statusFilter.toLowerCase()
       )
-    : advertisements;
+    : listedAdvertisements;
 
-  const indexOfLastAd = currentPage * tasksPerPage;
-  const indexOfFirstAd = indexOfLastAd - tasksPerPage;
-  const currentAdvertisements = filteredAdvertisements.slice(
-    indexOfFirstAd,
-    indexOfLastAd
-  );
+  const currentAdvertisements = filteredAdvertisements;
 
-  const paginate = (pageNumber) => setCurrentPage(pageNumber);
+  const goToPreviousPage = () => setPageIndex((prev) => Math.max(0, prev - 1));
 
-  const totalPages = Math.ceil(filteredAdvertisements.length / tasksPerPage);
+  const goToNextPage = () => {
+    if (!nextCursor) return;
+    setCursors((prev) => [...prev.slice(0, pageIndex + 1), nextCursor]);
+    setPageIndex((prev) => prev + 1);
+  };
 
   const getImageUrl = (imageUrl) => {
     if (!imageUrl) return "https://via.placeholder.com/150";
@@ -217,6 +259,13 @@ const Home = () => {
 
         <div className="col-span-2 bg-white p-6 rounded-sm shadow-md">
           <h2 className="text-2xl font-bold mb-4">Advertisements</h2>
+          <input
+            type="search"
+            value={searchText}
+            onChange={(e) => setSearchText(e.target.value)}
+            className="w-full p-2 border rounded mb-4"
+            placeholder="Search advertisements"
+          />
 
           {isLoading ? (
             <p>Loading advertisements...</p>
@@ -326,9 +375,11 @@ const Home = () => {
                                       <div className="w-24 h-24 rounded-md overflow-hidden">
                                         <img
                                           src={
+                                            ad.thumbnailUrl ||
                                             ad.imageUrl ||
                                             "https://via.placeholder.com/150"
                                           }
+                                          loading="lazy"
                                           alt={ad.title}
                                           className="w-full h-full object-cover"
                                         />
@@ -396,14 +447,14 @@ const Home = () => {
           )}
 
           {/* Pagination */}
-          {filteredAdvertisements.length > tasksPerPage && (
+          {!searchResults && (pageIndex > 0 || nextCursor) && (
             <div className="mt-6 flex items-center justify-center">
               <div className="flex items-center space-x-1">
                 <button
-                  onClick={() => paginate(Math.max(1, currentPage - 1))}
-                  disabled={currentPage === 1}
+                  onClick={goToPreviousPage}
+                  disabled={pageIndex === 0}
                   className={`px-3 py-1 rounded-md ${
-                    currentPage === 1
+                    pageIndex === 0
                       ? "bg-gray-200 text-gray-500 cursor-not-allowed"
                       : "bg-blue-600 text-white hover:bg-blue-700"
                   }`}
@@ -411,27 +462,15 @@ const Home = () => {
                   &lt;
                 </button>
 
-                {Array.from({ length: totalPages }, (_, i) => (
-                  <button
-                    key={i + 1}
-                    onClick={() => paginate(i + 1)}
-                    className={`px-3 py-1 rounded-md ${
-                      currentPage === i + 1
-                        ? "bg-blue-600 text-white"
-                        : "bg-gray-200 text-gray-700 hover:bg-gray-300"
-                    }`}
-                  >
-                    {i + 1}
-                  </button>
-                ))}
+                <span className="px-3 py-1 rounded-md bg-blue-600 text-white">
+                  {pageIndex + 1}
+                </span>
 
                 <button
-                  onClick={() =>
-                    paginate(Math.min(totalPages, currentPage + 1))
-                  }
-                  disabled={currentPage === totalPages}
+                  onClick={goToNextPage}
+                  disabled={!nextCursor}
                   className={`px-3 py-1 rounded-md ${
-                    currentPage === totalPages
+                    !nextCursor
                       ? "bg-gray-200 text-gray-500 cursor-not-allowed"
                       : "bg-blue-600 text-white hover:bg-blue-700"
                   }`}
@@ -26,6 +26,7 @@ const authSlice = createSlice({
 
       // Clean up
       localStorage.removeItem("user");
+      localStorage.removeItem("token");
       Cookies.remove("token"); // or your auth cookie key
     },
   },
@@ -4,6 +4,7 @@ import App from "./App.jsx"; // Ensure this path is correct
 import { Provider } from "react-redux";
 import store from "./components/redux/store.js"
 import "./index.css"
+import "./components/Auth/token.js"
 const root = ReactDOM.createRoot(document.getElementById("root"));
 
 root.render(